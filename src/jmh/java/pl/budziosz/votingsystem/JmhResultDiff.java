@@ -0,0 +1,86 @@
+package pl.budziosz.votingsystem;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares two JMH JSON result files (e.g. the last release's and the current build's) benchmark by benchmark and
+ * exits with 1 when any benchmark got slower by more than the threshold and by more than both runs' error margins.
+ * Usage: {@code JmhResultDiff <baseline.json> <current.json> [threshold-percent]}.
+ */
+public final class JmhResultDiff {
+
+    private JmhResultDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: JmhResultDiff <baseline.json> <current.json> [threshold-percent]");
+            System.exit(2);
+        }
+        // Maven passes the expression through unresolved when -Djmh.baseline is not given.
+        if (args[0].isBlank() || args[0].startsWith("${")) {
+            System.err.println("jmh.baseline is required: pass -Djmh.baseline=<result file of an earlier run on this machine>");
+            System.exit(2);
+        }
+        requireFile(args[0], "baseline (-Djmh.baseline)");
+        requireFile(args[1], "current result (-Djmh.result); run the benchmarks first");
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        Map<String, JsonNode> baseline = read(args[0]);
+        Map<String, JsonNode> current = read(args[1]);
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            String unit = now.path("primaryMetric").path("scoreUnit").asText();
+            double score = now.path("primaryMetric").path("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "new", unit);
+                continue;
+            }
+            double previous = before.path("primaryMetric").path("score").asDouble();
+            double change = (score - previous) / previous * 100;
+            // Throughput: higher is better; every time-based mode: lower is better.
+            double worse = "thrpt".equals(now.path("mode").asText()) ? -change : change;
+            double margin = now.path("primaryMetric").path("scoreError").asDouble()
+                    + before.path("primaryMetric").path("scoreError").asDouble();
+            boolean regression = worse > threshold && Math.abs(score - previous) > margin;
+            if (regression) {
+                regressions++;
+            }
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n", entry.getKey(), previous, score, change, unit,
+                    regression ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream()
+                .filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-90s %14s %14s %9s%n", key, "", "-", "removed"));
+        System.out.printf("%d regression(s) over %.1f%%%n", regressions, threshold);
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    private static void requireFile(String path, String what) {
+        if (!new File(path).isFile()) {
+            System.err.println("No " + what + " at " + path);
+            System.exit(2);
+        }
+    }
+
+    // Keyed by benchmark, mode and parameters, so parameterized runs are compared one to one.
+    private static Map<String, JsonNode> read(String path) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                    .append(" [").append(result.path("mode").asText()).append(']');
+            result.path("params").properties().forEach(p -> key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,124 @@
+package pl.budziosz.votingsystem.controller.admin;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.ReferenceDataCache;
+import pl.budziosz.votingsystem.cache.VoteTally;
+import pl.budziosz.votingsystem.model.dto.ElectionResultsDtos.OptionResult;
+import pl.budziosz.votingsystem.repository.ElectionResultsSnapshotRepository.ResultsSnapshot;
+import pl.budziosz.votingsystem.service.AdminElectionService;
+import pl.budziosz.votingsystem.service.ResultsSnapshotService;
+import pl.budziosz.votingsystem.service.VoteStoredEvent;
+import pl.budziosz.votingsystem.validators.ElectionValidator;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * {@link AdminElectionController#results} up to the response bytes, for an open election (in-memory tally mapped to
+ * {@link OptionResult}s and serialized by Jackson, as the message converter does) and for a finalized one (frozen
+ * snapshot served as is). Election and options come from an in-memory reference-data cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ElectionResultsBenchmark {
+
+    private static final long OPEN_ELECTION_ID = 1L;
+    private static final long CLOSED_ELECTION_ID = 2L;
+    private static final int OPTIONS = 20;
+
+    private AdminElectionController controller;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper();
+        Instant now = Instant.now();
+        Map<Long, ElectionMetadata> elections = new HashMap<>();
+        Map<Long, List<OptionMetadata>> options = new HashMap<>();
+        for (long electionId : new long[]{OPEN_ELECTION_ID, CLOSED_ELECTION_ID}) {
+            Instant endsAt = electionId == OPEN_ELECTION_ID ? now.plus(Duration.ofDays(1)) : now.minus(Duration.ofDays(1));
+            List<OptionMetadata> electionOptions = LongStream.rangeClosed(1, OPTIONS)
+                    .mapToObj(i -> new OptionMetadata(electionId * 100 + i, electionId, "Option " + i))
+                    .toList();
+            options.put(electionId, electionOptions);
+            elections.put(electionId, new ElectionMetadata(electionId, endsAt.minus(Duration.ofDays(2)), endsAt,
+                    electionOptions.stream().map(OptionMetadata::id).collect(Collectors.toSet())));
+        }
+        ReferenceDataCache referenceDataCache = new ReferenceDataCache(null, null) {
+            @Override
+            public Optional<ElectionMetadata> findElectionMetadata(Long electionId) {
+                return Optional.ofNullable(elections.get(electionId));
+            }
+
+            @Override
+            public List<OptionMetadata> findOptions(Long electionId) {
+                return options.getOrDefault(electionId, List.of());
+            }
+        };
+
+        VoteTally voteTally = new VoteTally(null, null);
+        ReflectionTestUtils.setField(voteTally, "enabled", true);
+        ReflectionTestUtils.setField(voteTally, "ready", true);
+        for (OptionMetadata option : options.get(OPEN_ELECTION_ID)) {
+            for (int i = 0; i < option.id() % 7 + 1; i++) {
+                voteTally.onVoteStored(new VoteStoredEvent(OPEN_ELECTION_ID, (long) i, option.id()));
+            }
+        }
+
+        List<OptionResult> closedResults = options.get(CLOSED_ELECTION_ID).stream()
+                .map(o -> new OptionResult(o.id(), o.label(), o.id() * 1_000))
+                .toList();
+        ResultsSnapshot snapshot = new ResultsSnapshot(CLOSED_ELECTION_ID, objectMapper.writeValueAsString(closedResults), "\"etag\"");
+        ResultsSnapshotService resultsSnapshotService = new ResultsSnapshotService(null, null, null, objectMapper) {
+            @Override
+            public Optional<ResultsSnapshot> find(Long electionId) {
+                return electionId == CLOSED_ELECTION_ID ? Optional.of(snapshot) : Optional.empty();
+            }
+        };
+
+        AdminElectionService electionService = new AdminElectionService(null, null, null, null, null,
+                new ElectionValidator(null, null, referenceDataCache), null, referenceDataCache, voteTally,
+                resultsSnapshotService, null, null);
+        controller = new AdminElectionController(electionService, null, null);
+        ReflectionTestUtils.setField(controller, "finalResultsMaxAge", Duration.ofDays(1));
+    }
+
+    @Benchmark
+    public byte[] openElection() throws JsonProcessingException {
+        ResponseEntity<?> response = controller.results(OPEN_ELECTION_ID);
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+
+    @Benchmark
+    public byte[] finalizedElection() {
+        ResponseEntity<?> response = controller.results(CLOSED_ELECTION_ID);
+        return ((String) response.getBody()).getBytes(StandardCharsets.UTF_8);
+    }
+}
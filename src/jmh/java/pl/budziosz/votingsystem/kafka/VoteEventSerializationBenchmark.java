@@ -0,0 +1,80 @@
+package pl.budziosz.votingsystem.kafka;
+
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON vs {@link VoteEventBinaryFormat} for one vote event, through the same (de)serializers Kafka uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VoteEventSerializationBenchmark {
+
+    private VoteRequestedEvent event;
+    private JsonSerializer<Object> jsonSerializer;
+    private VoteEventBinarySerializer binarySerializer;
+    private VoteEventDeserializer deserializer;
+    private byte[] json;
+    private RecordHeaders jsonHeaders;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() {
+        event = new VoteRequestedEvent(UUID.randomUUID().toString(), 1_024L, 123_456L, 4_096L, Instant.now());
+        jsonSerializer = new JsonSerializer<>();
+        binarySerializer = new VoteEventBinarySerializer();
+        deserializer = new VoteEventDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.VALUE_DEFAULT_TYPE, VoteRequestedEvent.class.getName()), false);
+
+        jsonHeaders = new RecordHeaders();
+        json = jsonSerializer.serialize("votes", jsonHeaders, event);
+        binary = binarySerializer.serialize("votes", event);
+        int headerBytes = 0;
+        for (var h : jsonHeaders) {
+            headerBytes += h.key().length() + h.value().length;
+        }
+        System.out.printf("%nrecord size: json=%d bytes (+%d bytes type header), binary=%d bytes%n", json.length, headerBytes, binary.length);
+    }
+
+    @Benchmark
+    public byte[] serializeJson() {
+        return jsonSerializer.serialize("votes", new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public byte[] serializeBinary() {
+        return binarySerializer.serialize("votes", event);
+    }
+
+    @Benchmark
+    public Object deserializeJson() {
+        return deserializer.deserialize("votes", jsonHeaders, json);
+    }
+
+    @Benchmark
+    public Object deserializeBinary() {
+        return deserializer.deserialize("votes", new RecordHeaders(), binary);
+    }
+}
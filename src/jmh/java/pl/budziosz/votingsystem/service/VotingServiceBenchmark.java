@@ -0,0 +1,167 @@
+package pl.budziosz.votingsystem.service;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.VotedIndex;
+import pl.budziosz.votingsystem.cache.VoterStatusCache;
+import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
+import pl.budziosz.votingsystem.model.domain.Election;
+import pl.budziosz.votingsystem.model.domain.ElectionOption;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
+import pl.budziosz.votingsystem.model.domain.Voter;
+import pl.budziosz.votingsystem.repository.ElectionOptionRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository.OptionVotes;
+import pl.budziosz.votingsystem.repository.ElectionRepository;
+import pl.budziosz.votingsystem.repository.InMemoryRepositories;
+import pl.budziosz.votingsystem.repository.ProcessedEventRepository;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository.VoteTargets;
+import pl.budziosz.votingsystem.repository.VoteRepository;
+import pl.budziosz.votingsystem.repository.VoterRepository;
+import pl.budziosz.votingsystem.validators.VotingValidator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link VotingService#processEvent} (JPA ingest mode) with every repository in memory, so that only the service's own
+ * work is measured: lookups, validation, entity references and the stored event. Covers a stored vote, a voter already
+ * in the voted index and a blocked voter (rejection with its exception). Per-vote logging is turned off;
+ * it is the same in every release and would otherwise dominate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VotingServiceBenchmark {
+
+    private static final long ELECTION_ID = 1L;
+    private static final long OPTION_ID = 10L;
+    private static final long VOTED_VOTER_ID = 1_000_001L;
+    private static final long BLOCKED_VOTER_ID = 1_000_002L;
+    private static final int EVENTS = 4_096;
+
+    private VotingService service;
+    private VoteRequestedEvent[] events;
+    private VoteRequestedEvent votedEvent;
+    private VoteRequestedEvent blockedEvent;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        ((Logger) LoggerFactory.getLogger(VotingService.class)).setLevel(Level.WARN);
+
+        Instant now = Instant.now();
+        ElectionMetadata election = new ElectionMetadata(ELECTION_ID, now.minus(Duration.ofDays(1)), now.plus(Duration.ofDays(1)), Set.of(OPTION_ID));
+        OptionMetadata option = new OptionMetadata(OPTION_ID, ELECTION_ID, "A");
+        VoteTargets targets = new VoteTargets(Map.of(ELECTION_ID, election), Map.of(OPTION_ID, option));
+        VoteJdbcRepository voteJdbcRepository = new VoteJdbcRepository(null) {
+            @Override
+            public VoteTargets findVoteTargets(List<VoteRequestedEvent> events) {
+                return targets;
+            }
+        };
+
+        VotedIndex votedIndex = new VotedIndex(null);
+        ReflectionTestUtils.setField(votedIndex, "enabled", true);
+        votedIndex.markVoted(ELECTION_ID, VOTED_VOTER_ID);
+
+        VoterStatusCache voterStatusCache = new VoterStatusCache();
+        ReflectionTestUtils.setField(voterStatusCache, "enabled", true);
+        events = new VoteRequestedEvent[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            events[i] = new VoteRequestedEvent(UUID.randomUUID().toString(), ELECTION_ID, (long) i, OPTION_ID, now);
+            voterStatusCache.apply((long) i, false);
+        }
+        voterStatusCache.apply(BLOCKED_VOTER_ID, true);
+        voterStatusCache.markReady();
+        votedEvent = new VoteRequestedEvent(UUID.randomUUID().toString(), ELECTION_ID, VOTED_VOTER_ID, OPTION_ID, now);
+        blockedEvent = new VoteRequestedEvent(UUID.randomUUID().toString(), ELECTION_ID, BLOCKED_VOTER_ID, OPTION_ID, now);
+
+        ProcessedEventRetentionService retention = new ProcessedEventRetentionService(null);
+        ReflectionTestUtils.setField(retention, "dedupHorizon", Duration.ofDays(7));
+
+        ElectionOptionTallyRepository tallyRepository = new ElectionOptionTallyRepository(null) {
+            @Override
+            public void addVotes(List<OptionVotes> deltas, int shard) {
+            }
+        };
+
+        service = new VotingService(
+                InMemoryRepositories.of(VoteRepository.class, Map.of("save", args -> args[0])),
+                InMemoryRepositories.of(VoterRepository.class, Map.of(
+                        "getReferenceById", args -> voter((Long) args[0]),
+                        "findById", args -> Optional.of(voter((Long) args[0])))),
+                InMemoryRepositories.of(ElectionRepository.class, Map.of("getReferenceById", args -> {
+                    Election e = new Election();
+                    e.setId((Long) args[0]);
+                    return e;
+                })),
+                InMemoryRepositories.of(ElectionOptionRepository.class, Map.of("getReferenceById", args -> {
+                    ElectionOption o = new ElectionOption();
+                    o.setId((Long) args[0]);
+                    return o;
+                })),
+                InMemoryRepositories.of(ProcessedEventRepository.class, Map.of("insertIfAbsent", args -> 1)),
+                voteJdbcRepository,
+                tallyRepository,
+                new VotingValidator(),
+                votedIndex,
+                voterStatusCache,
+                retention,
+                event -> {
+                },
+                new VotePipelineMetrics(new SimpleMeterRegistry()));
+    }
+
+    private static Voter voter(Long id) {
+        Voter v = new Voter();
+        v.setId(id);
+        return v;
+    }
+
+    @Benchmark
+    public void storeVote() {
+        VoteRequestedEvent e = events[next++ & (EVENTS - 1)];
+        service.processEvent(e, 0);
+    }
+
+    @Benchmark
+    public void skipAlreadyVoted() {
+        service.processEvent(votedEvent, 0);
+    }
+
+    @Benchmark
+    public void rejectBlockedVoter(Blackhole blackhole) {
+        try {
+            service.processEvent(blockedEvent, 0);
+        } catch (VoteRejectedException e) {
+            blackhole.consume(e);
+        }
+    }
+}
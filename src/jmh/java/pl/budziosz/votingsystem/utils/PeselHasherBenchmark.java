@@ -0,0 +1,111 @@
+package pl.budziosz.votingsystem.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Keyed {@link PeselHasher} vs the previous implementation (new {@code MessageDigest} per call, {@code String.format}
+ * per hex byte), for one PESEL and for a batch of 10 000, hashed sequentially and in parallel ({@code hashAll}) by
+ * both, and of the keyed hasher with every hash on its own virtual thread, as request handling does in virtual-thread
+ * mode. Run with {@code -prof gc} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PeselHasherBenchmark {
+
+    private PeselHasher hasher;
+    private String pesel;
+    private List<String> batch;
+
+    @Setup
+    public void setUp() {
+        hasher = new PeselHasher("benchmark-pepper");
+        pesel = "90010112345";
+        batch = IntStream.range(0, 10_000).mapToObj(i -> String.format("%011d", 90_010_100_000L + i)).toList();
+    }
+
+    @Benchmark
+    public String legacyHash() {
+        return legacy(pesel);
+    }
+
+    @Benchmark
+    public String keyedHash() {
+        return hasher.hash(pesel);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> legacyBatch() {
+        return batch.stream().map(PeselHasherBenchmark::legacy).toList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> keyedBatch() {
+        return batch.stream().map(hasher::hash).toList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> legacyBatchParallel() {
+        return batch.parallelStream().map(PeselHasherBenchmark::legacy).toList();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> keyedHashAll() {
+        return hasher.hashAll(batch);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<String> keyedBatchVirtualThreads() throws Exception {
+        List<Future<String>> hashes;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            hashes = batch.stream().map(p -> executor.submit(() -> hasher.hash(p))).toList();
+        }
+        List<String> result = new ArrayList<>(hashes.size());
+        for (Future<String> hash : hashes) {
+            result.add(hash.get());
+        }
+        return result;
+    }
+
+    private static String legacy(String pesel) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] digest = md.digest(pesel.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package pl.budziosz.votingsystem.validators;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.VoterStatusCache.VoterStatus;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The three {@link VotingValidator} checks every vote goes through, for an accepted vote and for one rejected by the
+ * last check, which includes creating the {@link VoteRejectedException}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VotingValidatorBenchmark {
+
+    private VotingValidator validator;
+    private ElectionMetadata election;
+    private OptionMetadata option;
+    private OptionMetadata foreignOption;
+    private Instant at;
+
+    @Setup
+    public void setUp() {
+        validator = new VotingValidator();
+        at = Instant.now();
+        election = new ElectionMetadata(1L, at.minus(Duration.ofDays(1)), at.plus(Duration.ofDays(1)), Set.of(10L, 11L));
+        option = new OptionMetadata(10L, 1L, "A");
+        foreignOption = new OptionMetadata(20L, 2L, "B");
+    }
+
+    @Benchmark
+    public void acceptedVote() {
+        validator.ensureWithinWindow(election, at);
+        validator.requireActiveVoter(VoterStatus.ACTIVE);
+        validator.ensureOptionBelongsToElection(option, election.id());
+    }
+
+    @Benchmark
+    public void rejectedVote(Blackhole blackhole) {
+        try {
+            validator.ensureWithinWindow(election, at);
+            validator.requireActiveVoter(VoterStatus.ACTIVE);
+            validator.ensureOptionBelongsToElection(foreignOption, election.id());
+        } catch (VoteRejectedException e) {
+            blackhole.consume(e);
+        }
+    }
+}
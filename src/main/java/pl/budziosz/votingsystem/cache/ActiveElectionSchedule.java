@@ -0,0 +1,215 @@
+package pl.budziosz.votingsystem.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.budziosz.votingsystem.model.dto.ElectionDtos.ElectionResponse;
+import pl.budziosz.votingsystem.repository.ElectionRepository;
+
+/**
+ * In-memory schedule of the elections that have not ended yet, sorted by start, answering which of them are active
+ * without SQL. The active set only changes at a start or end boundary, so it is computed once per window together
+ * with its serialized JSON and recomputed exactly at the next boundary. Reloaded after admin election writes on this
+ * node and on {@code app.voting.active-elections.reload-cron}, which bounds staleness on other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ActiveElectionSchedule {
+
+    private final ElectionRepository electionRepository;
+    private final ObjectMapper objectMapper;
+    private final TaskScheduler taskScheduler;
+
+    // A lock rather than a monitor: request threads may be virtual threads, which a contended monitor pins (JDK 21).
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile Schedule schedule;
+    private volatile ActiveWindow window;
+    private ScheduledFuture<?> nextBoundary;
+
+    @Value("${app.voting.active-elections.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * False until loaded (or when disabled); callers then query the database instead.
+     */
+    public boolean isReady() {
+        return enabled && schedule != null;
+    }
+
+    public List<ElectionResponse> active(Instant now) {
+        return window(now).elections();
+    }
+
+    /**
+     * The active elections as the JSON body of {@code GET /api/elections/active}, shared by every request in the window.
+     */
+    public byte[] activeBody(Instant now) {
+        return window(now).body();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (enabled) {
+            reload();
+        }
+    }
+
+    @Scheduled(cron = "${app.voting.active-elections.reload-cron:45 * * * * *}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        // Elections that ended before now can never become active again.
+        List<ElectionResponse> elections = electionRepository.findEndingAtOrAfter(now).stream()
+                .map(e -> new ElectionResponse(e.getId(), e.getName(), e.getDescription(), e.getStartsAt(), e.getEndsAt()))
+                .sorted(Comparator.comparing(ElectionResponse::startsAt).thenComparing(ElectionResponse::id))
+                .toList();
+        lock.lock();
+        try {
+            schedule = new Schedule(elections);
+            advance(now);
+        } finally {
+            lock.unlock();
+        }
+        log.debug("Active election schedule loaded with {} upcoming or running elections", elections.size());
+    }
+
+    private ActiveWindow window(Instant now) {
+        ActiveWindow current = window;
+        if (current != null && current.covers(now)) {
+            return current;
+        }
+        lock.lock();
+        try {
+            current = window;
+            if (current != null && current.covers(now)) {
+                return current;
+            }
+            if (current != null && now.isBefore(current.from())) {
+                // A request that read the clock before the window was advanced; answered without replacing it.
+                List<ElectionResponse> elections = schedule.activeAt(now);
+                return new ActiveWindow(now, now, elections, serialize(elections));
+            }
+            return advance(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Caller holds the lock.
+    private ActiveWindow advance(Instant now) {
+        List<ElectionResponse> elections = schedule.activeAt(now);
+        ActiveWindow previous = window;
+        byte[] body = previous != null && previous.elections().equals(elections) ? previous.body() : serialize(elections);
+        Instant until = schedule.nextBoundaryAfter(now);
+        ActiveWindow next = new ActiveWindow(now, until, elections, body);
+        window = next;
+
+        if (nextBoundary != null) {
+            nextBoundary.cancel(false);
+            nextBoundary = null;
+        }
+        if (until != null) {
+            nextBoundary = taskScheduler.schedule(() -> onBoundary(until), until);
+        }
+        return next;
+    }
+
+    private void onBoundary(Instant boundary) {
+        lock.lock();
+        try {
+            ActiveWindow current = window;
+            // The timer may fire a little early; the window must not end before its boundary.
+            if (current != null && boundary.equals(current.until())) {
+                Instant now = Instant.now();
+                advance(now.isBefore(boundary) ? boundary : now);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] serialize(List<ElectionResponse> elections) {
+        try {
+            return objectMapper.writeValueAsBytes(elections);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize active elections", e);
+        }
+    }
+
+    /**
+     * Elections sorted by start. The ones started by {@code t} are a prefix found by binary search; of those, the
+     * ones not yet ended are active.
+     */
+    static final class Schedule {
+
+        private final List<ElectionResponse> byStart;
+        private final Instant[] starts;
+
+        Schedule(List<ElectionResponse> byStart) {
+            this.byStart = byStart;
+            this.starts = byStart.stream().map(ElectionResponse::startsAt).toArray(Instant[]::new);
+        }
+
+        List<ElectionResponse> activeAt(Instant t) {
+            return byStart.subList(0, startedBy(t)).stream()
+                    .filter(e -> !e.endsAt().isBefore(t))
+                    .toList();
+        }
+
+        /**
+         * The first instant after {@code t} at which the active set changes: the next start, or the instant right
+         * after an active election's end. Null when nothing changes any more.
+         */
+        Instant nextBoundaryAfter(Instant t) {
+            int started = startedBy(t);
+            Instant next = started < starts.length ? starts[started] : null;
+            for (int i = 0; i < started; i++) {
+                Instant endsAt = byStart.get(i).endsAt();
+                if (!endsAt.isBefore(t)) {
+                    Instant ended = endsAt.plusNanos(1);
+                    if (next == null || ended.isBefore(next)) {
+                        next = ended;
+                    }
+                }
+            }
+            return next;
+        }
+
+        // Number of elections with startsAt <= t.
+        private int startedBy(Instant t) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (starts[mid].isAfter(t)) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+    }
+
+    record ActiveWindow(Instant from, Instant until, List<ElectionResponse> elections, byte[] body) {
+
+        boolean covers(Instant t) {
+            return !t.isBefore(from) && (until == null || t.isBefore(until));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package pl.budziosz.votingsystem.cache;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of what is needed to check a vote against an election without touching the database.
+ */
+public record ElectionMetadata(
+        Long id,
+        Instant startsAt,
+        Instant endsAt,
+        Set<Long> optionIds
+) {
+
+    public boolean isOpenAt(Instant at) {
+        return !at.isBefore(startsAt) && !at.isAfter(endsAt);
+    }
+
+    public boolean hasOption(Long optionId) {
+        return optionIds.contains(optionId);
+    }
+}
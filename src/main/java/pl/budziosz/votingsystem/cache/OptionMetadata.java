@@ -0,0 +1,11 @@
+package pl.budziosz.votingsystem.cache;
+
+/**
+ * Immutable snapshot of an election option, safe to share between threads and transactions.
+ */
+public record OptionMetadata(
+        Long id,
+        Long electionId,
+        String label
+) {
+}
@@ -0,0 +1,72 @@
+package pl.budziosz.votingsystem.cache;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import pl.budziosz.votingsystem.model.domain.ElectionOption;
+import pl.budziosz.votingsystem.repository.ElectionOptionRepository;
+import pl.budziosz.votingsystem.repository.ElectionRepository;
+
+/**
+ * Node-local cache of election reference data, held as immutable snapshots rather than entities.
+ * Admin writes evict the affected entries after commit; the TTL from {@code spring.cache.caffeine.spec}
+ * bounds staleness across nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ReferenceDataCache {
+
+    public static final String ELECTION_METADATA = "election-metadata";
+    public static final String OPTIONS = "election-options";
+    public static final String OPTION_LISTS = "election-option-lists";
+
+    private final ElectionRepository electionRepository;
+    private final ElectionOptionRepository optionRepository;
+
+    // Unknown ids are not cached, so an election or option is visible as soon as it is created.
+    @Cacheable(cacheNames = ELECTION_METADATA, unless = "#result == null")
+    public Optional<ElectionMetadata> findElectionMetadata(Long electionId) {
+        return electionRepository.findById(electionId)
+                .map(e -> new ElectionMetadata(e.getId(), e.getStartsAt(), e.getEndsAt(),
+                        Set.copyOf(optionRepository.findIdsByElectionId(e.getId()))));
+    }
+
+    @Cacheable(cacheNames = OPTIONS, unless = "#result == null")
+    public Optional<OptionMetadata> findOption(Long optionId) {
+        return optionRepository.findById(optionId).map(ReferenceDataCache::toMetadata);
+    }
+
+    @Cacheable(cacheNames = OPTION_LISTS)
+    public List<OptionMetadata> findOptions(Long electionId) {
+        return optionRepository.findByElectionId(electionId).stream()
+                .map(ReferenceDataCache::toMetadata)
+                .toList();
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ELECTION_METADATA),
+            @CacheEvict(cacheNames = OPTION_LISTS)
+    })
+    public void evictElection(Long electionId) {
+    }
+
+    @CacheEvict(cacheNames = OPTIONS)
+    public void evictOption(Long optionId) {
+    }
+
+    // Options of a deleted election go with it (ON DELETE CASCADE) and are not known individually.
+    @CacheEvict(cacheNames = OPTIONS, allEntries = true)
+    public void evictAllOptions() {
+    }
+
+    private static OptionMetadata toMetadata(ElectionOption o) {
+        return new OptionMetadata(o.getId(), o.getElection().getId(), o.getLabel());
+    }
+}
@@ -0,0 +1,30 @@
+package pl.budziosz.votingsystem.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import pl.budziosz.votingsystem.repository.TableStatsRepository;
+
+/**
+ * Approximate table sizes for listings, taken from the planner statistics instead of {@code count(*)} and cached for
+ * the TTL of {@code spring.cache.caffeine.spec}.
+ */
+@Component
+@RequiredArgsConstructor
+public class RowCountEstimates {
+
+    public static final String ROW_ESTIMATES = "row-estimates";
+    public static final String VOTERS = "voters";
+    public static final String ELECTIONS = "elections";
+
+    private final TableStatsRepository tableStatsRepository;
+
+    /**
+     * @param table one of the table name constants; it is not escaped
+     */
+    @Cacheable(cacheNames = ROW_ESTIMATES)
+    public long estimate(String table) {
+        long estimate = tableStatsRepository.estimateRows(table);
+        return estimate >= 0 ? estimate : tableStatsRepository.countRows(table);
+    }
+}
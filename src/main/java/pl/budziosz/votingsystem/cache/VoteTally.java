@@ -0,0 +1,149 @@
+package pl.budziosz.votingsystem.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository.OptionVotes;
+import pl.budziosz.votingsystem.service.VoteStoredEvent;
+import pl.budziosz.votingsystem.utils.AfterCommit;
+
+/**
+ * Vote counts per election and option, kept in {@link LongAdder}s and incremented after each vote commits.
+ * Seeded from {@code election_option_tallies} when the application is ready; a scheduled reconciliation compares
+ * the counters with that table, reports the drift and corrects it. Votes stored by other nodes only reach this
+ * node's counters through the reconciliation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VoteTally {
+
+    private final ElectionOptionTallyRepository tallyRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Long, ConcurrentMap<Long, LongAdder>> elections = new ConcurrentHashMap<>();
+    private final AtomicLong lastDrift = new AtomicLong();
+
+    private volatile boolean ready;
+
+    @Value("${app.voting.tally.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * False until seeded (or when disabled); callers then count in SQL instead.
+     */
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public long count(Long electionId, Long optionId) {
+        Map<Long, LongAdder> options = elections.get(electionId);
+        LongAdder votes = options == null ? null : options.get(optionId);
+        return votes == null ? 0 : votes.sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVoteStored(VoteStoredEvent e) {
+        if (enabled) {
+            counter(e.electionId(), e.optionId()).increment();
+        }
+    }
+
+    public void evictElection(Long electionId) {
+        AfterCommit.run(() -> elections.remove(electionId));
+    }
+
+    public void evictOption(Long electionId, Long optionId) {
+        AfterCommit.run(() -> {
+            Map<Long, LongAdder> options = elections.get(electionId);
+            if (options != null) {
+                options.remove(optionId);
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        List<OptionVotes> counts = tallyRepository.sumByOption();
+        // Votes committed while the query ran may be missed or counted twice; the next reconciliation settles them.
+        elections.clear();
+        counts.forEach(c -> counter(c.electionId(), c.optionId()).add(c.votes()));
+        ready = true;
+        meterRegistry.gauge("votes.tally.drift", lastDrift);
+        log.info("Vote tally seeded with {} option counts in {} ms", counts.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Moves every counter by its difference to {@code election_option_tallies}, measured against a snapshot taken
+     * before the query. Votes stored while the query runs stay counted on top; those the query already saw are
+     * counted twice until the next run, which measures against a later snapshot, so the error never accumulates.
+     */
+    @Scheduled(cron = "${app.voting.tally.reconcile-cron:30 * * * * *}")
+    public void reconcile() {
+        if (!isReady()) {
+            return;
+        }
+        Map<Long, Map<Long, Long>> before = snapshot();
+        List<OptionVotes> counts = tallyRepository.sumByOption();
+
+        Map<Long, Map<Long, Long>> expected = new HashMap<>();
+        counts.forEach(c -> expected.computeIfAbsent(c.electionId(), id -> new HashMap<>()).put(c.optionId(), c.votes()));
+        Set<Long> electionIds = new HashSet<>(before.keySet());
+        electionIds.addAll(expected.keySet());
+
+        long drift = 0;
+        for (Long electionId : electionIds) {
+            Map<Long, Long> seen = before.getOrDefault(electionId, Map.of());
+            Map<Long, Long> sql = expected.getOrDefault(electionId, Map.of());
+            Set<Long> optionIds = new HashSet<>(seen.keySet());
+            optionIds.addAll(sql.keySet());
+            for (Long optionId : optionIds) {
+                long delta = sql.getOrDefault(optionId, 0L) - seen.getOrDefault(optionId, 0L);
+                if (delta != 0) {
+                    drift += Math.abs(delta);
+                    // Added rather than set, so the increments made since the snapshot are kept.
+                    counter(electionId, optionId).add(delta);
+                }
+            }
+        }
+        lastDrift.set(drift);
+        if (drift > 0) {
+            log.warn("Vote tally drifted by {} votes from election_option_tallies", drift);
+        }
+    }
+
+    private Map<Long, Map<Long, Long>> snapshot() {
+        Map<Long, Map<Long, Long>> snapshot = new HashMap<>();
+        elections.forEach((electionId, options) -> {
+            Map<Long, Long> counts = new HashMap<>();
+            options.forEach((optionId, votes) -> counts.put(optionId, votes.sum()));
+            snapshot.put(electionId, counts);
+        });
+        return snapshot;
+    }
+
+    private LongAdder counter(Long electionId, Long optionId) {
+        return elections.computeIfAbsent(electionId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(optionId, id -> new LongAdder());
+    }
+}
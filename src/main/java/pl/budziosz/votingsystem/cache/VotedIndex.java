@@ -0,0 +1,136 @@
+package pl.budziosz.votingsystem.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository;
+import pl.budziosz.votingsystem.service.VoteStoredEvent;
+import pl.budziosz.votingsystem.utils.AfterCommit;
+
+/**
+ * Per-election compressed bitmap of voter ids with a committed vote. A set bit always means the vote exists,
+ * so callers may reject duplicates without touching the database; a missing bit proves nothing.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VotedIndex {
+
+    private final VoteJdbcRepository voteJdbcRepository;
+
+    private final ConcurrentMap<Long, ElectionVoters> elections = new ConcurrentHashMap<>();
+
+    @Value("${app.voting.voted-index.enabled:true}")
+    private boolean enabled;
+
+    public boolean hasVoted(Long electionId, Long voterId) {
+        if (!enabled || electionId == null || voterId == null) {
+            return false;
+        }
+        ElectionVoters voters = elections.get(electionId);
+        return voters != null && voters.contains(voterId);
+    }
+
+    /**
+     * Only call with a vote that is already committed, e.g. one that was reported as a duplicate by the database.
+     */
+    public void markVoted(Long electionId, Long voterId) {
+        if (enabled) {
+            elections.computeIfAbsent(electionId, id -> new ElectionVoters()).add(voterId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVoteStored(VoteStoredEvent e) {
+        markVoted(e.electionId(), e.voterId());
+    }
+
+    public void evictElection(Long electionId) {
+        AfterCommit.run(() -> elections.remove(electionId));
+    }
+
+    /**
+     * Rebuilds one election from the votes table, e.g. after deleting an option cascaded to its votes.
+     */
+    public void reloadElection(Long electionId) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            ElectionVoters voters = new ElectionVoters();
+            voteJdbcRepository.forEachVote(electionId, (election, voter) -> voters.add(voter));
+            voters.optimize();
+            elections.put(electionId, voters);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        long[] count = new long[1];
+        voteJdbcRepository.forEachVote(null, (election, voter) -> {
+            markVoted(election, voter);
+            count[0]++;
+        });
+        elections.values().forEach(ElectionVoters::optimize);
+        log.info("Voted index loaded {} votes for {} elections in {} ms ({} bytes)",
+                count[0], elections.size(), System.currentTimeMillis() - started, sizeInBytes());
+    }
+
+    public long sizeInBytes() {
+        return elections.values().stream().mapToLong(ElectionVoters::sizeInBytes).sum();
+    }
+
+    private static final class ElectionVoters {
+
+        private final Roaring64Bitmap voters = new Roaring64Bitmap();
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        boolean contains(long voterId) {
+            lock.readLock().lock();
+            try {
+                return voters.contains(voterId);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void add(long voterId) {
+            lock.writeLock().lock();
+            try {
+                voters.addLong(voterId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void optimize() {
+            lock.writeLock().lock();
+            try {
+                voters.runOptimize();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        long sizeInBytes() {
+            lock.readLock().lock();
+            try {
+                return voters.getLongSizeInBytes();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+}
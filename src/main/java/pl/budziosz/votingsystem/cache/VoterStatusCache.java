@@ -0,0 +1,116 @@
+package pl.budziosz.votingsystem.cache;
+
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Node-local blocked flag per voter, replayed from the compacted voter status topic. Until the replay has caught up
+ * every voter is {@link VoterStatus#UNKNOWN}, so callers fall back to the database instead of acting on a status
+ * that a later record may still overwrite.
+ */
+@Component
+@Slf4j
+public class VoterStatusCache {
+
+    public enum VoterStatus {
+        ACTIVE,
+        BLOCKED,
+        UNKNOWN
+    }
+
+    private final Roaring64Bitmap known = new Roaring64Bitmap();
+    private final Roaring64Bitmap blocked = new Roaring64Bitmap();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    @Value("${app.voting.voter-status-cache.enabled:true}")
+    private boolean enabled;
+
+    public VoterStatus status(Long voterId) {
+        if (!enabled || !ready || voterId == null) {
+            return VoterStatus.UNKNOWN;
+        }
+        lock.readLock().lock();
+        try {
+            if (!known.contains(voterId)) {
+                return VoterStatus.UNKNOWN;
+            }
+            return blocked.contains(voterId) ? VoterStatus.BLOCKED : VoterStatus.ACTIVE;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a status change from the topic; it always wins over what is cached.
+     */
+    public void apply(Long voterId, boolean isBlocked) {
+        lock.writeLock().lock();
+        try {
+            set(voterId, isBlocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long voterId) {
+        lock.writeLock().lock();
+        try {
+            known.removeLong(voterId);
+            blocked.removeLong(voterId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remembers a status read from the database, unless the topic has already delivered one for the voter:
+     * that one is at least as recent as the read.
+     */
+    public void learn(Long voterId, boolean isBlocked) {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (!known.contains(voterId)) {
+                set(voterId, isBlocked);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void markReady() {
+        if (!ready) {
+            ready = true;
+            log.info("Voter status cache caught up with {} voters", size());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return known.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void set(long voterId, boolean isBlocked) {
+        known.addLong(voterId);
+        if (isBlocked) {
+            blocked.addLong(voterId);
+        } else {
+            blocked.removeLong(voterId);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package pl.budziosz.votingsystem.configuration;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounds how many threads hold a database connection at once. With virtual threads every request and listener gets
+ * its own thread, so the connection pool, not the thread pool, is the real concurrency limit: callers queue fairly on
+ * a semaphore and give up after {@code max-wait} instead of piling up in the pool for its whole connection timeout.
+ * The permit is taken in {@code getConnection} and returned when the connection is closed.
+ */
+@Component
+@ConditionalOnProperty(name = "app.db.bulkhead.enabled", havingValue = "true")
+@Slf4j
+public class DatabaseBulkhead implements BeanPostProcessor {
+
+    private final int permits;
+    private final Duration maxWait;
+
+    public DatabaseBulkhead(@Value("${app.db.bulkhead.permits:10}") int permits,
+                            @Value("${app.db.bulkhead.max-wait:2s}") Duration maxWait) {
+        this.permits = permits;
+        this.maxWait = maxWait;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+            log.info("Database bulkhead on {}: {} permits, max wait {}", beanName, permits, maxWait);
+            return new BulkheadDataSource(dataSource, new Semaphore(permits, true), maxWait);
+        }
+        return bean;
+    }
+
+    static final class BulkheadDataSource extends DelegatingDataSource {
+
+        private final Semaphore semaphore;
+        private final Duration maxWait;
+
+        BulkheadDataSource(DataSource target, Semaphore semaphore, Duration maxWait) {
+            super(target);
+            this.semaphore = semaphore;
+            this.maxWait = maxWait;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            return guard(() -> super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            return guard(() -> super.getConnection(username, password));
+        }
+
+        int availablePermits() {
+            return semaphore.availablePermits();
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!semaphore.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS)) {
+                    throw new SQLTransientConnectionException("Database bulkhead full, no connection within " + maxWait);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for the database bulkhead", e);
+            }
+        }
+
+        private Connection guard(ConnectionSupplier supplier) throws SQLException {
+            Connection connection;
+            try {
+                connection = supplier.get();
+            } catch (SQLException | RuntimeException e) {
+                semaphore.release();
+                throw e;
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().equals("equals") && method.getParameterCount() == 1) {
+                            return proxy == args[0];
+                        }
+                        if (method.getName().equals("hashCode") && method.getParameterCount() == 0) {
+                            return System.identityHashCode(proxy);
+                        }
+                        if (method.getName().equals("close") && method.getParameterCount() == 0) {
+                            try {
+                                connection.close();
+                            } finally {
+                                if (released.compareAndSet(false, true)) {
+                                    semaphore.release();
+                                }
+                            }
+                            return null;
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,123 @@
+package pl.budziosz.votingsystem.configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import pl.budziosz.votingsystem.kafka.VoteDeadLetters;
+import pl.budziosz.votingsystem.kafka.VoterStatusEvent;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
+
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Value("${app.kafka.consumer.batch.max-records:500}")
+    private int batchMaxRecords;
+
+    @Value("${app.kafka.consumer.batch.max-wait-ms:100}")
+    private int batchMaxWaitMs;
+
+    @Value("${app.kafka.consumer.batch.min-bytes:65536}")
+    private int batchMinBytes;
+
+    @Value("${app.kafka.retry.attempts:4}")
+    private int retryAttempts;
+
+    @Value("${app.kafka.retry.initial-interval-ms:1000}")
+    private long retryInitialIntervalMs;
+
+    @Value("${app.kafka.retry.multiplier:2.0}")
+    private double retryMultiplier;
+
+    @Value("${app.kafka.retry.max-interval-ms:30000}")
+    private long retryMaxIntervalMs;
+
+    @Value("${app.kafka.consumer.voter-status.idle-interval-ms:500}")
+    private long voterStatusIdleIntervalMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Bean
+    @ConditionalOnProperty(name = "app.kafka.consumer.batch.enabled", havingValue = "true")
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> voteBatchListenerContainerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer,
+            ConsumerFactory<Object, Object> consumerFactory,
+            ObjectProvider<DefaultKafkaConsumerFactoryCustomizer> consumerFactoryCustomizers,
+            KafkaTemplate<Object, Object> kafkaTemplate) {
+        Map<String, Object> props = new HashMap<>(consumerFactory.getConfigurationProperties());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchMaxRecords);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, batchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, batchMaxWaitMs);
+
+        DefaultKafkaConsumerFactory<Object, Object> batchConsumerFactory = new DefaultKafkaConsumerFactory<>(props);
+        // Boot's customizers bind the Kafka client metrics (e.g. per-partition records-lag) to the meter registry;
+        // they are only applied to the auto-configured factory.
+        consumerFactoryCustomizers.orderedStream().forEach(customizer -> customizer.customize(batchConsumerFactory));
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, batchConsumerFactory);
+        factory.setBatchListener(true);
+        factory.setCommonErrorHandler(batchErrorHandler(kafkaTemplate));
+        return factory;
+    }
+
+    // Every node reads the whole compacted topic itself: no consumer group, no committed offsets.
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> voterStatusListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory) {
+        Map<String, Object> props = new HashMap<>(consumerFactory.getConfigurationProperties());
+        props.remove(ConsumerConfig.GROUP_ID_CONFIG);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class);
+        props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, VoterStatusEvent.class.getName());
+        props.put(JsonDeserializer.USE_TYPE_INFO_HEADERS, false);
+
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        // Short polls so that an idle partition, i.e. a finished replay, is noticed within the idle interval.
+        factory.getContainerProperties().setPollTimeout(voterStatusIdleIntervalMs);
+        factory.getContainerProperties().setIdleEventInterval(voterStatusIdleIntervalMs);
+        if (virtualThreads) {
+            // Factories set up through Boot's configurer get virtual listener threads from spring.threads.virtual.enabled;
+            // this one is built by hand.
+            factory.getContainerProperties().setListenerTaskExecutor(new VirtualThreadTaskExecutor("voter-status-"));
+        }
+        return factory;
+    }
+
+    private DefaultErrorHandler batchErrorHandler(KafkaTemplate<Object, Object> kafkaTemplate) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, ex) -> new TopicPartition(record.topic() + VoteDeadLetters.DLT_SUFFIX, record.partition()));
+        recoverer.setHeadersFunction(VoteDeadLetters::rejectionHeaders);
+
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(retryAttempts - 1);
+        backOff.setInitialInterval(retryInitialIntervalMs);
+        backOff.setMultiplier(retryMultiplier);
+        backOff.setMaxInterval(retryMaxIntervalMs);
+
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(recoverer, backOff);
+        errorHandler.addNotRetryableExceptions(VoteRejectedException.class);
+        return errorHandler;
+    }
+}
@@ -0,0 +1,92 @@
+package pl.budziosz.votingsystem.configuration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.kafka.support.serializer.DelegatingByTopicSerializer;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import pl.budziosz.votingsystem.kafka.VoteDeliveryMode;
+import pl.budziosz.votingsystem.kafka.VoteEventBinarySerializer;
+import pl.budziosz.votingsystem.kafka.VoteWireFormat;
+
+@Configuration
+public class KafkaProducerConfig {
+
+    @Value("${app.kafka.topics.votes:votes}")
+    private String votesTopic;
+
+    @Value("${app.kafka.topics.votes.format:json}")
+    private VoteWireFormat votesTopicFormat;
+
+    @Value("${app.kafka.producer.delivery-mode:all}")
+    private VoteDeliveryMode deliveryMode;
+
+    @Value("${app.kafka.producer.linger-ms:5}")
+    private int lingerMs;
+
+    @Value("${app.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${app.kafka.producer.compression-type:lz4}")
+    private String compressionType;
+
+    @Value("${app.kafka.producer.max-block-ms:500}")
+    private long maxBlockMs;
+
+    /**
+     * Producer of vote events only: delivery mode, batching and a short max.block.ms are tuned for the request path.
+     * Dead-letter, retry and voter-status sends keep Boot's shared producer at the client defaults (acks=all,
+     * idempotent), which is also why neither bean is a default candidate: Boot's own factory and template stay.
+     */
+    @Bean(defaultCandidate = false)
+    public ProducerFactory<String, Object> voteProducerFactory(ProducerFactory<String, Object> producerFactory) {
+        return producerFactory.copyWithConfigurationOverride(Map.of(
+                ProducerConfig.ACKS_CONFIG, deliveryMode.acks(),
+                // Idempotence requires acks=all; the client refuses an explicit true with weaker acks.
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, deliveryMode == VoteDeliveryMode.ALL,
+                ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG, batchSize,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType,
+                // Bounds how long send() may block a request thread on a full buffer or missing metadata.
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs));
+    }
+
+    @Bean(defaultCandidate = false)
+    public KafkaTemplate<String, Object> voteKafkaTemplate(
+            @Qualifier("voteProducerFactory") ProducerFactory<String, Object> voteProducerFactory) {
+        return new KafkaTemplate<>(voteProducerFactory);
+    }
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer valueSerializerCustomizer() {
+        return producerFactory -> ((DefaultKafkaProducerFactory<Object, Object>) producerFactory)
+                .setValueSerializerSupplier(this::valueSerializer);
+    }
+
+    // Dead-letter publishing forwards undeserializable payloads as the original bytes; everything else is JSON,
+    // unless the votes topic (with its retry and dead-letter topics) is switched to the binary format.
+    private Serializer<Object> valueSerializer() {
+        Map<Class<?>, Serializer<?>> byType = new LinkedHashMap<>();
+        byType.put(byte[].class, new ByteArraySerializer());
+        byType.put(Object.class, new JsonSerializer<>());
+        Serializer<Object> json = new DelegatingByTypeSerializer(byType, true);
+        if (votesTopicFormat != VoteWireFormat.BINARY) {
+            return json;
+        }
+        Pattern votesTopics = Pattern.compile(Pattern.quote(votesTopic) + "(-.+)?");
+        return new DelegatingByTopicSerializer(Map.of(votesTopics, new VoteEventBinarySerializer()), json);
+    }
+}
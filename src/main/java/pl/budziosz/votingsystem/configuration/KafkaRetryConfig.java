@@ -0,0 +1,15 @@
+package pl.budziosz.votingsystem.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationSupport;
+import pl.budziosz.votingsystem.kafka.VoteDeadLetters;
+
+@Configuration
+public class KafkaRetryConfig extends RetryTopicConfigurationSupport {
+
+    @Override
+    protected void configureCustomizers(CustomizersConfigurer customizersConfigurer) {
+        customizersConfigurer.customizeDeadLetterPublishingRecoverer(
+                recoverer -> recoverer.setHeadersFunction(VoteDeadLetters::rejectionHeaders));
+    }
+}
@@ -6,23 +6,26 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 
+/**
+ * Topics created by {@code KafkaAdmin}. The votes topic and its dead-letter topic are created and checked by
+ * {@link VotesTopicVerifier} instead.
+ */
 @Configuration
 public class KafkaTopicsConfig {
 
-    @Value("${app.kafka.topics.votes:votes}")
-    private String votesTopicName;
-
-    @Value("${app.kafka.topics.votes.partitions:1}")
-    private int votesTopicPartitions;
-
     @Value("${app.kafka.topics.votes.replicas:1}")
     private short votesTopicReplicas;
 
+    @Value("${app.kafka.topics.voter-status:voter-status}")
+    private String voterStatusTopicName;
+
+    // Single partition: every node replays it in full, and compaction keeps it at one record per voter.
     @Bean
-    public NewTopic votesTopic() {
-        return TopicBuilder.name(votesTopicName)
-                .partitions(votesTopicPartitions)
+    public NewTopic voterStatusTopic() {
+        return TopicBuilder.name(voterStatusTopicName)
+                .partitions(1)
                 .replicas(votesTopicReplicas)
+                .compact()
                 .build();
     }
 }
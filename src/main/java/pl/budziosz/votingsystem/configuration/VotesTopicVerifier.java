@@ -0,0 +1,141 @@
+package pl.budziosz.votingsystem.configuration;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.common.errors.TopicExistsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+import pl.budziosz.votingsystem.kafka.VoteDeadLetters;
+
+/**
+ * Creates the votes topic and its dead-letter topic when missing and checks the partition count of an existing votes
+ * topic before the listener containers start. Votes are keyed by voter id, so per-voter ordering only holds while the
+ * partition count stays fixed.
+ * <p>
+ * {@link KafkaAdmin} is kept away from both topics: on startup it adds partitions to any existing topic declared with
+ * more of them (the {@code @RetryableTopic} listener declares these two), before a mismatch could be reported.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VotesTopicVerifier implements SmartLifecycle {
+
+    private static final long ADMIN_TIMEOUT_SECONDS = 30;
+
+    private final KafkaAdmin kafkaAdmin;
+
+    @Value("${app.kafka.topics.votes:votes}")
+    private String votesTopicName;
+
+    @Value("${app.kafka.topics.votes.partitions:1}")
+    private int votesTopicPartitions;
+
+    @Value("${app.kafka.topics.votes.replicas:1}")
+    private short votesTopicReplicas;
+
+    @Value("${app.kafka.consumer.concurrency:1}")
+    private int listenerConcurrency;
+
+    @Value("${app.kafka.topics.votes.fail-on-partition-mismatch:true}")
+    private boolean failOnMismatch;
+
+    private volatile boolean running;
+
+    // Runs before KafkaAdmin initializes, which happens once all singletons exist.
+    @PostConstruct
+    void excludeVotesTopicsFromAdmin() {
+        Set<String> owned = Set.of(votesTopicName, deadLetterTopicName());
+        kafkaAdmin.setCreateOrModifyTopic(topic -> !owned.contains(topic.name()));
+    }
+
+    @Override
+    public void start() {
+        verify();
+        running = true;
+    }
+
+    void verify() {
+        try (Admin admin = Admin.create(kafkaAdmin.getConfigurationProperties())) {
+            createMissing(admin);
+            TopicDescription topic = admin.describeTopics(List.of(votesTopicName)).allTopicNames()
+                    .get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS).get(votesTopicName);
+            check(topic.partitions().size());
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Cannot verify topic '" + votesTopicName + "'", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying topic '" + votesTopicName + "'", e);
+        }
+    }
+
+    private void createMissing(Admin admin) throws ExecutionException, InterruptedException, TimeoutException {
+        Set<String> existing = admin.listTopics().names().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        List<NewTopic> missing = new ArrayList<>(2);
+        for (String name : List.of(votesTopicName, deadLetterTopicName())) {
+            if (!existing.contains(name)) {
+                missing.add(TopicBuilder.name(name).partitions(votesTopicPartitions).replicas(votesTopicReplicas).build());
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try {
+            admin.createTopics(missing).all().get(ADMIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            log.info("Created topics {} with {} partitions", missing.stream().map(NewTopic::name).toList(), votesTopicPartitions);
+        } catch (ExecutionException e) {
+            // Another node created them first; the partition check below still applies.
+            if (!(e.getCause() instanceof TopicExistsException)) {
+                throw e;
+            }
+        }
+    }
+
+    private void check(int actual) {
+        if (actual != votesTopicPartitions) {
+            String message = "Topic '%s' has %d partitions but app.kafka.topics.votes.partitions=%d"
+                    .formatted(votesTopicName, actual, votesTopicPartitions);
+            if (failOnMismatch) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        }
+        if (listenerConcurrency > actual) {
+            log.warn("Listener concurrency {} exceeds the {} partitions of topic '{}'; {} consumer threads will stay idle",
+                    listenerConcurrency, actual, votesTopicName, listenerConcurrency - actual);
+        }
+        log.info("Topic '{}' has {} partitions, listener concurrency {}", votesTopicName, actual, listenerConcurrency);
+    }
+
+    private String deadLetterTopicName() {
+        return votesTopicName + VoteDeadLetters.DLT_SUFFIX;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // Listener containers start in a much later phase, so nothing is consumed from a mismatched topic.
+        return 0;
+    }
+}
@@ -2,17 +2,28 @@ package pl.budziosz.votingsystem.controller.admin;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Locale;
 
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pl.budziosz.votingsystem.model.domain.Election;
 import pl.budziosz.votingsystem.model.domain.ElectionOption;
-import pl.budziosz.votingsystem.repository.VoteRepository;
 import pl.budziosz.votingsystem.service.AdminElectionService;
+import pl.budziosz.votingsystem.service.LiveResultsService;
+import pl.budziosz.votingsystem.service.VoteExportFormat;
+import pl.budziosz.votingsystem.service.VoteExportService;
+import pl.budziosz.votingsystem.model.dto.CursorPageDtos.CursorPage;
 import pl.budziosz.votingsystem.model.dto.ElectionDtos.ElectionResponse;
 import pl.budziosz.votingsystem.model.dto.ElectionDtos.ElectionUpsertDto;
 import pl.budziosz.votingsystem.model.dto.ElectionOptionDtos.ElectionOptionResponse;
@@ -25,12 +36,24 @@ import pl.budziosz.votingsystem.model.dto.ElectionResultsDtos.OptionResult;
 public class AdminElectionController {
 
     private final AdminElectionService electionService;
+    private final LiveResultsService liveResultsService;
+    private final VoteExportService voteExportService;
 
     @GetMapping
     public Page<ElectionResponse> list(@ParameterObject Pageable pageable) {
         return electionService.listAll(pageable).map(this::toResponse);
     }
 
+    /**
+     * Keyset listing in id order; pass the returned {@code nextCursor} as {@code cursor} to get the next page.
+     */
+    @GetMapping("/scroll")
+    public CursorPage<ElectionResponse> scroll(@RequestParam(required = false) String cursor,
+                                               @RequestParam(defaultValue = "20") int size,
+                                               @RequestParam(defaultValue = "false") boolean withTotal) {
+        return electionService.scroll(cursor, size, withTotal).map(this::toResponse);
+    }
+
     @GetMapping("/{id}")
     public ElectionResponse get(@PathVariable Long id) {
         Election e = electionService.get(id);
@@ -81,12 +104,84 @@ public class AdminElectionController {
         electionService.deleteOption(electionId, optionId);
     }
 
+    /**
+     * Finalized elections are served from their snapshot with a strong ETag; a matching If-None-Match gets 304.
+     * Clients must revalidate every time: an admin edit can still discard the snapshot and finalize it anew.
+     */
     @GetMapping("/{electionId}/results")
-    public List<OptionResult> results(@PathVariable Long electionId) {
-        List<VoteRepository.OptionCount> counts = electionService.getResults(electionId);
-        return counts.stream()
-                .map(c -> new OptionResult(c.getOptionId(), c.getLabel(), c.getVotes()))
-                .toList();
+    public ResponseEntity<?> results(@PathVariable Long electionId) {
+        return electionService.findFinalResults(electionId)
+                .<ResponseEntity<?>>map(snapshot -> ResponseEntity.ok()
+                        .eTag(snapshot.etag())
+                        .cacheControl(CacheControl.noCache().cachePrivate())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(snapshot.results()))
+                .orElseGet(() -> ResponseEntity.ok(electionService.getResults(electionId)));
+    }
+
+    @GetMapping(path = "/{electionId}/results/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamResults(@PathVariable Long electionId) {
+        return liveResultsService.subscribe(electionId);
+    }
+
+    @PostMapping("/{electionId}/results/rebuild")
+    public List<OptionResult> rebuildResults(@PathVariable Long electionId) {
+        return electionService.rebuildResults(electionId);
+    }
+
+    /**
+     * Streams the election's raw votes for audit as CSV or NDJSON; gzipped when the client accepts it.
+     */
+    @GetMapping("/{electionId}/votes/export")
+    public ResponseEntity<StreamingResponseBody> exportVotes(@PathVariable Long electionId,
+                                                             @RequestParam(defaultValue = "csv") String format,
+                                                             @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        VoteExportFormat exportFormat = VoteExportFormat.of(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        voteExportService.ensureExportable(electionId);
+        return export("election-" + electionId + "-votes", exportFormat, gzip,
+                out -> voteExportService.writeVotes(electionId, exportFormat, gzip, out));
+    }
+
+    /**
+     * Streams the election's votes per option, counted from the raw votes, as CSV or NDJSON.
+     */
+    @GetMapping("/{electionId}/results/export")
+    public ResponseEntity<StreamingResponseBody> exportResults(@PathVariable Long electionId,
+                                                               @RequestParam(defaultValue = "csv") String format,
+                                                               @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        VoteExportFormat exportFormat = VoteExportFormat.of(format);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        voteExportService.ensureExportable(electionId);
+        return export("election-" + electionId + "-results", exportFormat, gzip,
+                out -> voteExportService.writeResults(electionId, exportFormat, gzip, out));
+    }
+
+    private static ResponseEntity<StreamingResponseBody> export(String name, VoteExportFormat format, boolean gzip,
+                                                                StreamingResponseBody body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(name + "." + format.extension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    // gzip listed without q=0 (weights are otherwise ignored).
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].strip().equals("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
     }
 
     private ElectionResponse toResponse(Election e) {
@@ -1,14 +1,23 @@
 package pl.budziosz.votingsystem.controller.admin;
 
 import jakarta.validation.Valid;
+import java.io.InputStream;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pl.budziosz.votingsystem.model.domain.Voter;
+import pl.budziosz.votingsystem.repository.VoterImportRepository.VoterImport;
 import pl.budziosz.votingsystem.service.AdminVoterService;
+import pl.budziosz.votingsystem.service.VoterImportFormat;
+import pl.budziosz.votingsystem.service.VoterImportService;
+import pl.budziosz.votingsystem.model.dto.CursorPageDtos.CursorPage;
+import pl.budziosz.votingsystem.model.dto.VoterDtos.VoterImportResponse;
 import pl.budziosz.votingsystem.model.dto.VoterDtos.VoterResponse;
 import pl.budziosz.votingsystem.model.dto.VoterDtos.VoterUpsertDto;
 
@@ -18,12 +27,23 @@ import pl.budziosz.votingsystem.model.dto.VoterDtos.VoterUpsertDto;
 public class AdminVoterController {
 
     private final AdminVoterService voterService;
+    private final VoterImportService voterImportService;
 
     @GetMapping
     public Page<VoterResponse> list(@ParameterObject Pageable pageable) {
         return voterService.listAll(pageable).map(this::toResponse);
     }
 
+    /**
+     * Keyset listing in id order; pass the returned {@code nextCursor} as {@code cursor} to get the next page.
+     */
+    @GetMapping("/scroll")
+    public CursorPage<VoterResponse> scroll(@RequestParam(required = false) String cursor,
+                                            @RequestParam(defaultValue = "20") int size,
+                                            @RequestParam(defaultValue = "false") boolean withTotal) {
+        return voterService.scroll(cursor, size, withTotal).map(this::toResponse);
+    }
+
     @GetMapping("/{id}")
     public VoterResponse get(@PathVariable Long id) {
         Voter v = voterService.get(id);
@@ -61,6 +81,30 @@ public class AdminVoterController {
         return toResponse(v);
     }
 
+    /**
+     * Streams a CSV or NDJSON voter roll into {@code voters}; answers once the import finished.
+     */
+    @PostMapping(path = "/imports", consumes = {"text/csv", "application/x-ndjson"})
+    public VoterImportResponse importVoters(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) {
+        return toResponse(voterImportService.importVoters(VoterImportFormat.of(contentType), body));
+    }
+
+    @GetMapping("/imports/{importId}")
+    public VoterImportResponse getImport(@PathVariable long importId) {
+        return toResponse(voterImportService.get(importId));
+    }
+
+    @GetMapping(path = "/imports/{importId}/errors", produces = "text/csv")
+    public StreamingResponseBody importErrors(@PathVariable long importId) {
+        voterImportService.get(importId);
+        return out -> voterImportService.writeErrors(importId, out);
+    }
+
+    private VoterImportResponse toResponse(VoterImport i) {
+        return new VoterImportResponse(i.id(), i.format(), i.status(), i.rowsRead(), i.rowsImported(), i.rowsRejected(),
+                i.failure(), i.startedAt(), i.finishedAt());
+    }
+
     private VoterResponse toResponse(Voter v) {
         return new VoterResponse(v.getId(), v.getEmail(), v.getFullName(), v.isBlocked());
     }
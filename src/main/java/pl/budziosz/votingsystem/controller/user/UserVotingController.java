@@ -6,11 +6,22 @@ import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.cache.ActiveElectionSchedule;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.VotedIndex;
+import pl.budziosz.votingsystem.cache.VoterStatusCache;
+import pl.budziosz.votingsystem.cache.VoterStatusCache.VoterStatus;
 import pl.budziosz.votingsystem.model.domain.Election;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
 import pl.budziosz.votingsystem.kafka.VotePublisher;
 import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
 import pl.budziosz.votingsystem.service.UserVotingService;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics.Source;
 import pl.budziosz.votingsystem.model.dto.ElectionDtos.ElectionResponse;
 import pl.budziosz.votingsystem.model.dto.ElectionOptionDtos.ElectionOptionResponse;
 import pl.budziosz.votingsystem.model.dto.VoteDtos.VoteAcceptedResponse;
@@ -23,33 +34,54 @@ public class UserVotingController {
 
     private final UserVotingService userVotingService;
     private final VotePublisher votePublisher;
+    private final VotedIndex votedIndex;
+    private final VoterStatusCache voterStatusCache;
+    private final ActiveElectionSchedule activeElectionSchedule;
+    private final VotePipelineMetrics pipelineMetrics;
 
+    /**
+     * Served from the in-memory schedule as a body serialized once per change of the active set.
+     */
     @GetMapping("/active")
-    public List<ElectionResponse> listActive() {
+    public ResponseEntity<?> listActive() {
         Instant now = Instant.now();
-        return userVotingService.listActive(now).stream()
-                .map(this::toResponse)
-                .toList();
+        if (!activeElectionSchedule.isReady()) {
+            return ResponseEntity.ok(userVotingService.listActive(now).stream()
+                    .map(this::toResponse)
+                    .toList());
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(activeElectionSchedule.activeBody(now));
     }
 
     @GetMapping("/{electionId}/options")
     public List<ElectionOptionResponse> listOptions(@PathVariable Long electionId) {
         return userVotingService.listOptions(electionId).stream()
-                .map(o -> new ElectionOptionResponse(o.getId(), o.getLabel()))
+                .map(o -> new ElectionOptionResponse(o.id(), o.label()))
                 .toList();
     }
 
     @PostMapping("/{electionId}/votes")
     @ResponseStatus(HttpStatus.ACCEPTED)
     public VoteAcceptedResponse voteAsync(@PathVariable Long electionId, @Valid @RequestBody VoteRequest req) {
-        Election e = userVotingService.getElection(electionId);
+        if (votedIndex.hasVoted(electionId, req.voterId())) {
+            pipelineMetrics.duplicate(Source.HTTP);
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Voter has already voted in this election");
+        }
+        if (voterStatusCache.status(req.voterId()) == VoterStatus.BLOCKED) {
+            pipelineMetrics.rejected(Source.HTTP, RejectionReason.VOTER_BLOCKED);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Voter is blocked");
+        }
+        Instant now = Instant.now();
+        ElectionMetadata e = userVotingService.requireVotable(electionId, req.optionId(), now);
         String eventId = UUID.randomUUID().toString();
         VoteRequestedEvent event = new VoteRequestedEvent(
                 eventId,
-                e.getId(),
+                e.id(),
                 req.voterId(),
                 req.optionId(),
-                Instant.now()
+                now
         );
         votePublisher.publish(event);
         return new VoteAcceptedResponse("accepted", eventId);
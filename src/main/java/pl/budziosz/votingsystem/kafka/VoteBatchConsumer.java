@@ -0,0 +1,116 @@
+package pl.budziosz.votingsystem.kafka;
+
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
+import pl.budziosz.votingsystem.service.VoteIngestMode;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics.Source;
+import pl.budziosz.votingsystem.service.VotingService;
+
+/**
+ * Rejected events are published to the dead-letter topic directly. Any other failure, including a dead letter the
+ * broker did not take, is reported as a {@link BatchListenerFailedException}: offsets before the failed record are
+ * committed and the container's error handler retries from it with backoff (retry topics need a record listener, so
+ * batch mode retries in place). Rejected events are not recorded as processed, so a retried one is rejected again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.kafka.consumer.batch.enabled", havingValue = "true")
+public class VoteBatchConsumer {
+
+    private static final LogAccessor HEADER_LOG = new LogAccessor(VoteBatchConsumer.class);
+
+    private final VotingService votingService;
+    private final VoteDeadLetters deadLetters;
+    private final VotePipelineMetrics pipelineMetrics;
+
+    @Value("${app.voting.ingest-mode:jpa}")
+    private VoteIngestMode ingestMode;
+
+    @KafkaListener(topics = "${app.kafka.topics.votes:votes}", groupId = VoteConsumer.GROUP_ID,
+            concurrency = "${app.kafka.consumer.concurrency:1}",
+            containerFactory = "voteBatchListenerContainerFactory")
+    public void handle(List<ConsumerRecord<String, VoteRequestedEvent>> records) {
+        // A payload the ErrorHandlingDeserializer could not read arrives as null; the error handler dead-letters it.
+        int readable = 0;
+        while (readable < records.size() && records.get(readable).value() != null) {
+            readable++;
+        }
+        if (readable > 0) {
+            process(records.subList(0, readable));
+        }
+        if (readable < records.size()) {
+            DeserializationException cause = SerializationUtils.getExceptionFromHeader(records.get(readable),
+                    SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, HEADER_LOG);
+            throw new BatchListenerFailedException("Undeserializable vote event", cause, readable);
+        }
+    }
+
+    private void process(List<ConsumerRecord<String, VoteRequestedEvent>> records) {
+        Map<VoteRequestedEvent, RejectionReason> rejected;
+        try {
+            // All partitions of a poll belong to this listener thread, so any of them is a shard no other thread uses.
+            rejected = votingService.processBatch(records.stream().map(ConsumerRecord::value).toList(),
+                    records.get(0).partition());
+        } catch (Exception ex) {
+            // Fall back to one transaction per event so a single bad event cannot take the rest of the batch down with it.
+            log.warn("Vote batch of {} events failed ({}), retrying event by event", records.size(), ex.getMessage());
+            for (int i = 0; i < records.size(); i++) {
+                processOne(records.get(i), i);
+            }
+            return;
+        }
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, VoteRequestedEvent> record = records.get(i);
+            RejectionReason reason = rejected.get(record.value());
+            if (reason != null) {
+                log.warn("Vote event {} rejected: {}", record.value().eventId(), reason.message());
+                pipelineMetrics.rejected(Source.CONSUMER, reason);
+                deadLetter(record, reason, i);
+            }
+        }
+    }
+
+    private void processOne(ConsumerRecord<String, VoteRequestedEvent> record, int index) {
+        VoteRequestedEvent e = record.value();
+        try {
+            if (ingestMode == VoteIngestMode.NATIVE) {
+                VoteOutcome outcome = votingService.processEventNative(e, record.partition());
+                if (outcome.isRejected()) {
+                    throw new VoteRejectedException(outcome.reason());
+                }
+            } else {
+                votingService.processEvent(e, record.partition());
+            }
+        } catch (VoteRejectedException ex) {
+            log.warn("Vote event {} rejected: {}", e.eventId(), ex.getMessage());
+            pipelineMetrics.rejected(Source.CONSUMER, ex.getReason());
+            deadLetter(record, ex.getReason(), index);
+        } catch (Exception ex) {
+            throw new BatchListenerFailedException("Vote event " + e.eventId() + " failed", ex, index);
+        }
+    }
+
+    private void deadLetter(ConsumerRecord<String, VoteRequestedEvent> record, RejectionReason reason, int index) {
+        try {
+            deadLetters.publish(record, reason);
+        } catch (Exception ex) {
+            throw new BatchListenerFailedException(ex.getMessage(), ex, index);
+        }
+    }
+}
@@ -1,26 +1,85 @@
 package pl.budziosz.votingsystem.kafka;
 
+import java.nio.charset.StandardCharsets;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.DltHandler;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.DltStrategy;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
+import pl.budziosz.votingsystem.service.VoteIngestMode;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics.Source;
 import pl.budziosz.votingsystem.service.VotingService;
 
+/**
+ * Transient failures are retried on separate retry topics with exponential backoff, so the main partition keeps
+ * moving; rejections and undeserializable payloads go straight to the dead-letter topic.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
+@ConditionalOnProperty(name = "app.kafka.consumer.batch.enabled", havingValue = "false", matchIfMissing = true)
 public class VoteConsumer {
 
+    public static final String GROUP_ID = "vote-consumers";
+
     private final VotingService votingService;
+    private final VotePipelineMetrics pipelineMetrics;
+
+    @Value("${app.voting.ingest-mode:jpa}")
+    private VoteIngestMode ingestMode;
 
-    @KafkaListener(topics = "${app.kafka.topics.votes:votes}", groupId = "vote-consumers")
+    @RetryableTopic(
+            attempts = "${app.kafka.retry.attempts:4}",
+            backoff = @Backoff(delayExpression = "${app.kafka.retry.initial-interval-ms:1000}",
+                    multiplierExpression = "${app.kafka.retry.multiplier:2.0}",
+                    maxDelayExpression = "${app.kafka.retry.max-interval-ms:30000}"),
+            numPartitions = "${app.kafka.topics.votes.partitions:1}",
+            replicationFactor = "${app.kafka.topics.votes.replicas:1}",
+            topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+            dltTopicSuffix = VoteDeadLetters.DLT_SUFFIX,
+            dltStrategy = DltStrategy.FAIL_ON_ERROR,
+            exclude = VoteRejectedException.class,
+            traversingCauses = "true")
+    @KafkaListener(topics = "${app.kafka.topics.votes:votes}", groupId = GROUP_ID,
+            concurrency = "${app.kafka.consumer.concurrency:1}")
     @Transactional
-    public void handle(VoteRequestedEvent e) {
+    public void handle(ConsumerRecord<String, VoteRequestedEvent> record) {
+        VoteRequestedEvent e = record.value();
         try {
-            votingService.processEvent(e);
-        } catch (Exception ex) {
-            log.warn("Vote event {} rejected: {}", e.eventId(), ex.getMessage());
+            if (ingestMode == VoteIngestMode.NATIVE) {
+                VoteOutcome outcome = votingService.processEventNative(e, record.partition());
+                if (outcome.isRejected()) {
+                    throw new VoteRejectedException(outcome.reason());
+                }
+            } else {
+                votingService.processEvent(e, record.partition());
+            }
+        } catch (VoteRejectedException ex) {
+            // Rejections are not retried, so each one is counted once.
+            pipelineMetrics.rejected(Source.CONSUMER, ex.getReason());
+            throw ex;
         }
     }
+
+    @DltHandler
+    public void deadLetter(ConsumerRecord<String, VoteRequestedEvent> record) {
+        Header reason = record.headers().lastHeader(VoteDeadLetters.REJECTION_REASON_HEADER);
+        Header error = record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+        Header cause = reason != null ? reason : error;
+        log.warn("Vote event {} of voter {} dead-lettered: {}", record.value() == null ? null : record.value().eventId(),
+                record.key(), cause == null ? null : new String(cause.value(), StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,106 @@
+package pl.budziosz.votingsystem.kafka;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.ConsumerGroupListing;
+import org.apache.kafka.clients.admin.ListOffsetsResult.ListOffsetsResultInfo;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+/**
+ * Tells from the committed offsets of the vote consumer groups whether every vote event requested before a point
+ * in time has been processed. Events are timestamped when sent, so on the votes topic it is enough that the
+ * groups committed past the first event sent at or after that time. Retry topics carry re-sent events with newer
+ * timestamps and have to be fully drained instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VoteConsumerProgress {
+
+    private final KafkaAdmin kafkaAdmin;
+
+    @Value("${app.kafka.topics.votes:votes}")
+    private String votesTopicName;
+
+    @Value("${app.kafka.admin.operation-timeout:10s}")
+    private Duration timeout;
+
+    public boolean processedAllSentBefore(Instant cutoff) {
+        try (Admin admin = Admin.create(kafkaAdmin.getConfigurationProperties())) {
+            Map<TopicPartition, OffsetSpec> required = new HashMap<>();
+            for (String topic : admin.listTopics().names().get(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                if (topic.equals(votesTopicName)) {
+                    partitions(admin, topic).forEach(tp -> required.put(tp, OffsetSpec.forTimestamp(cutoff.toEpochMilli())));
+                } else if (topic.startsWith(votesTopicName + "-retry")) {
+                    partitions(admin, topic).forEach(tp -> required.put(tp, OffsetSpec.latest()));
+                }
+            }
+            Map<TopicPartition, ListOffsetsResultInfo> offsets = admin.listOffsets(required).all()
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            Map<TopicPartition, ListOffsetsResultInfo> latest = admin.listOffsets(required.keySet().stream()
+                            .collect(Collectors.toMap(tp -> tp, tp -> OffsetSpec.latest()))).all()
+                    .get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            Map<TopicPartition, Long> committed = committedOffsets(admin);
+
+            for (TopicPartition tp : required.keySet()) {
+                // No event sent at or after the cutoff yet: everything up to the end of the partition counts.
+                long offset = offsets.get(tp).offset();
+                long needed = offset < 0 ? latest.get(tp).offset() : offset;
+                long done = committed.getOrDefault(tp, 0L);
+                if (done < needed) {
+                    log.debug("{} not drained up to {}: committed {}, needed {}", tp, cutoff, done, needed);
+                    return false;
+                }
+            }
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Cannot read vote consumer progress: {}", e.toString());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Iterable<TopicPartition> partitions(Admin admin, String topic)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        return admin.describeTopics(List.of(topic)).allTopicNames()
+                .get(timeout.toMillis(), TimeUnit.MILLISECONDS).get(topic).partitions().stream()
+                .map(p -> new TopicPartition(topic, p.partition()))
+                .toList();
+    }
+
+    // The retry topic listeners run in groups named after the main group.
+    private Map<TopicPartition, Long> committedOffsets(Admin admin)
+            throws ExecutionException, InterruptedException, TimeoutException {
+        Map<TopicPartition, Long> committed = new HashMap<>();
+        for (ConsumerGroupListing group : admin.listConsumerGroups().all().get(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            if (!group.groupId().startsWith(VoteConsumer.GROUP_ID)) {
+                continue;
+            }
+            Map<TopicPartition, OffsetAndMetadata> offsets = admin.listConsumerGroupOffsets(group.groupId())
+                    .partitionsToOffsetAndMetadata().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            offsets.forEach((tp, offset) -> {
+                if (offset != null) {
+                    committed.merge(tp, offset.offset(), Math::max);
+                }
+            });
+        }
+        return committed;
+    }
+}
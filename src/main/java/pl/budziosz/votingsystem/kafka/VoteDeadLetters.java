@@ -0,0 +1,75 @@
+package pl.budziosz.votingsystem.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
+
+/**
+ * Routes permanently rejected vote events to the dead-letter topic ({@code <votes topic>-dlt}),
+ * tagged with a {@value #REJECTION_REASON_HEADER} header. The send is awaited, so the caller can fail the batch
+ * instead of committing past a vote that reached neither the database nor the dead-letter topic.
+ */
+@Component
+@RequiredArgsConstructor
+public class VoteDeadLetters {
+
+    public static final String DLT_SUFFIX = "-dlt";
+    public static final String REJECTION_REASON_HEADER = "vote-rejection-reason";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${app.kafka.dead-letter.send-timeout:30s}")
+    private Duration sendTimeout;
+
+    /**
+     * @throws KafkaException when the broker does not acknowledge the dead letter within the send timeout
+     */
+    public void publish(ConsumerRecord<String, VoteRequestedEvent> record, RejectionReason reason) {
+        ProducerRecord<String, Object> deadLetter = new ProducerRecord<>(record.topic() + DLT_SUFFIX, null,
+                record.key(), record.value(), rejectionHeaders(reason));
+        try {
+            kafkaTemplate.send(deadLetter).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            throw failed(record, reason, ex.getCause());
+        } catch (TimeoutException ex) {
+            throw failed(record, reason, ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw failed(record, reason, ex);
+        }
+    }
+
+    private static KafkaException failed(ConsumerRecord<String, VoteRequestedEvent> record, RejectionReason reason,
+                                         Throwable cause) {
+        return new KafkaException("Cannot dead-letter vote event " + record.value().eventId() + " (" + reason + ")", cause);
+    }
+
+    /**
+     * Headers added by the dead-letter publishing recoverer; {@code null} unless the failure is a rejection.
+     */
+    public static Headers rejectionHeaders(ConsumerRecord<?, ?> record, Exception ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof VoteRejectedException rejected) {
+                return rejectionHeaders(rejected.getReason());
+            }
+        }
+        return null;
+    }
+
+    private static Headers rejectionHeaders(RejectionReason reason) {
+        return new RecordHeaders().add(REJECTION_REASON_HEADER, reason.name().getBytes(StandardCharsets.UTF_8));
+    }
+}
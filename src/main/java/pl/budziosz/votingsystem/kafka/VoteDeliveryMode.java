@@ -0,0 +1,23 @@
+package pl.budziosz.votingsystem.kafka;
+
+/**
+ * How long {@link VotePublisher} waits before a vote is answered with 202 Accepted.
+ */
+public enum VoteDeliveryMode {
+    /** acks=0, the request returns once the event is in the producer buffer. */
+    FIRE_AND_FORGET("0"),
+    /** acks=1, waits until the partition leader has written the event. */
+    LEADER("1"),
+    /** acks=all with idempotence, waits until all in-sync replicas have the event. */
+    ALL("all");
+
+    private final String acks;
+
+    VoteDeliveryMode(String acks) {
+        this.acks = acks;
+    }
+
+    public String acks() {
+        return acks;
+    }
+}
@@ -0,0 +1,56 @@
+package pl.budziosz.votingsystem.kafka;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Compact wire format of {@link VoteRequestedEvent}, version 1 (50 bytes, big-endian):
+ * magic, version, event id as a 16-byte UUID, election, voter and option ids as 8-byte longs,
+ * {@code requestedAt} as epoch microseconds.
+ * The magic byte is never the first byte of a JSON document, so both formats can share a topic.
+ */
+public final class VoteEventBinaryFormat {
+
+    static final byte MAGIC = (byte) 0xB7;
+    static final byte VERSION_1 = 1;
+    static final int VERSION_1_SIZE = 2 + 16 + 4 * Long.BYTES;
+
+    private VoteEventBinaryFormat() {
+    }
+
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(VoteRequestedEvent e) {
+        UUID eventId = UUID.fromString(e.eventId());
+        return ByteBuffer.allocate(VERSION_1_SIZE)
+                .put(MAGIC)
+                .put(VERSION_1)
+                .putLong(eventId.getMostSignificantBits())
+                .putLong(eventId.getLeastSignificantBits())
+                .putLong(e.electionId())
+                .putLong(e.voterId())
+                .putLong(e.optionId())
+                .putLong(ChronoUnit.MICROS.between(Instant.EPOCH, e.requestedAt()))
+                .array();
+    }
+
+    public static VoteRequestedEvent decode(byte[] data) {
+        if (!isBinary(data) || data.length < 2) {
+            throw new IllegalArgumentException("Not a binary vote event");
+        }
+        if (data[1] != VERSION_1 || data.length != VERSION_1_SIZE) {
+            throw new IllegalArgumentException("Unsupported binary vote event version " + data[1] + " (" + data.length + " bytes)");
+        }
+        ByteBuffer buf = ByteBuffer.wrap(data, 2, data.length - 2);
+        UUID eventId = new UUID(buf.getLong(), buf.getLong());
+        long electionId = buf.getLong();
+        long voterId = buf.getLong();
+        long optionId = buf.getLong();
+        Instant requestedAt = Instant.EPOCH.plus(buf.getLong(), ChronoUnit.MICROS);
+        return new VoteRequestedEvent(eventId.toString(), electionId, voterId, optionId, requestedAt);
+    }
+}
@@ -0,0 +1,25 @@
+package pl.budziosz.votingsystem.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Writes {@link VoteRequestedEvent} in {@link VoteEventBinaryFormat}; raw bytes (dead-lettered payloads) pass through.
+ */
+public class VoteEventBinarySerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null || data instanceof byte[]) {
+            return (byte[]) data;
+        }
+        if (data instanceof VoteRequestedEvent e) {
+            try {
+                return VoteEventBinaryFormat.encode(e);
+            } catch (RuntimeException ex) {
+                throw new SerializationException("Cannot encode vote event " + e.eventId() + " for topic " + topic, ex);
+            }
+        }
+        throw new SerializationException("Unsupported value type for topic " + topic + ": " + data.getClass().getName());
+    }
+}
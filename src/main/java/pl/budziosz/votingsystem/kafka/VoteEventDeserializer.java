@@ -0,0 +1,43 @@
+package pl.budziosz.votingsystem.kafka;
+
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+/**
+ * Reads vote events in either {@link VoteEventBinaryFormat} or JSON, telling them apart by the first byte,
+ * so producers can switch formats while consumers keep running.
+ */
+public class VoteEventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> json = new JsonDeserializer<>();
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (!VoteEventBinaryFormat.isBinary(data)) {
+            return headers == null ? json.deserialize(topic, data) : json.deserialize(topic, headers, data);
+        }
+        try {
+            return VoteEventBinaryFormat.decode(data);
+        } catch (IllegalArgumentException ex) {
+            throw new SerializationException("Cannot decode vote event from topic " + topic, ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -1,20 +1,73 @@
 package pl.budziosz.votingsystem.kafka;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class VotePublisher {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public VotePublisher(@Qualifier("voteKafkaTemplate") KafkaTemplate<String, Object> kafkaTemplate,
+                         MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+    }
 
     @Value("${app.kafka.topics.votes:votes}")
     private String votesTopic;
 
+    @Value("${app.kafka.producer.delivery-mode:all}")
+    private VoteDeliveryMode deliveryMode;
+
+    @Value("${app.kafka.producer.ack-timeout:5s}")
+    private Duration ackTimeout;
+
+    /**
+     * Returns once the event is acknowledged as configured by the delivery mode; a full producer buffer,
+     * a failed send or a missing acknowledgement is reported as 503 so the client can retry.
+     */
     public void publish(VoteRequestedEvent event) {
-        kafkaTemplate.send(votesTopic, String.valueOf(event.voterId()), event);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            // send() blocks for at most max.block.ms when the buffer is full, then completes the future exceptionally.
+            CompletableFuture<SendResult<String, Object>> future =
+                    kafkaTemplate.send(votesTopic, String.valueOf(event.voterId()), event);
+            if (deliveryMode != VoteDeliveryMode.FIRE_AND_FORGET || future.isDone()) {
+                future.get(ackTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            outcome = "ok";
+        } catch (TimeoutException ex) {
+            outcome = "timeout";
+            throw unavailable(event, ex);
+        } catch (ExecutionException ex) {
+            throw unavailable(event, ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw unavailable(event, ex);
+        } finally {
+            sample.stop(meterRegistry.timer("votes.publish", "mode", deliveryMode.name(), "outcome", outcome));
+        }
+    }
+
+    private ResponseStatusException unavailable(VoteRequestedEvent event, Throwable cause) {
+        log.warn("Vote event {} not published: {}", event.eventId(), cause.toString());
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Vote could not be accepted right now, try again later");
     }
 }
@@ -0,0 +1,9 @@
+package pl.budziosz.votingsystem.kafka;
+
+/**
+ * Format in which vote events are written to the votes topics. Consumers accept both.
+ */
+public enum VoteWireFormat {
+    JSON,
+    BINARY
+}
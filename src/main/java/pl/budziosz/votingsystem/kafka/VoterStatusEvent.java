@@ -0,0 +1,10 @@
+package pl.budziosz.votingsystem.kafka;
+
+/**
+ * Latest status of a voter on the compacted voter status topic, keyed by voter id; a deleted voter is a tombstone.
+ */
+public record VoterStatusEvent(
+        Long voterId,
+        boolean blocked
+) {
+}
@@ -0,0 +1,83 @@
+package pl.budziosz.votingsystem.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+import pl.budziosz.votingsystem.cache.VoterStatusCache;
+
+/**
+ * Replays the compacted voter status topic from the beginning on every node (no consumer group) and keeps
+ * {@link VoterStatusCache} current. The cache is marked ready once the end offsets seen at startup are reached.
+ */
+@Component
+@RequiredArgsConstructor
+public class VoterStatusListener implements ConsumerSeekAware {
+
+    public static final String LISTENER_ID = "voter-status";
+
+    private final VoterStatusCache voterStatusCache;
+    private final MeterRegistry meterRegistry;
+
+    // Only touched on the consumer thread.
+    private final Map<TopicPartition, Long> applied = new HashMap<>();
+    private Map<TopicPartition, Long> catchUpOffsets;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        applied.clear();
+        catchUpOffsets = null;
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    @KafkaListener(id = LISTENER_ID, idIsGroup = false, clientIdPrefix = LISTENER_ID,
+            containerFactory = "voterStatusListenerContainerFactory",
+            topicPartitions = @org.springframework.kafka.annotation.TopicPartition(
+                    topic = "${app.kafka.topics.voter-status:voter-status}", partitions = "0"))
+    public void handle(ConsumerRecord<String, VoterStatusEvent> record, Consumer<?, ?> consumer) {
+        Long voterId = Long.valueOf(record.key());
+        if (record.value() == null) {
+            voterStatusCache.remove(voterId);
+        } else {
+            voterStatusCache.apply(voterId, record.value().blocked());
+        }
+        applied.put(new TopicPartition(record.topic(), record.partition()), record.offset() + 1);
+        if (voterStatusCache.isReady()) {
+            // Time from the admin change being sent to it being visible on this node; replayed history is not counted.
+            meterRegistry.timer("voter.status.propagation")
+                    .record(Duration.ofMillis(Math.max(0, System.currentTimeMillis() - record.timestamp())));
+        } else {
+            checkCaughtUp(consumer, false);
+        }
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        if (!voterStatusCache.isReady()) {
+            checkCaughtUp(event.getConsumer(), true);
+        }
+    }
+
+    // Positions run ahead of the records handed to the listener within a poll, so they are trusted only when idle.
+    private void checkCaughtUp(Consumer<?, ?> consumer, boolean idle) {
+        if (catchUpOffsets == null) {
+            catchUpOffsets = new HashMap<>(consumer.endOffsets(consumer.assignment()));
+        }
+        for (Map.Entry<TopicPartition, Long> end : catchUpOffsets.entrySet()) {
+            long next = idle ? consumer.position(end.getKey()) : applied.getOrDefault(end.getKey(), -1L);
+            if (next < end.getValue()) {
+                return;
+            }
+        }
+        voterStatusCache.markReady();
+    }
+}
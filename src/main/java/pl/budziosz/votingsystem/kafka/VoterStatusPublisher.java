@@ -0,0 +1,45 @@
+package pl.budziosz.votingsystem.kafka;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pl.budziosz.votingsystem.model.domain.Voter;
+import pl.budziosz.votingsystem.repository.VoterStatusOutboxRepository;
+import pl.budziosz.votingsystem.utils.AfterCommit;
+
+/**
+ * Publishes voter status changes to the compacted voter status topic through an outbox: the change is written in the
+ * admin transaction and sent once it commits. Changes whose send failed are retried on a schedule until the topic has
+ * them, so no node keeps acting on a previous status.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VoterStatusPublisher {
+
+    private final VoterStatusOutboxRepository outboxRepository;
+    private final VoterStatusRelay relay;
+
+    public void publish(Voter voter) {
+        outboxRepository.save(voter.getId(), voter.isBlocked());
+        AfterCommit.run(this::relayPending);
+    }
+
+    public void publishDeleted(Long voterId) {
+        outboxRepository.save(voterId, null);
+        AfterCommit.run(this::relayPending);
+    }
+
+    @Scheduled(fixedDelayString = "${app.kafka.voter-status.relay-ms:1000}")
+    public void relayPending() {
+        try {
+            int published;
+            do {
+                published = relay.relay();
+            } while (published > 0);
+        } catch (RuntimeException ex) {
+            log.warn("Voter status changes not published, retrying on the next relay run: {}", ex.toString());
+        }
+    }
+}
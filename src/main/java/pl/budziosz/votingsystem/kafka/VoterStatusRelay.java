@@ -0,0 +1,69 @@
+package pl.budziosz.votingsystem.kafka;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pl.budziosz.votingsystem.repository.VoterStatusOutboxRepository;
+import pl.budziosz.votingsystem.repository.VoterStatusOutboxRepository.VoterStatusChange;
+
+/**
+ * Sends pending voter status changes from the outbox to the voter status topic and deletes them once acknowledged.
+ * A failed or unacknowledged send rolls the batch back, so its changes stay pending for the next attempt.
+ */
+@Component
+@RequiredArgsConstructor
+public class VoterStatusRelay {
+
+    private final VoterStatusOutboxRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Value("${app.kafka.topics.voter-status:voter-status}")
+    private String voterStatusTopic;
+
+    @Value("${app.kafka.voter-status.relay-batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.kafka.voter-status.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    /**
+     * Publishes one batch of pending changes and returns how many were published. Runs in its own transaction, as it
+     * is also called right after an admin transaction commits.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int relay() {
+        List<VoterStatusChange> pending = outboxRepository.lockPending(batchSize);
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        CompletableFuture<?>[] sends = pending.stream()
+                .map(c -> kafkaTemplate.send(voterStatusTopic, String.valueOf(c.voterId()), event(c)))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new KafkaException("Cannot publish " + pending.size() + " voter status changes", e.getCause());
+        } catch (TimeoutException e) {
+            throw new KafkaException("Cannot publish " + pending.size() + " voter status changes", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while publishing voter status changes", e);
+        }
+        outboxRepository.delete(pending);
+        return pending.size();
+    }
+
+    private static VoterStatusEvent event(VoterStatusChange change) {
+        return change.blocked() == null ? null : new VoterStatusEvent(change.voterId(), change.blocked());
+    }
+}
@@ -0,0 +1,240 @@
+package pl.budziosz.votingsystem.loadgen;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.LockSupport;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pl.budziosz.votingsystem.model.domain.Election;
+import pl.budziosz.votingsystem.model.dto.ElectionDtos.ElectionUpsertDto;
+import pl.budziosz.votingsystem.model.dto.ElectionOptionDtos.ElectionOptionUpsertDto;
+import pl.budziosz.votingsystem.service.AdminElectionService;
+import pl.budziosz.votingsystem.service.VoteStoredEvent;
+
+/**
+ * End-to-end load generator, active with the {@code loadgen} profile. Once the application accepts traffic (the
+ * startup loads of the in-memory indexes are done) it provisions an election and {@code app.loadgen.voters} synthetic
+ * voters, fires {@code POST /api/elections/{id}/votes} at this node at {@code app.loadgen.rate} requests per second
+ * with a mix of duplicate and invalid votes, waits for the consumers to drain and logs accepted/s, committed/s and
+ * HTTP-to-commit latency percentiles.
+ * <p>
+ * Requests are sent open-loop on virtual threads, each at its scheduled time whether or not earlier ones were
+ * answered, so a slow server shows up as latency rather than as a lower send rate. Commits are observed in the same
+ * JVM through {@link VoteStoredEvent}, which is why the generator runs inside the application it measures.
+ */
+@Component
+@Profile("loadgen")
+@RequiredArgsConstructor
+@Slf4j
+public class LoadGenerator {
+
+    private static final int INSERT_CHUNK = 10_000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final AdminElectionService adminElectionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final Environment environment;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.loadgen.voters:10000}")
+    private int voterCount;
+
+    @Value("${app.loadgen.options:4}")
+    private int optionCount;
+
+    @Value("${app.loadgen.rate:500}")
+    private int rate;
+
+    @Value("${app.loadgen.duration:30s}")
+    private Duration duration;
+
+    @Value("${app.loadgen.duplicate-ratio:0.05}")
+    private double duplicateRatio;
+
+    @Value("${app.loadgen.invalid-ratio:0.05}")
+    private double invalidRatio;
+
+    @Value("${app.loadgen.drain-timeout:60s}")
+    private Duration drainTimeout;
+
+    @Value("${app.loadgen.exit:true}")
+    private boolean exitWhenDone;
+
+    private volatile LoadRun run;
+
+    @EventListener
+    public void onReadiness(AvailabilityChangeEvent<ReadinessState> event) throws InterruptedException {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && run == null) {
+            generate();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVoteStored(VoteStoredEvent e) {
+        LoadRun current = run;
+        if (current != null) {
+            current.committed(e.electionId(), e.voterId(), System.nanoTime());
+        }
+    }
+
+    private void generate() throws InterruptedException {
+        if (rate <= 0 || voterCount <= 0 || optionCount <= 0) {
+            throw new IllegalStateException("app.loadgen.rate, voters and options must be positive");
+        }
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        Election election = createElection(runId);
+        List<Long> optionIds = createOptions(election.getId());
+        List<Long> voterIds = createVoters(runId);
+        log.info("Load run {}: election={} options={} voters={} rate={}/s duration={} duplicates={} invalid={}",
+                runId, election.getId(), optionIds.size(), voterIds.size(), rate, duration, duplicateRatio, invalidRatio);
+
+        LoadRun current = new LoadRun(election.getId(), voterIds);
+        run = current;
+        send(current, optionIds, voterIds);
+        drain(current);
+
+        LoadReport report = current.report();
+        log.info("Load run {} finished: {}", runId, report.format());
+        if (exitWhenDone) {
+            int code = report.lost() == 0 ? 0 : 1;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    private void send(LoadRun current, List<Long> optionIds, List<Long> voterIds) {
+        String url = "http://localhost:" + environment.getRequiredProperty("local.server.port")
+                + "/api/elections/" + current.electionId() + "/votes";
+        long requests = Math.round(rate * (duration.toNanos() / 1e9));
+        long period = 1_000_000_000L / rate;
+        SplittableRandom random = new SplittableRandom(current.electionId());
+        int nextFresh = 0;
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder().executor(clients).build();
+            long started = System.nanoTime();
+            current.start(started);
+            for (long i = 0; i < requests; i++) {
+                long wait;
+                while ((wait = started + i * period - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                double kind = random.nextDouble();
+                long voterId;
+                long optionId;
+                int fresh = -1;
+                if (kind < invalidRatio) {
+                    // Alternately rejected at the edge (foreign option) and by the consumer (unknown voter).
+                    boolean foreignOption = (i & 1) == 0;
+                    voterId = foreignOption ? voterIds.get(random.nextInt(voterIds.size())) : Long.MAX_VALUE - i;
+                    optionId = foreignOption ? Long.MAX_VALUE : optionIds.getFirst();
+                } else if (kind < invalidRatio + duplicateRatio && nextFresh > 0) {
+                    int index = random.nextInt(nextFresh);
+                    voterId = voterIds.get(index);
+                    optionId = optionIds.get(index % optionIds.size());
+                } else if (nextFresh < voterIds.size()) {
+                    fresh = nextFresh++;
+                    voterId = voterIds.get(fresh);
+                    optionId = optionIds.get(fresh % optionIds.size());
+                } else {
+                    log.warn("Load run ran out of fresh voters after {} requests", i);
+                    break;
+                }
+                HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                        .timeout(REQUEST_TIMEOUT)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"voterId\":" + voterId + ",\"optionId\":" + optionId + "}"))
+                        .build();
+                int index = fresh;
+                clients.execute(() -> {
+                    if (index >= 0) {
+                        current.sent(index, System.nanoTime());
+                    }
+                    current.answered(post(http, request), index >= 0, System.nanoTime());
+                });
+            }
+        }
+    }
+
+    private static int post(HttpClient http, HttpRequest request) {
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Waits until every accepted fresh vote is committed, or until no vote was committed for {@code drain-timeout}.
+     */
+    private void drain(LoadRun current) throws InterruptedException {
+        long seen = -1;
+        long progressAt = System.nanoTime();
+        while (current.committedCount() < current.expectedCommits()) {
+            long committed = current.committedCount();
+            if (committed != seen) {
+                seen = committed;
+                progressAt = System.nanoTime();
+            } else if (System.nanoTime() - progressAt > drainTimeout.toNanos()) {
+                log.warn("Consumers stalled at {} of {} votes for {}", committed, current.expectedCommits(), drainTimeout);
+                return;
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    private Election createElection(String runId) {
+        Instant now = Instant.now();
+        return adminElectionService.create(new ElectionUpsertDto(
+                "Load run " + runId,
+                "Synthetic election provisioned by the load generator",
+                now.minus(Duration.ofMinutes(1)),
+                now.plus(duration).plus(drainTimeout).plus(Duration.ofHours(1))));
+    }
+
+    private List<Long> createOptions(Long electionId) {
+        List<Long> ids = new ArrayList<>(optionCount);
+        for (int i = 1; i <= optionCount; i++) {
+            ids.add(adminElectionService.addOption(electionId, new ElectionOptionUpsertDto("Option " + i)).getId());
+        }
+        return ids;
+    }
+
+    private List<Long> createVoters(String runId) {
+        for (int from = 0; from < voterCount; from += INSERT_CHUNK) {
+            int to = Math.min(voterCount, from + INSERT_CHUNK);
+            List<Object[]> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                rows.add(new Object[]{"loadgen-" + runId + "-" + i + "@example.com", "Load Voter " + i,
+                        runId + String.format("%056d", i)});
+            }
+            jdbcTemplate.batchUpdate("insert into voters (email, full_name, pesel_hash) values (?, ?, ?)", rows);
+        }
+        return jdbcTemplate.queryForList("select id from voters where email like ? order by id", Long.class,
+                "loadgen-" + runId + "-%");
+    }
+}
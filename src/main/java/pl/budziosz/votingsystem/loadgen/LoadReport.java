@@ -0,0 +1,29 @@
+package pl.budziosz.votingsystem.loadgen;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outcome of a load run. Rates are measured from the first request; latencies run from sending a voter's first vote
+ * to the commit of its row.
+ */
+record LoadReport(
+        Map<Integer, Long> statuses,
+        long accepted,
+        double acceptedPerSecond,
+        long committed,
+        double committedPerSecond,
+        long lost,
+        double p50Millis,
+        double p99Millis,
+        double p999Millis,
+        double maxMillis
+) {
+
+    String format() {
+        return String.format(Locale.ROOT,
+                "accepted=%d (%.0f/s) committed=%d (%.0f/s) lost=%d http-to-commit p50=%.1fms p99=%.1fms p999=%.1fms max=%.1fms statuses=%s",
+                accepted, acceptedPerSecond, committed, committedPerSecond, lost,
+                p50Millis, p99Millis, p999Millis, maxMillis, statuses);
+    }
+}
@@ -0,0 +1,133 @@
+package pl.budziosz.votingsystem.loadgen;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Clock of one load run: when each synthetic voter's first vote was sent and when it was committed, plus the HTTP
+ * statuses of every request. Times are {@link System#nanoTime()} values; a slot holding 0 was never set.
+ */
+final class LoadRun {
+
+    private final long electionId;
+    private final Map<Long, Integer> voterIndex;
+    private final AtomicLongArray sentAt;
+    private final AtomicLongArray committedAt;
+    private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder freshAccepted = new LongAdder();
+    private final LongAdder committed = new LongAdder();
+    private final AtomicLong lastAnswer = new AtomicLong();
+    private final AtomicLong lastCommit = new AtomicLong();
+    private volatile long started;
+
+    LoadRun(long electionId, List<Long> voterIds) {
+        this.electionId = electionId;
+        this.voterIndex = new HashMap<>(voterIds.size() * 2);
+        for (int i = 0; i < voterIds.size(); i++) {
+            voterIndex.put(voterIds.get(i), i);
+        }
+        this.sentAt = new AtomicLongArray(voterIds.size());
+        this.committedAt = new AtomicLongArray(voterIds.size());
+    }
+
+    long electionId() {
+        return electionId;
+    }
+
+    void start(long now) {
+        started = now;
+    }
+
+    /**
+     * Records the send time of the first vote of the voter at {@code index}; duplicates do not restart the clock.
+     */
+    void sent(int index, long now) {
+        sentAt.compareAndSet(index, 0, now);
+    }
+
+    void answered(int status, boolean fresh, long now) {
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (status == 202) {
+            accepted.increment();
+            if (fresh) {
+                freshAccepted.increment();
+            }
+        }
+        lastAnswer.accumulateAndGet(now, Math::max);
+    }
+
+    void committed(long electionId, long voterId, long now) {
+        if (electionId != this.electionId) {
+            return;
+        }
+        Integer index = voterIndex.get(voterId);
+        if (index != null && committedAt.compareAndSet(index, 0, now)) {
+            committed.increment();
+            lastCommit.accumulateAndGet(now, Math::max);
+        }
+    }
+
+    long committedCount() {
+        return committed.sum();
+    }
+
+    /**
+     * Votes that should end up committed: fresh voters whose request was accepted.
+     */
+    long expectedCommits() {
+        return freshAccepted.sum();
+    }
+
+    LoadReport report() {
+        int voters = sentAt.length();
+        long[] latencies = new long[voters];
+        int n = 0;
+        for (int i = 0; i < voters; i++) {
+            long sent = sentAt.get(i);
+            long done = committedAt.get(i);
+            if (sent != 0 && done != 0) {
+                latencies[n++] = Math.max(0, done - sent);
+            }
+        }
+        long[] sorted = Arrays.copyOf(latencies, n);
+        Arrays.sort(sorted);
+        Map<Integer, Long> byStatus = new TreeMap<>();
+        statuses.forEach((status, count) -> byStatus.put(status, count.sum()));
+        return new LoadReport(
+                byStatus,
+                accepted.sum(),
+                perSecond(accepted.sum(), lastAnswer.get()),
+                committed.sum(),
+                perSecond(committed.sum(), lastCommit.get()),
+                Math.max(0, expectedCommits() - committed.sum()),
+                quantileMillis(sorted, 0.50),
+                quantileMillis(sorted, 0.99),
+                quantileMillis(sorted, 0.999),
+                quantileMillis(sorted, 1.0)
+        );
+    }
+
+    private double perSecond(long count, long until) {
+        if (count == 0 || until <= started) {
+            return 0;
+        }
+        return count / ((until - started) / 1e9);
+    }
+
+    static double quantileMillis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,50 @@
+package pl.budziosz.votingsystem.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+import pl.budziosz.votingsystem.utils.PeselHasher;
+
+/**
+ * Rehashes every {@code voters.pesel_hash} from plain SHA-256 to the keyed {@link PeselHasher} scheme. A Java
+ * migration because the pepper lives in the application's configuration; Spring Boot hands migration beans to
+ * Flyway, which runs this once, in one transaction, before the application starts serving.
+ */
+@Component
+@RequiredArgsConstructor
+public class V10__Rehash_pesel_hashes_with_pepper extends BaseJavaMigration {
+
+    private static final int FETCH_SIZE = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+
+    private final PeselHasher peselHasher;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement select = connection.createStatement();
+             PreparedStatement update = connection.prepareStatement("update voters set pesel_hash = ? where id = ?")) {
+            select.setFetchSize(FETCH_SIZE);
+            int pending = 0;
+            try (ResultSet rs = select.executeQuery("select id, pesel_hash from voters")) {
+                while (rs.next()) {
+                    update.setString(1, peselHasher.rehashLegacy(rs.getString(2)));
+                    update.setLong(2, rs.getLong(1));
+                    update.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        update.executeBatch();
+                        pending = 0;
+                    }
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+}
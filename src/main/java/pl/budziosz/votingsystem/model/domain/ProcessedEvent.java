@@ -1,31 +0,0 @@
-package pl.budziosz.votingsystem.model.domain;
-
-import jakarta.persistence.Column;
-import jakarta.persistence.Entity;
-import jakarta.persistence.Id;
-import jakarta.persistence.Table;
-import java.time.Instant;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
-
-@Entity
-@Table(name = "processed_events")
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-public class ProcessedEvent {
-
-    @Id
-    @Column(name = "event_id", length = 64, nullable = false)
-    private String eventId;
-
-    @Column(name = "occurred_at", nullable = false, updatable = false, insertable = false)
-    private Instant occurredAt;
-
-    public static ProcessedEvent of(String eventId) {
-        return new ProcessedEvent(eventId, null);
-    }
-}
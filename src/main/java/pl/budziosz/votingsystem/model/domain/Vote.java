@@ -12,7 +12,6 @@ import lombok.NoArgsConstructor;
            @UniqueConstraint(name = "votes_unique_election_voter", columnNames = {"election_id", "voter_id"})
        },
        indexes = {
-           @Index(name = "idx_votes_election", columnList = "election_id"),
            @Index(name = "idx_votes_option", columnList = "option_id")
        })
 @Getter
@@ -0,0 +1,68 @@
+package pl.budziosz.votingsystem.model.domain;
+
+public record VoteOutcome(
+        Status status,
+        RejectionReason reason
+) {
+
+    public enum Status {
+        STORED,
+        DUPLICATE_VOTE,
+        ALREADY_PROCESSED,
+        REJECTED
+    }
+
+    public enum RejectionReason {
+        ELECTION_NOT_FOUND("Election not found"),
+        OUTSIDE_WINDOW("Vote outside election window"),
+        VOTER_NOT_FOUND("Voter not found"),
+        VOTER_BLOCKED("Voter blocked"),
+        OPTION_NOT_FOUND("Option not found"),
+        OPTION_MISMATCH("Option does not belong to the election"),
+        EXPIRED("Event is older than the deduplication horizon");
+
+        private final String message;
+
+        RejectionReason(String message) {
+            this.message = message;
+        }
+
+        public String message() {
+            return message;
+        }
+    }
+
+    private static final VoteOutcome STORED = new VoteOutcome(Status.STORED, null);
+    private static final VoteOutcome DUPLICATE_VOTE = new VoteOutcome(Status.DUPLICATE_VOTE, null);
+    private static final VoteOutcome ALREADY_PROCESSED = new VoteOutcome(Status.ALREADY_PROCESSED, null);
+
+    public static VoteOutcome stored() {
+        return STORED;
+    }
+
+    public static VoteOutcome duplicateVote() {
+        return DUPLICATE_VOTE;
+    }
+
+    public static VoteOutcome alreadyProcessed() {
+        return ALREADY_PROCESSED;
+    }
+
+    public static VoteOutcome rejected(RejectionReason reason) {
+        return new VoteOutcome(Status.REJECTED, reason);
+    }
+
+    public static VoteOutcome of(boolean freshEvent, String rejection, boolean stored) {
+        if (!freshEvent) {
+            return ALREADY_PROCESSED;
+        }
+        if (rejection != null) {
+            return rejected(RejectionReason.valueOf(rejection));
+        }
+        return stored ? STORED : DUPLICATE_VOTE;
+    }
+
+    public boolean isRejected() {
+        return status == Status.REJECTED;
+    }
+}
@@ -0,0 +1,17 @@
+package pl.budziosz.votingsystem.model.domain;
+
+import lombok.Getter;
+
+/**
+ * A vote that can never be accepted, no matter how often it is retried.
+ */
+@Getter
+public class VoteRejectedException extends IllegalArgumentException {
+
+    private final VoteOutcome.RejectionReason reason;
+
+    public VoteRejectedException(VoteOutcome.RejectionReason reason) {
+        super(reason.message());
+        this.reason = reason;
+    }
+}
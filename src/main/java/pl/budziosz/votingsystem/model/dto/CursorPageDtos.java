@@ -0,0 +1,20 @@
+package pl.budziosz.votingsystem.model.dto;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class CursorPageDtos {
+    /**
+     * One page of a keyset listing. {@code nextCursor} is null on the last page; {@code totalEstimate} is only set
+     * when requested and comes from table statistics, so it is approximate.
+     */
+    public record CursorPage<T>(
+            List<T> items,
+            String nextCursor,
+            Long totalEstimate
+    ) {
+        public <R> CursorPage<R> map(Function<? super T, ? extends R> mapper) {
+            return new CursorPage<>(items.stream().<R>map(mapper).toList(), nextCursor, totalEstimate);
+        }
+    }
+}
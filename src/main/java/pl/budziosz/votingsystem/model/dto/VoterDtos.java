@@ -2,6 +2,8 @@ package pl.budziosz.votingsystem.model.dto;
 
 import jakarta.validation.constraints.*;
 
+import java.time.Instant;
+
 public class VoterDtos {
     public record VoterUpsertDto(
             @NotBlank @Email String email,
@@ -18,4 +20,17 @@ public class VoterDtos {
             boolean blocked
     ) {
     }
+
+    public record VoterImportResponse(
+            Long id,
+            String format,
+            String status,
+            long rowsRead,
+            long rowsImported,
+            long rowsRejected,
+            String failure,
+            Instant startedAt,
+            Instant finishedAt
+    ) {
+    }
 }
@@ -2,9 +2,14 @@ package pl.budziosz.votingsystem.repository;
 
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import pl.budziosz.votingsystem.model.domain.ElectionOption;
 
 public interface ElectionOptionRepository extends JpaRepository<ElectionOption, Long> {
     List<ElectionOption> findByElectionId(Long electionId);
     boolean existsByElectionIdAndLabel(Long electionId, String label);
-}
\ No newline at end of file
+
+    @Query("select o.id from ElectionOption o where o.election.id = :electionId")
+    List<Long> findIdsByElectionId(@Param("electionId") Long electionId);
+}
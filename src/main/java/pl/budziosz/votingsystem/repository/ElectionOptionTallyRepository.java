@@ -0,0 +1,101 @@
+package pl.budziosz.votingsystem.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class ElectionOptionTallyRepository {
+
+    private static final String ADD_VOTES =
+            "insert into election_option_tallies (election_id, option_id, shard, votes) values (?, ?, ?, ?) " +
+            "on conflict (election_id, option_id, shard) do update set votes = election_option_tallies.votes + excluded.votes";
+
+    // Per-election advisory lock: vote ingest takes it shared, so writers of the same election do not wait for each
+    // other, and a rebuild takes it exclusively, so its delete and recount never interleave with an ingest
+    // transaction's increments. Keyed (namespace, election id) so it cannot collide with the single-key locks.
+    static final String ELECTION_LOCK_KEY = "hashtext('election_option_tallies'), cast(%s %% 2147483648 as int)";
+
+    private static final String LOCK_ELECTIONS_SHARED =
+            "select count(pg_advisory_xact_lock_shared(" + ELECTION_LOCK_KEY.formatted("id") + ")) " +
+            "from (select distinct unnest(cast(? as bigint[])) as id order by id) ids";
+
+    private static final String LOCK_ELECTION =
+            "select pg_advisory_xact_lock(" + ELECTION_LOCK_KEY.formatted("cast(? as bigint)") + ")";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record OptionVotes(long electionId, long optionId, long votes) {
+    }
+
+    /**
+     * Adds the deltas to the shard's rows in one JDBC batch. Deltas should be ordered by election and option,
+     * so that transactions updating several rows lock them in the same order. Must run in a transaction: it holds
+     * the elections' tally locks until commit, which keeps a concurrent {@link #rebuild} out.
+     */
+    public void addVotes(List<OptionVotes> deltas, int shard) {
+        Long[] electionIds = deltas.stream().map(OptionVotes::electionId).distinct().toArray(Long[]::new);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(LOCK_ELECTIONS_SHARED);
+            ps.setArray(1, con.createArrayOf("bigint", electionIds));
+            return ps;
+        }, rs -> null);
+        jdbcTemplate.batchUpdate(ADD_VOTES, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                OptionVotes delta = deltas.get(i);
+                ps.setLong(1, delta.electionId());
+                ps.setLong(2, delta.optionId());
+                ps.setInt(3, shard);
+                ps.setLong(4, delta.votes());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return deltas.size();
+            }
+        });
+    }
+
+    /**
+     * Takes the voter's votes back out of the tallies ahead of deleting the voter, whose votes go with it by cascade.
+     * Must run in the deleting transaction: the voter row stays locked until commit, so no vote of the voter can be
+     * stored in between (its foreign key check waits for the lock) and escape the subtraction.
+     */
+    public void removeVoterVotes(Long voterId) {
+        jdbcTemplate.query("select 1 from voters where id = ? for update", rs -> null, voterId);
+        List<OptionVotes> deltas = jdbcTemplate.query("""
+                select election_id, option_id, -count(*) from votes where voter_id = ?
+                group by election_id, option_id order by election_id, option_id
+                """, (rs, i) -> new OptionVotes(rs.getLong(1), rs.getLong(2), rs.getLong(3)), voterId);
+        if (!deltas.isEmpty()) {
+            addVotes(deltas, 0);
+        }
+    }
+
+    public List<OptionVotes> sumByOption() {
+        return jdbcTemplate.query(
+                "select election_id, option_id, sum(votes) from election_option_tallies group by election_id, option_id",
+                (rs, i) -> new OptionVotes(rs.getLong(1), rs.getLong(2), rs.getLong(3)));
+    }
+
+    /**
+     * Recomputes the election's tallies from the votes table into shard 0. Must run in a transaction: it first
+     * waits for the ingest transactions counting votes of the election to commit and keeps new ones waiting until
+     * it commits, so each vote is counted exactly once.
+     */
+    public void rebuild(Long electionId) {
+        jdbcTemplate.query(LOCK_ELECTION, rs -> null, electionId);
+        jdbcTemplate.update("delete from election_option_tallies where election_id = ?", electionId);
+        jdbcTemplate.update("""
+                insert into election_option_tallies (election_id, option_id, shard, votes)
+                select election_id, option_id, 0, count(*) from votes where election_id = ?
+                group by election_id, option_id
+                """, electionId);
+    }
+}
@@ -2,6 +2,7 @@ package pl.budziosz.votingsystem.repository;
 
 import java.time.Instant;
 import java.util.List;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -10,4 +11,10 @@ import pl.budziosz.votingsystem.model.domain.Election;
 public interface ElectionRepository extends JpaRepository<Election, Long> {
     @Query("select e from Election e where e.startsAt <= :now and e.endsAt >= :now order by e.startsAt asc")
     List<Election> findActive(@Param("now") Instant now);
-}
\ No newline at end of file
+
+    @Query("select e from Election e where e.endsAt >= :now")
+    List<Election> findEndingAtOrAfter(@Param("now") Instant now);
+
+    // Keyset page: a range scan of the primary key, however deep the page is.
+    List<Election> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+}
@@ -0,0 +1,60 @@
+package pl.budziosz.votingsystem.repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class ElectionResultsSnapshotRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record ResultsSnapshot(Long electionId, String results, String etag) {
+    }
+
+    public record ClosedElection(Long electionId, Instant endsAt) {
+    }
+
+    /**
+     * Serializes finalization across nodes for the rest of the current transaction.
+     */
+    public boolean tryLockFinalization() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select pg_try_advisory_xact_lock(hashtext('election_results_finalization'))", Boolean.class));
+    }
+
+    public List<ClosedElection> findClosedWithoutSnapshot(Instant endedBefore) {
+        return jdbcTemplate.query("""
+                select e.id, e.ends_at from elections e
+                where e.ends_at < ?
+                  and not exists (select 1 from election_results_snapshots s where s.election_id = e.id)
+                order by e.ends_at
+                """, (rs, i) -> new ClosedElection(rs.getLong(1), rs.getTimestamp(2).toInstant()),
+                Timestamp.from(endedBefore));
+    }
+
+    public Optional<ResultsSnapshot> find(Long electionId) {
+        return jdbcTemplate.query("select results, etag from election_results_snapshots where election_id = ?",
+                        (rs, i) -> new ResultsSnapshot(electionId, rs.getString(1), rs.getString(2)), electionId)
+                .stream().findFirst();
+    }
+
+    /**
+     * @return false when the election already has a snapshot, which is then left untouched
+     */
+    public boolean insert(ResultsSnapshot snapshot) {
+        return jdbcTemplate.update("""
+                insert into election_results_snapshots (election_id, results, etag) values (?, ?, ?)
+                on conflict (election_id) do nothing
+                """, snapshot.electionId(), snapshot.results(), snapshot.etag()) == 1;
+    }
+
+    public boolean delete(Long electionId) {
+        return jdbcTemplate.update("delete from election_results_snapshots where election_id = ?", electionId) == 1;
+    }
+}
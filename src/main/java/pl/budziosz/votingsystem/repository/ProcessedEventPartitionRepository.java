@@ -0,0 +1,54 @@
+package pl.budziosz.votingsystem.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class ProcessedEventPartitionRepository {
+
+    public static final String PARTITION_PREFIX = "processed_events_";
+    public static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Serializes maintenance across nodes for the rest of the current transaction.
+     */
+    public boolean tryLockMaintenance() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select pg_try_advisory_xact_lock(hashtext('processed_events_maintenance'))", Boolean.class));
+    }
+
+    public List<String> listPartitions() {
+        return jdbcTemplate.queryForList("""
+                select c.relname
+                from pg_inherits i
+                join pg_class c on c.oid = i.inhrelid
+                join pg_class p on p.oid = i.inhparent
+                where p.relname = 'processed_events'
+                order by c.relname
+                """, String.class);
+    }
+
+    public void createDailyPartition(LocalDate day) {
+        jdbcTemplate.execute("create table if not exists %s%s partition of processed_events for values from ('%s') to ('%s')"
+                .formatted(PARTITION_PREFIX, PARTITION_SUFFIX.format(day), day, day.plusDays(1)));
+    }
+
+    public void dropPartition(String partition) {
+        if (!partition.startsWith(PARTITION_PREFIX)) {
+            throw new IllegalArgumentException("Not a processed_events partition: " + partition);
+        }
+        jdbcTemplate.execute("drop table if exists " + partition);
+    }
+
+    public int deleteFromDefaultPartitionBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update("delete from processed_events_default where occurred_at < ?", cutoff);
+    }
+}
@@ -1,7 +1,28 @@
 package pl.budziosz.votingsystem.repository;
 
-import org.springframework.data.jpa.repository.JpaRepository;
-import pl.budziosz.votingsystem.model.domain.ProcessedEvent;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
 
-public interface ProcessedEventRepository extends JpaRepository<ProcessedEvent, String> {
+/**
+ * Event ids already processed, keyed by (event id, occurred at) since {@code processed_events} is partitioned by day.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProcessedEventRepository {
+
+    private static final String INSERT_IF_ABSENT =
+            "insert into processed_events (event_id, occurred_at) values (?, cast(? as timestamptz)) on conflict do nothing";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns 0 when the event was already recorded.
+     */
+    public int insertIfAbsent(String eventId, Instant occurredAt) {
+        return jdbcTemplate.update(INSERT_IF_ABSENT, eventId, OffsetDateTime.ofInstant(occurredAt, ZoneOffset.UTC));
+    }
 }
@@ -0,0 +1,37 @@
+package pl.budziosz.votingsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class TableStatsRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The planner's row estimate of the table, as of its last VACUUM or ANALYZE; -1 when it has never been analyzed.
+     * Partitioned tables report the sum of their partitions.
+     */
+    public long estimateRows(String table) {
+        Long estimate = jdbcTemplate.queryForObject("""
+                select case
+                           when c.relkind = 'p' then (select coalesce(sum(greatest(p.reltuples, 0)), 0)
+                                                      from pg_inherits i join pg_class p on p.oid = i.inhrelid
+                                                      where i.inhparent = c.oid)
+                           else c.reltuples
+                       end::bigint
+                from pg_class c
+                where c.oid = to_regclass(?)
+                """, Long.class, table);
+        return estimate == null ? -1 : estimate;
+    }
+
+    /**
+     * Exact row count; only meant for tables that have not been analyzed yet, which are small in practice.
+     */
+    public long countRows(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Long.class);
+    }
+}
@@ -0,0 +1,57 @@
+package pl.budziosz.votingsystem.repository;
+
+import java.sql.PreparedStatement;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Read side of the audit export: rows are handed to the callback straight from the result set, nothing is collected.
+ */
+@Repository
+@RequiredArgsConstructor
+public class VoteExportRepository {
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    // Walks the election's partition in primary key order, so no sort is needed however many votes it holds.
+    private static final String SELECT_VOTES =
+            "select voter_id, option_id, created_at from votes where election_id = ? order by id";
+
+    // Counted from the votes themselves rather than election_option_tallies, so the export can be checked against the
+    // vote file alone.
+    private static final String COUNT_VOTES_BY_OPTION = """
+            select o.id, o.label, count(v.option_id) as votes
+            from election_options o
+            left join votes v on v.election_id = o.election_id and v.option_id = o.id
+            where o.election_id = ?
+            group by o.id, o.label
+            order by o.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Streams (voter id, option id, created at) of the election's votes through a server-side cursor.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void forEachVote(long electionId, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_VOTES);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            ps.setLong(1, electionId);
+            return ps;
+        }, handler);
+    }
+
+    /**
+     * Streams (option id, label, votes) of every option of the election, options without votes included.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void forEachOptionCount(long electionId, RowCallbackHandler handler) {
+        jdbcTemplate.query(COUNT_VOTES_BY_OPTION, handler, electionId);
+    }
+}
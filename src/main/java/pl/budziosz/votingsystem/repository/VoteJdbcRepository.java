@@ -0,0 +1,238 @@
+package pl.budziosz.votingsystem.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome;
+
+@Repository
+@RequiredArgsConstructor
+public class VoteJdbcRepository {
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private static final String INSERT_PROCESSED_EVENT =
+            "insert into processed_events (event_id, occurred_at) values (?, cast(? as timestamptz)) on conflict do nothing";
+
+    private static final String DELETE_PROCESSED_EVENT =
+            "delete from processed_events where event_id = ? and occurred_at = cast(? as timestamptz)";
+
+    private static final String INSERT_VOTE =
+            "insert into votes (election_id, voter_id, option_id) values (?, ?, ?) " +
+            "on conflict (election_id, voter_id) do nothing";
+
+    // Records the event, checks the election window, the voter and the option, stores the vote and counts it in the
+    // shard's tally row in one round-trip.
+    // A failed check or an existing vote never raises a constraint violation, so the surrounding transaction stays usable.
+    // Everything else reads req, so the election's shared tally lock (see ElectionOptionTallyRepository) is held first.
+    private static final String INSERT_VOTE_CHECKED = """
+            with req as (
+                select p.*, pg_advisory_xact_lock_shared(%s) as tally_lock
+                from (select cast(? as bigint) as election_id, cast(? as bigint) as voter_id,
+                             cast(? as bigint) as option_id, cast(? as timestamptz) as requested_at) p
+            ),
+            fresh as (
+                insert into processed_events (event_id, occurred_at)
+                select ?, requested_at from req
+                on conflict do nothing
+                returning event_id
+            ),
+            checked as (
+                select r.election_id, r.voter_id, r.option_id,
+                       case
+                           when e.id is null then 'ELECTION_NOT_FOUND'
+                           when r.requested_at < e.starts_at or r.requested_at > e.ends_at then 'OUTSIDE_WINDOW'
+                           when v.id is null then 'VOTER_NOT_FOUND'
+                           when v.blocked then 'VOTER_BLOCKED'
+                           when o.id is null then 'OPTION_NOT_FOUND'
+                           when o.election_id <> r.election_id then 'OPTION_MISMATCH'
+                       end as rejection
+                from req r
+                left join elections e on e.id = r.election_id
+                left join voters v on v.id = r.voter_id
+                left join election_options o on o.id = r.option_id
+            ),
+            stored as (
+                insert into votes (election_id, voter_id, option_id)
+                select election_id, voter_id, option_id from checked
+                where rejection is null and exists (select 1 from fresh)
+                on conflict (election_id, voter_id) do nothing
+                returning election_id, option_id
+            ),
+            tallied as (
+                insert into election_option_tallies (election_id, option_id, shard, votes)
+                select election_id, option_id, cast(? as smallint), 1 from stored
+                on conflict (election_id, option_id, shard) do update set votes = election_option_tallies.votes + 1
+            )
+            select exists (select 1 from fresh) as fresh, c.rejection, exists (select 1 from stored) as stored
+            from checked c
+            """.formatted(ElectionOptionTallyRepository.ELECTION_LOCK_KEY.formatted("p.election_id"));
+
+    // Each (election, option) pair of the events with the election's window and options and the option's owner, as
+    // committed now. The consumer reads them in its own transaction rather than from the node-local reference-data
+    // cache, which may be up to its TTL behind admin edits made on other nodes.
+    private static final String SELECT_VOTE_TARGETS = """
+            select r.election_id, e.starts_at, e.ends_at,
+                   array(select eo.id from election_options eo where eo.election_id = e.id) as option_ids,
+                   r.option_id, o.election_id as option_election_id, o.label
+            from unnest(cast(? as bigint[]), cast(? as bigint[])) as r(election_id, option_id)
+            left join elections e on e.id = r.election_id
+            left join election_options o on o.id = r.option_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Elections and options the events vote in, read in one round-trip; ids that do not exist are absent.
+     */
+    public VoteTargets findVoteTargets(List<VoteRequestedEvent> events) {
+        Set<List<Long>> pairs = new LinkedHashSet<>();
+        for (VoteRequestedEvent e : events) {
+            pairs.add(List.of(e.electionId(), e.optionId()));
+        }
+        Long[] electionIds = pairs.stream().map(List::getFirst).toArray(Long[]::new);
+        Long[] optionIds = pairs.stream().map(List::getLast).toArray(Long[]::new);
+        Map<Long, ElectionMetadata> elections = new HashMap<>();
+        Map<Long, OptionMetadata> options = new HashMap<>();
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SELECT_VOTE_TARGETS);
+            ps.setArray(1, con.createArrayOf("bigint", electionIds));
+            ps.setArray(2, con.createArrayOf("bigint", optionIds));
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            OffsetDateTime startsAt = rs.getObject("starts_at", OffsetDateTime.class);
+            long electionId = rs.getLong("election_id");
+            if (startsAt != null && !elections.containsKey(electionId)) {
+                elections.put(electionId, new ElectionMetadata(electionId, startsAt.toInstant(),
+                        rs.getObject("ends_at", OffsetDateTime.class).toInstant(),
+                        Set.of((Long[]) rs.getArray("option_ids").getArray())));
+            }
+            long optionElectionId = rs.getLong("option_election_id");
+            if (!rs.wasNull()) {
+                long optionId = rs.getLong("option_id");
+                options.putIfAbsent(optionId, new OptionMetadata(optionId, optionElectionId, rs.getString("label")));
+            }
+        });
+        return new VoteTargets(elections, options);
+    }
+
+    public VoteOutcome insertVoteChecked(VoteRequestedEvent e, int shard) {
+        return jdbcTemplate.queryForObject(INSERT_VOTE_CHECKED,
+                (rs, i) -> VoteOutcome.of(rs.getBoolean("fresh"), rs.getString("rejection"), rs.getBoolean("stored")),
+                e.electionId(), e.voterId(), e.optionId(), OffsetDateTime.ofInstant(e.requestedAt(), ZoneOffset.UTC), e.eventId(), shard);
+    }
+
+    /**
+     * Returns one update count per event: 1 when its id was recorded, 0 when it had already been processed.
+     */
+    public int[] insertProcessedEvents(List<VoteRequestedEvent> events) {
+        return jdbcTemplate.batchUpdate(INSERT_PROCESSED_EVENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                VoteRequestedEvent e = events.get(i);
+                ps.setString(1, e.eventId());
+                ps.setObject(2, OffsetDateTime.ofInstant(e.requestedAt(), ZoneOffset.UTC));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    /**
+     * Forgets that the events were processed, so a redelivery checks them again.
+     */
+    public void deleteProcessedEvents(List<VoteRequestedEvent> events) {
+        jdbcTemplate.batchUpdate(DELETE_PROCESSED_EVENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                VoteRequestedEvent e = events.get(i);
+                ps.setString(1, e.eventId());
+                ps.setObject(2, OffsetDateTime.ofInstant(e.requestedAt(), ZoneOffset.UTC));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    /**
+     * Returns false when the voter had already voted in the election. An existing vote never raises a constraint
+     * violation, so the surrounding transaction stays usable.
+     */
+    public boolean insertVote(VoteRequestedEvent e) {
+        return jdbcTemplate.update(INSERT_VOTE, e.electionId(), e.voterId(), e.optionId()) > 0;
+    }
+
+    /**
+     * Returns one update count per event: 1 when the vote was stored, 0 when the voter had already voted.
+     */
+    public int[] insertVotes(List<VoteRequestedEvent> events) {
+        return jdbcTemplate.batchUpdate(INSERT_VOTE, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                VoteRequestedEvent e = events.get(i);
+                ps.setLong(1, e.electionId());
+                ps.setLong(2, e.voterId());
+                ps.setLong(3, e.optionId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return events.size();
+            }
+        });
+    }
+
+    /**
+     * Streams (election id, voter id) of every vote, or of one election when {@code electionId} is given,
+     * through a server-side cursor.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void forEachVote(Long electionId, BiConsumer<Long, Long> consumer) {
+        String sql = electionId == null
+                ? "select election_id, voter_id from votes order by election_id, voter_id"
+                : "select election_id, voter_id from votes where election_id = ? order by voter_id";
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            if (electionId != null) {
+                ps.setLong(1, electionId);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    public record VoteTargets(Map<Long, ElectionMetadata> elections, Map<Long, OptionMetadata> options) {
+
+        public Optional<ElectionMetadata> election(Long electionId) {
+            return Optional.ofNullable(elections.get(electionId));
+        }
+
+        public Optional<OptionMetadata> option(Long optionId) {
+            return Optional.ofNullable(options.get(optionId));
+        }
+    }
+}
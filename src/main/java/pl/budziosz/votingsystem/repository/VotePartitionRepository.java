@@ -0,0 +1,42 @@
+package pl.budziosz.votingsystem.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class VotePartitionRepository {
+
+    public static final String PARTITION_PREFIX = "votes_election_";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Detaches the election's partition from {@code votes}. {@code CONCURRENTLY} only takes SHARE UPDATE EXCLUSIVE on
+     * {@code votes}, so vote ingest and reads of other elections carry on, but it cannot run in a transaction block.
+     * A detach interrupted half-way is finalized; a missing or already detached partition is left alone, so that a
+     * failed election delete can be retried.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void detachElectionPartition(long electionId) {
+        String partition = PARTITION_PREFIX + electionId;
+        Boolean pending = jdbcTemplate.query(
+                "select inhdetachpending from pg_inherits where inhrelid = to_regclass(?) and inhparent = 'votes'::regclass",
+                rs -> rs.next() ? rs.getBoolean(1) : null, partition);
+        if (pending != null) {
+            jdbcTemplate.execute("alter table votes detach partition " + partition + (pending ? " finalize" : " concurrently"));
+        }
+    }
+
+    /**
+     * Drops the election's votes at once; without this, deleting the election cascades row by row.
+     * The partition itself is created by a trigger on {@code elections}. Detach it first: dropping a partition still
+     * attached locks all of {@code votes} ACCESS EXCLUSIVE until the transaction ends, stalling every election's ingest.
+     */
+    public void dropElectionPartition(long electionId) {
+        jdbcTemplate.execute("drop table if exists " + PARTITION_PREFIX + electionId);
+    }
+}
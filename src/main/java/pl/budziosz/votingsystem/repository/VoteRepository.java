@@ -8,10 +8,11 @@ import pl.budziosz.votingsystem.model.domain.Vote;
 
 public interface VoteRepository extends JpaRepository<Vote, Long> {
 
-    @Query("select o.id as optionId, o.label as label, count(v.id) as votes " +
-           "from ElectionOption o left join Vote v on v.option = o " +
-           "where o.election.id = :electionId " +
-           "group by o.id, o.label order by o.id")
+    // Sums the pre-aggregated shard rows of election_option_tallies instead of counting votes.
+    @Query(value = "select o.id as \"optionId\", o.label as \"label\", cast(coalesce(sum(t.votes), 0) as bigint) as \"votes\" " +
+           "from election_options o left join election_option_tallies t on t.option_id = o.id " +
+           "where o.election_id = :electionId " +
+           "group by o.id, o.label order by o.id", nativeQuery = true)
     List<OptionCount> countResultsByElection(@Param("electionId") Long electionId);
 
     interface OptionCount {
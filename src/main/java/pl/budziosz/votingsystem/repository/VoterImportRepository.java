@@ -0,0 +1,166 @@
+package pl.budziosz.votingsystem.repository;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+@RequiredArgsConstructor
+public class VoterImportRepository {
+
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private static final String COPY_ROWS =
+            "copy voter_import_rows (import_id, line_no, email, full_name, pesel_hash, blocked) from stdin with (format csv)";
+
+    // Rejects rows repeating an earlier line's email or PESEL and rows clashing with existing voters, inserts the rest
+    // and rejects whatever a concurrent insert took in the meantime (skipped by ON CONFLICT DO NOTHING).
+    private static final String MERGE = """
+            with ranked as (
+                select s.line_no, s.email, s.full_name, s.pesel_hash, s.blocked,
+                       row_number() over (partition by s.email order by s.line_no) as email_rank,
+                       row_number() over (partition by s.pesel_hash order by s.line_no) as pesel_rank
+                from voter_import_rows s
+                where s.import_id = ?
+            ),
+            checked as (
+                select r.*,
+                       case
+                           when r.email_rank > 1 then 'Duplicate email in file'
+                           when r.pesel_rank > 1 then 'Duplicate PESEL in file'
+                           when exists (select 1 from voters v where v.email = r.email) then 'Email already exists'
+                           when exists (select 1 from voters v where v.pesel_hash = r.pesel_hash) then 'PESEL already exists'
+                       end as error
+                from ranked r
+            ),
+            inserted as (
+                insert into voters (email, full_name, pesel_hash, blocked)
+                select email, full_name, pesel_hash, blocked from checked where error is null order by line_no
+                on conflict do nothing
+                returning email
+            ),
+            rejected as (
+                insert into voter_import_errors (import_id, line_no, error)
+                select ?, c.line_no, coalesce(c.error, 'Email or PESEL already exists')
+                from checked c
+                where c.error is not null or not exists (select 1 from inserted i where i.email = c.email)
+                on conflict do nothing
+                returning line_no
+            )
+            select (select count(*) from inserted) as imported, (select count(*) from rejected) as rejected
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record VoterImport(Long id, String format, String status, long rowsRead, long rowsImported,
+                              long rowsRejected, String failure, Instant startedAt, Instant finishedAt) {
+    }
+
+    public record RowError(long lineNo, String error) {
+    }
+
+    public record MergeResult(long imported, long rejected) {
+    }
+
+    public long create(String format) {
+        return jdbcTemplate.queryForObject(
+                "insert into voter_imports (format, status) values (?, 'RUNNING') returning id", Long.class, format);
+    }
+
+    public Optional<VoterImport> find(long importId) {
+        return jdbcTemplate.query("select * from voter_imports where id = ?", (rs, i) -> new VoterImport(
+                        rs.getLong("id"), rs.getString("format"), rs.getString("status"), rs.getLong("rows_read"),
+                        rs.getLong("rows_imported"), rs.getLong("rows_rejected"), rs.getString("failure"),
+                        toInstant(rs.getTimestamp("started_at")), toInstant(rs.getTimestamp("finished_at"))), importId)
+                .stream().findFirst();
+    }
+
+    public void updateProgress(long importId, long rowsRead, long rowsRejected) {
+        jdbcTemplate.update("update voter_imports set rows_read = ?, rows_rejected = ? where id = ?",
+                rowsRead, rowsRejected, importId);
+    }
+
+    public void complete(long importId, long rowsImported, long rowsRejected) {
+        jdbcTemplate.update("""
+                update voter_imports set status = 'COMPLETED', rows_imported = ?, rows_rejected = ?, finished_at = now()
+                where id = ?
+                """, rowsImported, rowsRejected, importId);
+    }
+
+    public void fail(long importId, String failure) {
+        jdbcTemplate.update("update voter_imports set status = 'FAILED', failure = ?, finished_at = now() where id = ?",
+                failure, importId);
+    }
+
+    /**
+     * Loads rows already encoded as {@code COPY ... (format csv)} input in a single round-trip.
+     */
+    public long copyRows(String csv) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try {
+                return con.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_ROWS, new StringReader(csv));
+            } catch (IOException e) {
+                throw new DataAccessResourceFailureException("COPY into voter_import_rows failed", e);
+            }
+        });
+    }
+
+    public void insertErrors(long importId, List<RowError> errors) {
+        jdbcTemplate.batchUpdate("insert into voter_import_errors (import_id, line_no, error) values (?, ?, ?)",
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ps.setLong(1, importId);
+                        ps.setLong(2, errors.get(i).lineNo());
+                        ps.setString(3, errors.get(i).error());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return errors.size();
+                    }
+                });
+    }
+
+    public MergeResult merge(long importId) {
+        return jdbcTemplate.queryForObject(MERGE,
+                (rs, i) -> new MergeResult(rs.getLong("imported"), rs.getLong("rejected")), importId, importId);
+    }
+
+    public void deleteRows(long importId) {
+        jdbcTemplate.update("delete from voter_import_rows where import_id = ?", importId);
+    }
+
+    /**
+     * Streams the import's rejected rows in line order through a server-side cursor.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.REQUIRES_NEW)
+    public void forEachError(long importId, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(
+                    "select line_no, error from voter_import_errors where import_id = ? order by line_no");
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            ps.setLong(1, importId);
+            return ps;
+        }, handler);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+}
@@ -1,10 +1,15 @@
 package pl.budziosz.votingsystem.repository;
 
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import pl.budziosz.votingsystem.model.domain.Voter;
 
 public interface VoterRepository extends JpaRepository<Voter, Long> {
     Optional<Voter> findByEmail(String email);
     boolean existsByPeselHash(String peselHash);
+
+    // Keyset page: a range scan of the primary key, however deep the page is.
+    List<Voter> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
\ No newline at end of file
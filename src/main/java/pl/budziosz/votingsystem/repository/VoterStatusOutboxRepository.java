@@ -0,0 +1,48 @@
+package pl.budziosz.votingsystem.repository;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class VoterStatusOutboxRepository {
+
+    private static final String SAVE =
+            "insert into voter_status_outbox (voter_id, blocked, changed_at) values (?, ?, now()) " +
+            "on conflict (voter_id) do update set blocked = excluded.blocked, changed_at = excluded.changed_at";
+
+    // Rows being published by another node are skipped; one of an open admin transaction is not visible yet.
+    private static final String LOCK_PENDING =
+            "select voter_id, blocked from voter_status_outbox order by voter_id limit ? for update skip locked";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * A pending change; {@code blocked} is null for a deleted voter.
+     */
+    public record VoterStatusChange(long voterId, Boolean blocked) {
+    }
+
+    /**
+     * Records the voter's latest status, replacing a change of the voter that has not been published yet.
+     */
+    public void save(long voterId, Boolean blocked) {
+        jdbcTemplate.update(SAVE, voterId, blocked);
+    }
+
+    /**
+     * Locks up to {@code limit} pending changes until the transaction ends. Must run in a transaction: an admin
+     * change of a locked voter waits for it, so a newer status is never published before an older one.
+     */
+    public List<VoterStatusChange> lockPending(int limit) {
+        return jdbcTemplate.query(LOCK_PENDING,
+                (rs, i) -> new VoterStatusChange(rs.getLong(1), (Boolean) rs.getObject(2)), limit);
+    }
+
+    public void delete(List<VoterStatusChange> changes) {
+        jdbcTemplate.batchUpdate("delete from voter_status_outbox where voter_id = ?",
+                changes.stream().map(c -> new Object[]{c.voterId()}).toList());
+    }
+}
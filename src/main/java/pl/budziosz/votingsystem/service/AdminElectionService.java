@@ -3,22 +3,42 @@ package pl.budziosz.votingsystem.service;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.cache.ActiveElectionSchedule;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.ReferenceDataCache;
+import pl.budziosz.votingsystem.cache.RowCountEstimates;
+import pl.budziosz.votingsystem.cache.VoteTally;
+import pl.budziosz.votingsystem.cache.VotedIndex;
 import pl.budziosz.votingsystem.model.domain.Election;
 import pl.budziosz.votingsystem.model.domain.ElectionOption;
+import pl.budziosz.votingsystem.model.dto.CursorPageDtos.CursorPage;
 import pl.budziosz.votingsystem.model.dto.ElectionDtos.ElectionUpsertDto;
 import pl.budziosz.votingsystem.model.dto.ElectionOptionDtos.ElectionOptionUpsertDto;
+import pl.budziosz.votingsystem.model.dto.ElectionResultsDtos.OptionResult;
 import pl.budziosz.votingsystem.repository.ElectionOptionRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
 import pl.budziosz.votingsystem.repository.ElectionRepository;
+import pl.budziosz.votingsystem.repository.ElectionResultsSnapshotRepository.ResultsSnapshot;
+import pl.budziosz.votingsystem.repository.VotePartitionRepository;
 import pl.budziosz.votingsystem.repository.VoteRepository;
+import pl.budziosz.votingsystem.utils.AfterCommit;
+import pl.budziosz.votingsystem.utils.KeysetCursor;
 import pl.budziosz.votingsystem.validators.ElectionValidator;
 
+import java.time.Instant;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -28,12 +48,31 @@ public class AdminElectionService {
     private final ElectionRepository electionRepository;
     private final ElectionOptionRepository optionRepository;
     private final VoteRepository voteRepository;
+    private final VotePartitionRepository votePartitionRepository;
+    private final ElectionOptionTallyRepository tallyRepository;
     private final ElectionValidator electionValidator;
+    private final VotedIndex votedIndex;
+    private final ReferenceDataCache referenceDataCache;
+    private final VoteTally voteTally;
+    private final ResultsSnapshotService resultsSnapshotService;
+    private final ActiveElectionSchedule activeElectionSchedule;
+    private final RowCountEstimates rowCountEstimates;
+    private final TransactionTemplate transactionTemplate;
 
     public Page<Election> listAll(@ParameterObject Pageable pageable) {
         return electionRepository.findAll(pageable);
     }
 
+    /**
+     * Keyset listing in id order: every page costs the same however deep it is, and no {@code count(*)} is run.
+     */
+    public CursorPage<Election> scroll(String cursor, int size, boolean withTotal) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<Election> rows = electionRepository.findByIdGreaterThanOrderByIdAsc(KeysetCursor.decode(cursor), Limit.of(pageSize + 1));
+        return KeysetCursor.page(rows, pageSize, Election::getId,
+                withTotal ? rowCountEstimates.estimate(RowCountEstimates.ELECTIONS) : null);
+    }
+
     public Election get(Long id) {
         return electionRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Election not found"));
@@ -44,7 +83,9 @@ public class AdminElectionService {
         electionValidator.validateDates(dto.startsAt(), dto.endsAt());
         Election e = new Election();
         apply(e, dto);
-        return electionRepository.save(e);
+        Election saved = electionRepository.save(e);
+        AfterCommit.run(activeElectionSchedule::reload);
+        return saved;
     }
 
     @Transactional
@@ -52,16 +93,37 @@ public class AdminElectionService {
         electionValidator.validateDates(dto.startsAt(), dto.endsAt());
         Election e = electionRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Election not found"));
+        boolean datesChanged = !Objects.equals(e.getStartsAt(), dto.startsAt()) || !Objects.equals(e.getEndsAt(), dto.endsAt());
         apply(e, dto);
-        return electionRepository.save(e);
+        Election saved = electionRepository.save(e);
+        if (datesChanged) {
+            discardSnapshot(id);
+        }
+        evictAfterCommit(id);
+        AfterCommit.run(activeElectionSchedule::reload);
+        return saved;
     }
 
-    @Transactional
+    /**
+     * Detaches the election's votes partition before the transaction that drops it and deletes the election, so
+     * that no lock on {@code votes} is held while the delete runs.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void delete(Long id) {
         if (!electionRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Election not found");
         }
-        electionRepository.deleteById(id);
+        votePartitionRepository.detachElectionPartition(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            votePartitionRepository.dropElectionPartition(id);
+            electionRepository.deleteById(id);
+            votedIndex.evictElection(id);
+            voteTally.evictElection(id);
+            evictAfterCommit(id);
+            AfterCommit.run(referenceDataCache::evictAllOptions);
+            AfterCommit.run(() -> resultsSnapshotService.evict(id));
+            AfterCommit.run(activeElectionSchedule::reload);
+        });
     }
 
     public List<ElectionOption> listOptions(Long electionId) {
@@ -77,7 +139,9 @@ public class AdminElectionService {
         ElectionOption opt = new ElectionOption();
         opt.setElection(election);
         opt.setLabel(dto.label());
-        return optionRepository.save(opt);
+        ElectionOption saved = optionRepository.save(opt);
+        evictAfterCommit(electionId);
+        return saved;
     }
 
     @Transactional
@@ -87,7 +151,9 @@ public class AdminElectionService {
         electionValidator.ensureOptionBelongs(opt, electionId);
         electionValidator.ensureOptionLabelUniqueForUpdate(electionId, dto.label(), opt.getLabel());
         opt.setLabel(dto.label());
-        return optionRepository.save(opt);
+        ElectionOption saved = optionRepository.save(opt);
+        evictAfterCommit(electionId, optionId);
+        return saved;
     }
 
     @Transactional
@@ -96,11 +162,69 @@ public class AdminElectionService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Option not found"));
         electionValidator.ensureOptionBelongs(opt, electionId);
         optionRepository.deleteById(optionId);
+        votedIndex.reloadElection(electionId);
+        voteTally.evictOption(electionId, optionId);
+        discardSnapshot(electionId);
+        evictAfterCommit(electionId, optionId);
     }
 
-    public java.util.List<VoteRepository.OptionCount> getResults(Long electionId) {
+    /**
+     * Reads the in-memory tally in O(options) once it is seeded; counts in SQL before that.
+     */
+    public List<OptionResult> getResults(Long electionId) {
         electionValidator.ensureElectionExists(electionId);
-        return voteRepository.countResultsByElection(electionId);
+        if (!voteTally.isReady()) {
+            return countResults(electionId);
+        }
+        List<OptionMetadata> options = referenceDataCache.findOptions(electionId);
+        return options.stream()
+                .sorted(Comparator.comparing(OptionMetadata::id))
+                .map(o -> new OptionResult(o.id(), o.label(), voteTally.count(electionId, o.id())))
+                .toList();
+    }
+
+    /**
+     * The frozen results of an election that has ended and been finalized. Open elections never look up a snapshot.
+     */
+    public Optional<ResultsSnapshot> findFinalResults(Long electionId) {
+        return referenceDataCache.findElectionMetadata(electionId)
+                .filter(e -> e.endsAt().isBefore(Instant.now()))
+                .flatMap(e -> resultsSnapshotService.find(electionId));
+    }
+
+    /**
+     * Recomputes the election's {@code election_option_tallies} rows from {@code votes}, e.g. after votes were
+     * written or removed outside the ingest path.
+     */
+    @Transactional
+    public List<OptionResult> rebuildResults(Long electionId) {
+        electionValidator.ensureElectionExists(electionId);
+        tallyRepository.rebuild(electionId);
+        discardSnapshot(electionId);
+        AfterCommit.run(voteTally::reconcile);
+        return countResults(electionId);
+    }
+
+    private List<OptionResult> countResults(Long electionId) {
+        return voteRepository.countResultsByElection(electionId).stream()
+                .map(c -> new OptionResult(c.getOptionId(), c.getLabel(), c.getVotes()))
+                .toList();
+    }
+
+    private void discardSnapshot(Long electionId) {
+        resultsSnapshotService.discard(electionId);
+        AfterCommit.run(() -> resultsSnapshotService.evict(electionId));
+    }
+
+    private void evictAfterCommit(Long electionId) {
+        AfterCommit.run(() -> referenceDataCache.evictElection(electionId));
+    }
+
+    private void evictAfterCommit(Long electionId, Long optionId) {
+        AfterCommit.run(() -> {
+            referenceDataCache.evictElection(electionId);
+            referenceDataCache.evictOption(optionId);
+        });
     }
 
     private void apply(Election e, ElectionUpsertDto dto) {
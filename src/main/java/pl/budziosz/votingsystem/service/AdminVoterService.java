@@ -1,17 +1,24 @@
 package pl.budziosz.votingsystem.service;
 
 import jakarta.validation.Valid;
+import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.cache.RowCountEstimates;
+import pl.budziosz.votingsystem.kafka.VoterStatusPublisher;
 import pl.budziosz.votingsystem.model.domain.Voter;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
 import pl.budziosz.votingsystem.repository.VoterRepository;
+import pl.budziosz.votingsystem.model.dto.CursorPageDtos.CursorPage;
 import pl.budziosz.votingsystem.model.dto.VoterDtos.VoterUpsertDto;
+import pl.budziosz.votingsystem.utils.KeysetCursor;
 import pl.budziosz.votingsystem.utils.PeselHasher;
 import pl.budziosz.votingsystem.validators.VoterValidator;
 
@@ -23,11 +30,24 @@ public class AdminVoterService {
     private final PeselHasher peselHasher;
     private final VoterRepository voterRepository;
     private final VoterValidator voterValidator;
+    private final VoterStatusPublisher voterStatusPublisher;
+    private final RowCountEstimates rowCountEstimates;
+    private final ElectionOptionTallyRepository tallyRepository;
 
     public Page<Voter> listAll(@ParameterObject Pageable pageable) {
         return voterRepository.findAll(pageable);
     }
 
+    /**
+     * Keyset listing in id order: every page costs the same however deep it is, and no {@code count(*)} is run.
+     */
+    public CursorPage<Voter> scroll(String cursor, int size, boolean withTotal) {
+        int pageSize = KeysetCursor.pageSize(size);
+        List<Voter> rows = voterRepository.findByIdGreaterThanOrderByIdAsc(KeysetCursor.decode(cursor), Limit.of(pageSize + 1));
+        return KeysetCursor.page(rows, pageSize, Voter::getId,
+                withTotal ? rowCountEstimates.estimate(RowCountEstimates.VOTERS) : null);
+    }
+
     public Voter get(Long id) {
         return voterRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Voter not found"));
@@ -40,7 +60,7 @@ public class AdminVoterService {
         voterValidator.ensureUniquePeselHashExceptCurrent(peselHash, null);
         Voter v = new Voter();
         apply(v, dto, peselHash);
-        return voterRepository.save(v);
+        return saveAndPublish(v);
     }
 
     @Transactional
@@ -51,7 +71,7 @@ public class AdminVoterService {
         String peselHash = peselHasher.hash(dto.pesel());
         voterValidator.ensureUniquePeselHashExceptCurrent(dto.pesel(), v.getPeselHash());
         apply(v, dto, peselHash);
-        return voterRepository.save(v);
+        return saveAndPublish(v);
     }
 
     @Transactional
@@ -59,7 +79,10 @@ public class AdminVoterService {
         if (!voterRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Voter not found");
         }
+        // The voter's votes are removed by cascade, which the tallies do not follow on their own.
+        tallyRepository.removeVoterVotes(id);
         voterRepository.deleteById(id);
+        voterStatusPublisher.publishDeleted(id);
     }
 
     @Transactional
@@ -67,7 +90,7 @@ public class AdminVoterService {
         Voter v = voterRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Voter not found"));
         v.setBlocked(true);
-        return voterRepository.save(v);
+        return saveAndPublish(v);
     }
 
     @Transactional
@@ -75,7 +98,13 @@ public class AdminVoterService {
         Voter v = voterRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Voter not found"));
         v.setBlocked(false);
-        return voterRepository.save(v);
+        return saveAndPublish(v);
+    }
+
+    private Voter saveAndPublish(Voter v) {
+        Voter saved = voterRepository.save(v);
+        voterStatusPublisher.publish(saved);
+        return saved;
     }
 
     private void apply(Voter v, VoterUpsertDto dto, String peselHash) {
@@ -0,0 +1,217 @@
+package pl.budziosz.votingsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.budziosz.votingsystem.model.dto.ElectionResultsDtos.ElectionResults;
+import pl.budziosz.votingsystem.model.dto.ElectionResultsDtos.OptionResult;
+
+/**
+ * Pushes election results to Server-Sent Events subscribers. Results are read once per tick for each election that
+ * has subscribers and, only when they changed, serialized once and queued to every subscriber. Each subscriber
+ * has a bounded queue drained on its own virtual thread; one that falls {@code max-pending} frames behind is dropped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveResultsService {
+
+    static final String EVENT_NAME = "results";
+
+    private final AdminElectionService electionService;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Long, Stream> streams = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private Counter dropped;
+
+    @Value("${app.voting.results-stream.timeout:30m}")
+    private Duration timeout;
+
+    @Value("${app.voting.results-stream.max-pending:8}")
+    private int maxPending;
+
+    @PostConstruct
+    void registerMeters() {
+        dropped = meterRegistry.counter("results.stream.dropped");
+        meterRegistry.gauge("results.stream.subscribers", streams,
+                s -> s.values().stream().mapToInt(stream -> stream.subscribers.size()).sum());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        streams.values().forEach(stream -> stream.subscribers.forEach(Subscriber::close));
+        senders.shutdownNow();
+    }
+
+    /**
+     * Opens a stream that starts with the latest results and then receives every change.
+     */
+    public SseEmitter subscribe(Long electionId) {
+        List<OptionResult> current = electionService.getResults(electionId);
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        register(electionId, emitter, current);
+        return emitter;
+    }
+
+    void register(Long electionId, SseEmitter emitter, List<OptionResult> current) {
+        Subscriber subscriber = new Subscriber(electionId, emitter);
+        emitter.onCompletion(subscriber::unsubscribe);
+        emitter.onTimeout(subscriber::unsubscribe);
+        emitter.onError(e -> subscriber.unsubscribe());
+        while (true) {
+            Stream stream = streams.computeIfAbsent(electionId, id -> new Stream());
+            stream.lock.lock();
+            try {
+                if (stream.closed) {
+                    continue;
+                }
+                if (stream.last == null) {
+                    stream.last = frame(electionId, 1, current);
+                }
+                stream.subscribers.add(subscriber);
+                subscriber.offer(stream.last);
+                return;
+            } finally {
+                stream.lock.unlock();
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.voting.results-stream.tick-ms:500}")
+    public void tick() {
+        streams.forEach((electionId, stream) -> {
+            List<OptionResult> results;
+            try {
+                results = stream.subscribers.isEmpty() ? null : electionService.getResults(electionId);
+            } catch (ResponseStatusException e) {
+                // The election was deleted.
+                stream.subscribers.forEach(Subscriber::close);
+                results = null;
+            }
+            stream.lock.lock();
+            try {
+                if (stream.subscribers.isEmpty()) {
+                    stream.closed = true;
+                    streams.remove(electionId, stream);
+                    return;
+                }
+                if (results == null || stream.last.results.equals(results)) {
+                    return;
+                }
+                Frame frame = frame(electionId, stream.last.version + 1, results);
+                stream.last = frame;
+                stream.subscribers.forEach(s -> s.offer(frame));
+            } finally {
+                stream.lock.unlock();
+            }
+        });
+    }
+
+    private Frame frame(Long electionId, long version, List<OptionResult> results) {
+        try {
+            String json = objectMapper.writeValueAsString(new ElectionResults(electionId, results));
+            Set<DataWithMediaType> event = SseEmitter.event()
+                    .id(Long.toString(version))
+                    .name(EVENT_NAME)
+                    .data(json, MediaType.APPLICATION_JSON)
+                    .build();
+            return new Frame(version, results, event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize results of election " + electionId, e);
+        }
+    }
+
+    private record Frame(long version, List<OptionResult> results, Set<DataWithMediaType> event) {
+    }
+
+    private static class Stream {
+        final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        // Not a monitor: subscribe runs on request threads, possibly virtual, and closing a lagging subscriber
+        // completes its emitter while the lock is held.
+        final ReentrantLock lock = new ReentrantLock();
+        // Guarded by lock.
+        Frame last;
+        boolean closed;
+    }
+
+    private class Subscriber {
+        final Long electionId;
+        final SseEmitter emitter;
+        final BlockingQueue<Frame> pending = new ArrayBlockingQueue<>(maxPending);
+        final AtomicBoolean sending = new AtomicBoolean();
+
+        Subscriber(Long electionId, SseEmitter emitter) {
+            this.electionId = electionId;
+            this.emitter = emitter;
+        }
+
+        void offer(Frame frame) {
+            if (!pending.offer(frame)) {
+                dropped.increment();
+                log.debug("Dropping a results subscriber of election {}, {} frames behind", electionId, maxPending);
+                close();
+                return;
+            }
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void close() {
+            unsubscribe();
+            pending.clear();
+            emitter.complete();
+        }
+
+        void unsubscribe() {
+            Stream stream = streams.get(electionId);
+            if (stream != null) {
+                stream.subscribers.remove(this);
+            }
+        }
+
+        private void drain() {
+            do {
+                Frame frame;
+                while ((frame = pending.poll()) != null) {
+                    try {
+                        emitter.send(frame.event);
+                    } catch (IOException | IllegalStateException e) {
+                        // The client went away or the subscriber was dropped.
+                        unsubscribe();
+                        pending.clear();
+                        return;
+                    }
+                }
+                sending.set(false);
+            } while (!pending.isEmpty() && sending.compareAndSet(false, true));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package pl.budziosz.votingsystem.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.budziosz.votingsystem.repository.ProcessedEventPartitionRepository;
+
+import static pl.budziosz.votingsystem.repository.ProcessedEventPartitionRepository.PARTITION_PREFIX;
+import static pl.budziosz.votingsystem.repository.ProcessedEventPartitionRepository.PARTITION_SUFFIX;
+
+/**
+ * Keeps daily processed_events partitions created ahead of time and drops those past the dedup horizon.
+ * Events requested before the horizon can no longer be deduplicated by id, so they are rejected outright.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProcessedEventRetentionService {
+
+    private final ProcessedEventPartitionRepository partitionRepository;
+
+    @Value("${app.processed-events.dedup-horizon:7d}")
+    private Duration dedupHorizon;
+
+    @Value("${app.processed-events.partitions-ahead:3}")
+    private int partitionsAhead;
+
+    public boolean isExpired(Instant requestedAt) {
+        return requestedAt.isBefore(Instant.now().minus(dedupHorizon));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.processed-events.maintenance-cron:0 5 * * * *}")
+    @Transactional
+    public void maintainPartitions() {
+        if (!partitionRepository.tryLockMaintenance()) {
+            log.debug("processed_events maintenance already running on another node");
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            partitionRepository.createDailyPartition(today.plusDays(i));
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(dedupHorizon);
+        for (String partition : partitionRepository.listPartitions()) {
+            LocalDate day = partitionDay(partition);
+            if (day != null && !day.plusDays(1).atStartOfDay().isAfter(cutoff)) {
+                partitionRepository.dropPartition(partition);
+                log.info("Dropped processed_events partition {} (dedup horizon {})", partition, dedupHorizon);
+            }
+        }
+        int stragglers = partitionRepository.deleteFromDefaultPartitionBefore(cutoff);
+        if (stragglers > 0) {
+            log.info("Removed {} expired rows from the default processed_events partition", stragglers);
+        }
+    }
+
+    private static LocalDate partitionDay(String partition) {
+        try {
+            return LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package pl.budziosz.votingsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import pl.budziosz.votingsystem.kafka.VoteConsumerProgress;
+import pl.budziosz.votingsystem.model.dto.ElectionResultsDtos.OptionResult;
+import pl.budziosz.votingsystem.repository.ElectionResultsSnapshotRepository;
+import pl.budziosz.votingsystem.repository.ElectionResultsSnapshotRepository.ClosedElection;
+import pl.budziosz.votingsystem.repository.ElectionResultsSnapshotRepository.ResultsSnapshot;
+import pl.budziosz.votingsystem.repository.VoteRepository;
+
+/**
+ * Freezes the results of closed elections. Once an election has ended and the vote consumers committed past every
+ * event sent before {@code endsAt + grace}, its results are written once to {@code election_results_snapshots}
+ * and served from there with a strong ETag.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResultsSnapshotService {
+
+    public static final String RESULTS_SNAPSHOTS = "results-snapshots";
+
+    private final ElectionResultsSnapshotRepository snapshotRepository;
+    private final VoteRepository voteRepository;
+    private final VoteConsumerProgress consumerProgress;
+    private final ObjectMapper objectMapper;
+
+    // Covers the time between a vote being accepted at the edge and its event being sent, and clock skew.
+    @Value("${app.voting.results-snapshot.grace:1m}")
+    private Duration grace;
+
+    @Cacheable(cacheNames = RESULTS_SNAPSHOTS, unless = "#result == null")
+    @Transactional(readOnly = true)
+    public Optional<ResultsSnapshot> find(Long electionId) {
+        return snapshotRepository.find(electionId);
+    }
+
+    @CacheEvict(cacheNames = RESULTS_SNAPSHOTS)
+    public void evict(Long electionId) {
+    }
+
+    /**
+     * Drops the election's snapshot, e.g. because its votes or dates changed; it is finalized again later.
+     */
+    @Transactional
+    public void discard(Long electionId) {
+        if (snapshotRepository.delete(electionId)) {
+            log.info("Discarded finalized results of election {}", electionId);
+        }
+    }
+
+    @Scheduled(cron = "${app.voting.results-snapshot.finalize-cron:15 * * * * *}")
+    @Transactional
+    public void finalizeClosedElections() {
+        if (!snapshotRepository.tryLockFinalization()) {
+            log.debug("Results finalization already running on another node");
+            return;
+        }
+        for (ClosedElection election : snapshotRepository.findClosedWithoutSnapshot(Instant.now().minus(grace))) {
+            // Ordered by endsAt: a later election cannot be drained while an earlier one is not.
+            if (!consumerProgress.processedAllSentBefore(election.endsAt().plus(grace))) {
+                log.info("Election {} ended but vote events sent before it closed are still being processed",
+                        election.electionId());
+                return;
+            }
+            ResultsSnapshot snapshot = snapshot(election.electionId());
+            if (snapshotRepository.insert(snapshot)) {
+                log.info("Finalized results of election {} (etag {})", election.electionId(), snapshot.etag());
+            }
+        }
+    }
+
+    private ResultsSnapshot snapshot(Long electionId) {
+        List<OptionResult> results = voteRepository.countResultsByElection(electionId).stream()
+                .map(c -> new OptionResult(c.getOptionId(), c.getLabel(), c.getVotes()))
+                .toList();
+        try {
+            String json = objectMapper.writeValueAsString(results);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json.getBytes(StandardCharsets.UTF_8));
+            return new ResultsSnapshot(electionId, json, HexFormat.of().formatHex(digest));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Cannot snapshot results of election " + electionId, e);
+        }
+    }
+}
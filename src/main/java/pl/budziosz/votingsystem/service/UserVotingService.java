@@ -7,10 +7,13 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.ReferenceDataCache;
 import pl.budziosz.votingsystem.model.domain.Election;
-import pl.budziosz.votingsystem.model.domain.ElectionOption;
-import pl.budziosz.votingsystem.repository.ElectionOptionRepository;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
 import pl.budziosz.votingsystem.repository.ElectionRepository;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics.Source;
 import pl.budziosz.votingsystem.validators.ElectionValidator;
 
 @Service
@@ -19,20 +22,33 @@ import pl.budziosz.votingsystem.validators.ElectionValidator;
 public class UserVotingService {
 
     private final ElectionRepository electionRepository;
-    private final ElectionOptionRepository optionRepository;
     private final ElectionValidator electionValidator;
+    private final ReferenceDataCache referenceDataCache;
+    private final VotePipelineMetrics pipelineMetrics;
 
     public List<Election> listActive(Instant now) {
         return electionRepository.findActive(now);
     }
 
-    public List<ElectionOption> listOptions(Long electionId) {
+    public List<OptionMetadata> listOptions(Long electionId) {
         electionValidator.ensureElectionExists(electionId);
-        return optionRepository.findByElectionId(electionId);
+        return referenceDataCache.findOptions(electionId);
     }
 
-    public Election getElection(Long electionId) {
-        return electionRepository.findById(electionId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Election not found"));
+    public ElectionMetadata requireVotable(Long electionId, Long optionId, Instant at) {
+        ElectionMetadata election = referenceDataCache.findElectionMetadata(electionId).orElse(null);
+        if (election == null) {
+            pipelineMetrics.rejected(Source.HTTP, RejectionReason.ELECTION_NOT_FOUND);
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Election not found");
+        }
+        if (!election.isOpenAt(at)) {
+            pipelineMetrics.rejected(Source.HTTP, RejectionReason.OUTSIDE_WINDOW);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Vote outside election window");
+        }
+        if (!election.hasOption(optionId)) {
+            pipelineMetrics.rejected(Source.HTTP, RejectionReason.OPTION_MISMATCH);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Option does not belong to the election");
+        }
+        return election;
     }
 }
@@ -0,0 +1,41 @@
+package pl.budziosz.votingsystem.service;
+
+import java.util.Locale;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+public enum VoteExportFormat {
+    /**
+     * {@code text/csv}: a header line, then one row per line.
+     */
+    CSV("text/csv", "csv"),
+    /**
+     * {@code application/x-ndjson}: one JSON object per line.
+     */
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final MediaType mediaType;
+    private final String extension;
+
+    VoteExportFormat(String mediaType, String extension) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+        this.extension = extension;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static VoteExportFormat of(String name) {
+        try {
+            return valueOf(name.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Votes can be exported as csv or ndjson");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package pl.budziosz.votingsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.zip.GZIPOutputStream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import pl.budziosz.votingsystem.repository.VoteExportRepository;
+import pl.budziosz.votingsystem.validators.ElectionValidator;
+
+/**
+ * Exports an election's raw votes and per-option counts for audit. Rows go from the JDBC cursor straight into a
+ * buffered writer over the response stream, optionally gzipped, so heap use does not depend on the number of votes.
+ * The election is checked before anything is written, so a missing one still gets a 404.
+ */
+@Service
+@RequiredArgsConstructor
+public class VoteExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final VoteExportRepository exportRepository;
+    private final ElectionValidator electionValidator;
+    private final ObjectMapper objectMapper;
+
+    public void ensureExportable(Long electionId) {
+        electionValidator.ensureElectionExists(electionId);
+    }
+
+    /**
+     * Writes {@code voter_id,option_id,created_at} (CSV) or {@code {"voterId","optionId","createdAt"}} (NDJSON) per vote,
+     * in the order the votes were stored.
+     */
+    public void writeVotes(long electionId, VoteExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        write(out, gzip, writer -> {
+            if (format == VoteExportFormat.CSV) {
+                writer.write("voter_id,option_id,created_at\n");
+            }
+            exportRepository.forEachVote(electionId, rs -> writeVote(writer, format, rs));
+        });
+    }
+
+    /**
+     * Writes {@code option_id,label,votes} (CSV) or {@code {"optionId","label","votes"}} (NDJSON) per option, counted
+     * from the votes.
+     */
+    public void writeResults(long electionId, VoteExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        write(out, gzip, writer -> {
+            if (format == VoteExportFormat.CSV) {
+                writer.write("option_id,label,votes\n");
+            }
+            exportRepository.forEachOptionCount(electionId, rs -> writeOptionCount(writer, format, rs));
+        });
+    }
+
+    private void write(OutputStream out, boolean gzip, Body body) throws IOException {
+        GZIPOutputStream gzipped = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzip ? gzipped : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        try {
+            body.write(writer);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor and its transaction are already closed.
+            throw e.getCause();
+        }
+        writer.flush();
+        if (gzipped != null) {
+            gzipped.finish();
+        }
+    }
+
+    private static void writeVote(Writer writer, VoteExportFormat format, ResultSet rs) throws SQLException {
+        try {
+            String createdAt = rs.getTimestamp(3).toInstant().toString();
+            if (format == VoteExportFormat.CSV) {
+                writer.write(Long.toString(rs.getLong(1)));
+                writer.write(',');
+                writer.write(Long.toString(rs.getLong(2)));
+                writer.write(',');
+                writer.write(createdAt);
+                writer.write('\n');
+            } else {
+                writer.write("{\"voterId\":");
+                writer.write(Long.toString(rs.getLong(1)));
+                writer.write(",\"optionId\":");
+                writer.write(Long.toString(rs.getLong(2)));
+                writer.write(",\"createdAt\":\"");
+                writer.write(createdAt);
+                writer.write("\"}\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeOptionCount(Writer writer, VoteExportFormat format, ResultSet rs) throws SQLException {
+        try {
+            String label = rs.getString(2);
+            if (format == VoteExportFormat.CSV) {
+                writer.write(rs.getLong(1) + "," + csvField(label) + "," + rs.getLong(3) + "\n");
+            } else {
+                writer.write("{\"optionId\":" + rs.getLong(1) + ",\"label\":" + jsonString(label)
+                        + ",\"votes\":" + rs.getLong(3) + "}\n");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String jsonString(String value) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(value);
+    }
+
+    private static String csvField(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        void write(Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,12 @@
+package pl.budziosz.votingsystem.service;
+
+public enum VoteIngestMode {
+    /**
+     * Loads election, voter and option through JPA and validates them in {@link pl.budziosz.votingsystem.validators.VotingValidator}.
+     */
+    JPA,
+    /**
+     * Validates and inserts the vote with a single {@code INSERT ... SELECT ... ON CONFLICT DO NOTHING} statement.
+     */
+    NATIVE
+}
@@ -0,0 +1,103 @@
+package pl.budziosz.votingsystem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
+
+/**
+ * Meters of the vote pipeline, all registered up front so the hot path only touches pre-built timers and counters:
+ * <ul>
+ *     <li>{@code votes.ingest.stage} (timer, {@code stage}): time spent in each step of storing a vote; in batch mode
+ *     one sample per poll,</li>
+ *     <li>{@code votes.ingest.dedup.hits} (counter): redelivered events skipped by their event id,</li>
+ *     <li>{@code votes.rejected} (counter, {@code source}, {@code reason}): votes refused at the HTTP edge or by the
+ *     consumer, including duplicates of an already stored vote.</li>
+ * </ul>
+ * Tags only take values from the enums below, never ids.
+ */
+@Component
+public class VotePipelineMetrics {
+
+    public enum Stage {
+        DEDUP_INSERT,
+        // Election and option, read together.
+        REFERENCE_LOOKUP,
+        VOTER_LOOKUP,
+        VALIDATION,
+        VOTE_INSERT,
+        TALLY_UPDATE,
+        // Native ingest mode: dedup insert, lookups, validation and vote insert in one statement.
+        CHECKED_INSERT
+    }
+
+    public enum Source {
+        HTTP,
+        CONSUMER
+    }
+
+    static final String DUPLICATE = "duplicate";
+
+    private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+    private final Map<Source, Map<RejectionReason, Counter>> rejections = new EnumMap<>(Source.class);
+    private final Map<Source, Counter> duplicates = new EnumMap<>(Source.class);
+    private final Counter dedupHits;
+
+    public VotePipelineMetrics(MeterRegistry meterRegistry) {
+        for (Stage stage : Stage.values()) {
+            stages.put(stage, meterRegistry.timer("votes.ingest.stage", "stage", tag(stage)));
+        }
+        for (Source source : Source.values()) {
+            Map<RejectionReason, Counter> byReason = new EnumMap<>(RejectionReason.class);
+            for (RejectionReason reason : RejectionReason.values()) {
+                byReason.put(reason, meterRegistry.counter("votes.rejected", "source", tag(source), "reason", tag(reason)));
+            }
+            rejections.put(source, byReason);
+            duplicates.put(source, meterRegistry.counter("votes.rejected", "source", tag(source), "reason", DUPLICATE));
+        }
+        dedupHits = meterRegistry.counter("votes.ingest.dedup.hits");
+    }
+
+    /**
+     * Records the time since {@code startedNanos} (a {@link System#nanoTime()} value) and returns the current
+     * {@code nanoTime}, so consecutive stages can be chained.
+     */
+    public long stage(Stage stage, long startedNanos) {
+        long now = System.nanoTime();
+        record(stage, now - startedNanos);
+        return now;
+    }
+
+    public void record(Stage stage, long nanos) {
+        stages.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void dedupHit() {
+        dedupHits.increment();
+    }
+
+    public void duplicate(Source source) {
+        duplicates.get(source).increment();
+    }
+
+    public void rejected(Source source, RejectionReason reason) {
+        rejections.get(source).get(reason).increment();
+    }
+
+    static String tag(RejectionReason reason) {
+        return switch (reason) {
+            case OUTSIDE_WINDOW -> "window";
+            case VOTER_BLOCKED -> "blocked";
+            default -> reason.name().toLowerCase(Locale.ROOT);
+        };
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
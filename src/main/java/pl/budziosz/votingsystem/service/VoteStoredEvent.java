@@ -0,0 +1,7 @@
+package pl.budziosz.votingsystem.service;
+
+public record VoteStoredEvent(
+        Long electionId,
+        Long voterId,
+        Long optionId
+) {}
@@ -0,0 +1,32 @@
+package pl.budziosz.votingsystem.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+public enum VoterImportFormat {
+    /**
+     * {@code text/csv}: a header line naming the {@code email}, {@code full_name}, {@code pesel} and optional
+     * {@code blocked} columns, then one voter per line. Quoted fields may not span lines.
+     */
+    CSV("text/csv"),
+    /**
+     * {@code application/x-ndjson}: one JSON object per line with the fields of a voter create request.
+     */
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    VoterImportFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public static VoterImportFormat of(MediaType contentType) {
+        for (VoterImportFormat format : values()) {
+            if (format.mediaType.equalsTypeAndSubtype(contentType)) {
+                return format;
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Voters can be imported from text/csv or application/x-ndjson");
+    }
+}
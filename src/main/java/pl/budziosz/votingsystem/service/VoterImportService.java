@@ -0,0 +1,252 @@
+package pl.budziosz.votingsystem.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.model.dto.VoterDtos.VoterUpsertDto;
+import pl.budziosz.votingsystem.repository.VoterImportRepository;
+import pl.budziosz.votingsystem.repository.VoterImportRepository.MergeResult;
+import pl.budziosz.votingsystem.repository.VoterImportRepository.RowError;
+import pl.budziosz.votingsystem.repository.VoterImportRepository.VoterImport;
+import pl.budziosz.votingsystem.utils.PeselHasher;
+
+/**
+ * Imports voter rolls streamed as CSV or NDJSON. The body is read a chunk of lines at a time, so memory does not grow
+ * with the file; each chunk is parsed and validated, then PESEL-hashed, in parallel, COPY'd into the staging table and
+ * counted in the import's progress. At the end one statement checks uniqueness for all rows at once and merges them
+ * into {@code voters}. Rejected rows, with their line numbers, make up the import's error file.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VoterImportService {
+
+    private final VoterImportRepository importRepository;
+    private final PeselHasher peselHasher;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.voters.import.chunk-size:10000}")
+    private int chunkSize;
+
+    public VoterImport importVoters(VoterImportFormat format, InputStream body) {
+        long importId = importRepository.create(format.name());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            long rejected = load(importId, format, reader);
+            MergeResult merged = importRepository.merge(importId);
+            importRepository.complete(importId, merged.imported(), rejected + merged.rejected());
+            log.info("Voter import {} finished: {} imported, {} rejected", importId, merged.imported(), rejected + merged.rejected());
+        } catch (IOException e) {
+            importRepository.fail(importId, e.toString());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cannot read voter import body", e);
+        } catch (RuntimeException e) {
+            importRepository.fail(importId, e.getMessage());
+            throw e;
+        } finally {
+            importRepository.deleteRows(importId);
+        }
+        return get(importId);
+    }
+
+    public VoterImport get(long importId) {
+        return importRepository.find(importId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Voter import not found"));
+    }
+
+    /**
+     * Writes the rejected rows of the import as CSV ({@code line,error}).
+     */
+    public void writeErrors(long importId, OutputStream out) throws IOException {
+        get(importId);
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        writer.write("line,error\n");
+        importRepository.forEachError(importId, rs -> {
+            try {
+                writer.write(rs.getLong(1) + "," + csvField(rs.getString(2)) + "\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    // Returns the number of rows rejected before the merge.
+    private long load(long importId, VoterImportFormat format, BufferedReader reader) throws IOException {
+        LineParser parser = format == VoterImportFormat.CSV ? csvParser(reader) : this::parseJson;
+        long lineNo = format == VoterImportFormat.CSV ? 1 : 0;
+        long read = 0;
+        long rejected = 0;
+        List<Line> chunk = new ArrayList<>(chunkSize);
+        String text;
+        while ((text = reader.readLine()) != null) {
+            lineNo++;
+            if (text.isBlank()) {
+                continue;
+            }
+            chunk.add(new Line(lineNo, text));
+            if (chunk.size() == chunkSize) {
+                rejected += loadChunk(importId, parser, chunk);
+                read += chunk.size();
+                importRepository.updateProgress(importId, read, rejected);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            rejected += loadChunk(importId, parser, chunk);
+            read += chunk.size();
+            importRepository.updateProgress(importId, read, rejected);
+        }
+        return rejected;
+    }
+
+    private long loadChunk(long importId, LineParser parser, List<Line> chunk) {
+        List<Row> rows = chunk.parallelStream().map(line -> toRow(parser, line)).toList();
+        List<Row> valid = rows.stream().filter(row -> row.error() == null).toList();
+        List<String> peselHashes = peselHasher.hashAll(valid.stream().map(row -> row.voter().pesel()).toList());
+
+        StringBuilder copy = new StringBuilder(valid.size() * 160);
+        for (int i = 0; i < valid.size(); i++) {
+            VoterUpsertDto dto = valid.get(i).voter();
+            copy.append(importId).append(',').append(valid.get(i).lineNo()).append(',')
+                    .append(csvField(dto.email())).append(',').append(csvField(dto.fullName())).append(',')
+                    .append(peselHashes.get(i)).append(',').append(Boolean.TRUE.equals(dto.blocked())).append('\n');
+        }
+        List<RowError> errors = rows.stream()
+                .filter(row -> row.error() != null)
+                .map(row -> new RowError(row.lineNo(), row.error()))
+                .toList();
+        if (!valid.isEmpty()) {
+            importRepository.copyRows(copy.toString());
+        }
+        if (!errors.isEmpty()) {
+            importRepository.insertErrors(importId, errors);
+        }
+        return errors.size();
+    }
+
+    private Row toRow(LineParser parser, Line line) {
+        VoterUpsertDto dto;
+        try {
+            dto = parser.parse(line.text());
+        } catch (IllegalArgumentException e) {
+            return Row.rejected(line.number(), "Cannot parse line: " + e.getMessage());
+        } catch (JsonProcessingException e) {
+            // The full message quotes the input, PESEL included.
+            return Row.rejected(line.number(), "Cannot parse line: " + e.getOriginalMessage());
+        }
+        if (dto == null) {
+            return Row.rejected(line.number(), "Cannot parse line: not a voter");
+        }
+        String violations = validator.validate(dto).stream()
+                .map(v -> v.getPropertyPath() + " " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+        if (!violations.isEmpty()) {
+            return Row.rejected(line.number(), violations);
+        }
+        return new Row(line.number(), dto, null);
+    }
+
+    private VoterUpsertDto parseJson(String text) throws JsonProcessingException {
+        return objectMapper.readValue(text, VoterUpsertDto.class);
+    }
+
+    private LineParser csvParser(BufferedReader reader) throws IOException {
+        String header = reader.readLine();
+        if (header == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV import needs a header line");
+        }
+        List<String> columns = splitCsv(header.strip()).stream().map(c -> c.strip().toLowerCase()).toList();
+        int email = requiredColumn(columns, "email");
+        int fullName = requiredColumn(columns, "full_name");
+        int pesel = requiredColumn(columns, "pesel");
+        int blocked = columns.indexOf("blocked");
+        return text -> {
+            List<String> fields = splitCsv(text);
+            if (fields.size() != columns.size()) {
+                throw new IllegalArgumentException("expected " + columns.size() + " fields, got " + fields.size());
+            }
+            return new VoterUpsertDto(fields.get(email), fields.get(fullName), fields.get(pesel),
+                    blocked < 0 || fields.get(blocked).isBlank() ? null : Boolean.parseBoolean(fields.get(blocked).strip()));
+        };
+    }
+
+    private static int requiredColumn(List<String> columns, String name) {
+        int index = columns.indexOf(name);
+        if (index < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header has no " + name + " column");
+        }
+        return index;
+    }
+
+    /**
+     * Splits one CSV line; fields may be double-quoted, with {@code ""} standing for a quote inside them.
+     */
+    static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String csvField(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @FunctionalInterface
+    private interface LineParser {
+        VoterUpsertDto parse(String text) throws JsonProcessingException;
+    }
+
+    private record Line(long number, String text) {
+    }
+
+    private record Row(long lineNo, VoterUpsertDto voter, String error) {
+
+        static Row rejected(long lineNo, String error) {
+            return new Row(lineNo, null, error);
+        }
+    }
+}
@@ -1,22 +1,39 @@
 package pl.budziosz.votingsystem.service;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import pl.budziosz.votingsystem.model.domain.Election;
-import pl.budziosz.votingsystem.model.domain.ElectionOption;
-import pl.budziosz.votingsystem.model.domain.ProcessedEvent;
-import pl.budziosz.votingsystem.model.domain.Vote;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.VotedIndex;
+import pl.budziosz.votingsystem.cache.VoterStatusCache;
+import pl.budziosz.votingsystem.cache.VoterStatusCache.VoterStatus;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
 import pl.budziosz.votingsystem.model.domain.Voter;
 import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
-import pl.budziosz.votingsystem.repository.ElectionOptionRepository;
-import pl.budziosz.votingsystem.repository.ElectionRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository.OptionVotes;
 import pl.budziosz.votingsystem.repository.ProcessedEventRepository;
-import pl.budziosz.votingsystem.repository.VoteRepository;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository.VoteTargets;
 import pl.budziosz.votingsystem.repository.VoterRepository;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics.Source;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics.Stage;
+import pl.budziosz.votingsystem.utils.AfterCommit;
 import pl.budziosz.votingsystem.validators.VotingValidator;
 
 @Service
@@ -24,53 +41,254 @@ import pl.budziosz.votingsystem.validators.VotingValidator;
 @Slf4j
 public class VotingService {
 
-    private final VoteRepository voteRepository;
     private final VoterRepository voterRepository;
-    private final ElectionRepository electionRepository;
-    private final ElectionOptionRepository electionOptionRepository;
     private final ProcessedEventRepository processedEventRepository;
+    private final VoteJdbcRepository voteJdbcRepository;
+    private final ElectionOptionTallyRepository tallyRepository;
     private final VotingValidator votingValidator;
+    private final VotedIndex votedIndex;
+    private final VoterStatusCache voterStatusCache;
+    private final ProcessedEventRetentionService processedEventRetention;
+    private final ApplicationEventPublisher eventPublisher;
+    private final VotePipelineMetrics pipelineMetrics;
 
+    /**
+     * {@code shard} selects the tally row the vote is counted in; callers pass the Kafka partition the event was
+     * consumed from, so that concurrent consumers never contend for the same row.
+     */
     @Transactional
-    public void processEvent(VoteRequestedEvent e) {
-        int inserted = insertProcessedEvent(e.eventId());
+    public void processEvent(VoteRequestedEvent e, int shard) {
+        if (votedIndex.hasVoted(e.electionId(), e.voterId())) {
+            pipelineMetrics.duplicate(Source.CONSUMER);
+            log.debug("Voter {} already voted in election {}, skipping event {}", e.voterId(), e.electionId(), e.eventId());
+            return;
+        }
+        if (processedEventRetention.isExpired(e.requestedAt())) {
+            throw new VoteRejectedException(RejectionReason.EXPIRED);
+        }
+        long started = System.nanoTime();
+        int inserted = processedEventRepository.insertIfAbsent(e.eventId(), e.requestedAt());
+        started = pipelineMetrics.stage(Stage.DEDUP_INSERT, started);
         if (inserted == 0) {
+            pipelineMetrics.dedupHit();
             log.debug("Event {} already processed, skipping", e.eventId());
             return;
         }
 
-        Election election = electionRepository.findById(e.electionId())
-                .orElseThrow(() -> new IllegalArgumentException("Election not found"));
+        // Election and option are read in this transaction: the reference-data cache may be behind admin edits made
+        // on other nodes.
+        VoteTargets targets = voteJdbcRepository.findVoteTargets(List.of(e));
+        started = pipelineMetrics.stage(Stage.REFERENCE_LOOKUP, started);
+        ElectionMetadata election = targets.election(e.electionId())
+                .orElseThrow(() -> new VoteRejectedException(RejectionReason.ELECTION_NOT_FOUND));
         Instant t = e.requestedAt();
         votingValidator.ensureWithinWindow(election, t);
+        long validation = System.nanoTime() - started;
 
-        Voter voter = voterRepository.findById(e.voterId())
-                .orElseThrow(() -> new IllegalArgumentException("Voter not found"));
-        votingValidator.requireActiveVoter(voter);
+        started = System.nanoTime();
+        VoterStatus voterStatus = voterStatusCache.status(e.voterId());
+        if (voterStatus == VoterStatus.UNKNOWN) {
+            voterStatus = learnStatus(e.voterId(), voterRepository.findById(e.voterId()).orElse(null));
+        }
+        started = pipelineMetrics.stage(Stage.VOTER_LOOKUP, started);
+        votingValidator.requireActiveVoter(voterStatus);
 
-        ElectionOption option = electionOptionRepository.findById(e.optionId())
-                .orElseThrow(() -> new IllegalArgumentException("Option not found"));
+        OptionMetadata option = targets.option(e.optionId())
+                .orElseThrow(() -> new VoteRejectedException(RejectionReason.OPTION_NOT_FOUND));
         votingValidator.ensureOptionBelongsToElection(option, e.electionId());
+        pipelineMetrics.record(Stage.VALIDATION, validation + System.nanoTime() - started);
 
-        Vote vote = new Vote();
-        vote.setElection(election);
-        vote.setVoter(voter);
-        vote.setOption(option);
-
-        try {
-            voteRepository.save(vote);
-            log.info("Vote stored for election={} voter={} option={} eventId={}", e.electionId(), e.voterId(), e.optionId(), e.eventId());
-        } catch (DataIntegrityViolationException ex) {
+        started = System.nanoTime();
+        boolean stored = voteJdbcRepository.insertVote(e);
+        started = pipelineMetrics.stage(Stage.VOTE_INSERT, started);
+        if (!stored) {
+            pipelineMetrics.duplicate(Source.CONSUMER);
+            markVotedAfterCommit(e);
             log.info("Duplicate vote ignored for election={} voter={} (eventId={})", e.electionId(), e.voterId(), e.eventId());
+            return;
+        }
+        tallyRepository.addVotes(List.of(new OptionVotes(e.electionId(), e.optionId(), 1)), shard);
+        pipelineMetrics.stage(Stage.TALLY_UPDATE, started);
+        eventPublisher.publishEvent(new VoteStoredEvent(e.electionId(), e.voterId(), e.optionId()));
+        log.info("Vote stored for election={} voter={} option={} eventId={}", e.electionId(), e.voterId(), e.optionId(), e.eventId());
+    }
+
+    @Transactional
+    public VoteOutcome processEventNative(VoteRequestedEvent e, int shard) {
+        if (votedIndex.hasVoted(e.electionId(), e.voterId())) {
+            pipelineMetrics.duplicate(Source.CONSUMER);
+            log.debug("Voter {} already voted in election {}, skipping event {}", e.voterId(), e.electionId(), e.eventId());
+            return VoteOutcome.duplicateVote();
+        }
+        if (processedEventRetention.isExpired(e.requestedAt())) {
+            return VoteOutcome.rejected(RejectionReason.EXPIRED);
+        }
+        long started = System.nanoTime();
+        VoteOutcome outcome = voteJdbcRepository.insertVoteChecked(e, shard);
+        pipelineMetrics.stage(Stage.CHECKED_INSERT, started);
+        switch (outcome.status()) {
+            case STORED -> {
+                eventPublisher.publishEvent(new VoteStoredEvent(e.electionId(), e.voterId(), e.optionId()));
+                log.info("Vote stored for election={} voter={} option={} eventId={}", e.electionId(), e.voterId(), e.optionId(), e.eventId());
+            }
+            case DUPLICATE_VOTE -> {
+                pipelineMetrics.duplicate(Source.CONSUMER);
+                markVotedAfterCommit(e);
+                log.info("Duplicate vote ignored for election={} voter={} (eventId={})", e.electionId(), e.voterId(), e.eventId());
+            }
+            case ALREADY_PROCESSED -> {
+                pipelineMetrics.dedupHit();
+                log.debug("Event {} already processed, skipping", e.eventId());
+            }
+            case REJECTED -> {
+                // The caller dead-letters it; if that fails the redelivered event must be checked again, not skipped.
+                voteJdbcRepository.deleteProcessedEvents(List.of(e));
+                log.debug("Event {} rejected: {}", e.eventId(), outcome.reason().message());
+            }
+        }
+        return outcome;
+    }
+
+    /**
+     * Returns the events that were permanently rejected, with the reason, in batch order.
+     */
+    @Transactional
+    public Map<VoteRequestedEvent, RejectionReason> processBatch(List<VoteRequestedEvent> batch, int shard) {
+        Map<VoteRequestedEvent, RejectionReason> rejected = new LinkedHashMap<>();
+        List<VoteRequestedEvent> events = new ArrayList<>(batch.size());
+        for (VoteRequestedEvent e : batch) {
+            if (votedIndex.hasVoted(e.electionId(), e.voterId())) {
+                pipelineMetrics.duplicate(Source.CONSUMER);
+                continue;
+            }
+            if (processedEventRetention.isExpired(e.requestedAt())) {
+                rejected.put(e, RejectionReason.EXPIRED);
+                continue;
+            }
+            events.add(e);
+        }
+        if (events.isEmpty()) {
+            return rejected;
+        }
+        long started = System.nanoTime();
+        int[] inserted = voteJdbcRepository.insertProcessedEvents(events);
+        started = pipelineMetrics.stage(Stage.DEDUP_INSERT, started);
+        List<VoteRequestedEvent> fresh = new ArrayList<>(events.size());
+        for (int i = 0; i < events.size(); i++) {
+            if (inserted[i] > 0) {
+                fresh.add(events.get(i));
+            } else {
+                pipelineMetrics.dedupHit();
+                log.debug("Event {} already processed, skipping", events.get(i).eventId());
+            }
+        }
+        if (fresh.isEmpty()) {
+            return rejected;
+        }
+
+        VoteTargets targets = voteJdbcRepository.findVoteTargets(fresh);
+        started = pipelineMetrics.stage(Stage.REFERENCE_LOOKUP, started);
+
+        Map<Long, VoterStatus> voterStatuses = new HashMap<>();
+        for (Long voterId : ids(fresh, VoteRequestedEvent::voterId)) {
+            voterStatuses.put(voterId, voterStatusCache.status(voterId));
+        }
+        Set<Long> unknownVoters = voterStatuses.entrySet().stream()
+                .filter(s -> s.getValue() == VoterStatus.UNKNOWN)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+        Map<Long, Voter> voters = unknownVoters.isEmpty()
+                ? Map.of()
+                : byId(voterRepository.findAllById(unknownVoters), Voter::getId);
+        started = pipelineMetrics.stage(Stage.VOTER_LOOKUP, started);
+
+        List<VoteRequestedEvent> accepted = new ArrayList<>(fresh.size());
+        List<VoteRequestedEvent> refused = new ArrayList<>();
+        for (VoteRequestedEvent e : fresh) {
+            try {
+                ElectionMetadata election = targets.election(e.electionId())
+                        .orElseThrow(() -> new VoteRejectedException(RejectionReason.ELECTION_NOT_FOUND));
+                votingValidator.ensureWithinWindow(election, e.requestedAt());
+
+                VoterStatus voterStatus = voterStatuses.get(e.voterId());
+                if (voterStatus == VoterStatus.UNKNOWN) {
+                    voterStatus = learnStatus(e.voterId(), voters.get(e.voterId()));
+                }
+                votingValidator.requireActiveVoter(voterStatus);
+
+                OptionMetadata option = targets.option(e.optionId())
+                        .orElseThrow(() -> new VoteRejectedException(RejectionReason.OPTION_NOT_FOUND));
+                votingValidator.ensureOptionBelongsToElection(option, e.electionId());
+                accepted.add(e);
+            } catch (VoteRejectedException ex) {
+                rejected.put(e, ex.getReason());
+                refused.add(e);
+            }
+        }
+        if (!refused.isEmpty()) {
+            // Rejections are dead-lettered after commit; if that fails the redelivered events must be checked again.
+            voteJdbcRepository.deleteProcessedEvents(refused);
+        }
+        started = pipelineMetrics.stage(Stage.VALIDATION, started);
+        if (accepted.isEmpty()) {
+            return rejected;
+        }
+
+        int[] storedCounts = voteJdbcRepository.insertVotes(accepted);
+        pipelineMetrics.stage(Stage.VOTE_INSERT, started);
+        List<VoteRequestedEvent> stored = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            VoteRequestedEvent e = accepted.get(i);
+            if (storedCounts[i] > 0) {
+                stored.add(e);
+                eventPublisher.publishEvent(new VoteStoredEvent(e.electionId(), e.voterId(), e.optionId()));
+                log.info("Vote stored for election={} voter={} option={} eventId={}", e.electionId(), e.voterId(), e.optionId(), e.eventId());
+            } else {
+                pipelineMetrics.duplicate(Source.CONSUMER);
+                markVotedAfterCommit(e);
+                log.info("Duplicate vote ignored for election={} voter={} (eventId={})", e.electionId(), e.voterId(), e.eventId());
+            }
         }
+        if (!stored.isEmpty()) {
+            started = System.nanoTime();
+            tallyRepository.addVotes(tallyDeltas(stored), shard);
+            pipelineMetrics.stage(Stage.TALLY_UPDATE, started);
+        }
+        return rejected;
+    }
+
+    // A duplicate proves the voter's vote exists, but it may be one written earlier in this same transaction.
+    private void markVotedAfterCommit(VoteRequestedEvent e) {
+        AfterCommit.run(() -> votedIndex.markVoted(e.electionId(), e.voterId()));
+    }
+
+    // A vote insert can only break the unique (election_id, voter_id) key, the id being generated; anything else,
+    // e.g. a foreign key to an election or option deleted meanwhile, is not a duplicate and fails the event.
+    private VoterStatus learnStatus(Long voterId, Voter voter) {
+        if (voter == null) {
+            throw new VoteRejectedException(RejectionReason.VOTER_NOT_FOUND);
+        }
+        voterStatusCache.learn(voterId, voter.isBlocked());
+        return voter.isBlocked() ? VoterStatus.BLOCKED : VoterStatus.ACTIVE;
     }
 
-    private int insertProcessedEvent(String eventId) {
-        try {
-            processedEventRepository.save(ProcessedEvent.of(eventId));
-            return 1;
-        } catch (DataIntegrityViolationException ex) {
-            return 0;
+    // Sorted by election and option, so that concurrent batches lock tally rows in the same order.
+    private static List<OptionVotes> tallyDeltas(List<VoteRequestedEvent> stored) {
+        Map<Long, Map<Long, Long>> counts = new TreeMap<>();
+        for (VoteRequestedEvent e : stored) {
+            counts.computeIfAbsent(e.electionId(), id -> new TreeMap<>()).merge(e.optionId(), 1L, Long::sum);
         }
+        List<OptionVotes> deltas = new ArrayList<>();
+        counts.forEach((electionId, options) ->
+                options.forEach((optionId, votes) -> deltas.add(new OptionVotes(electionId, optionId, votes))));
+        return deltas;
+    }
+
+    private static Set<Long> ids(List<VoteRequestedEvent> events, Function<VoteRequestedEvent, Long> id) {
+        return events.stream().map(id).collect(Collectors.toSet());
+    }
+
+    private static <T> Map<Long, T> byId(List<T> entities, Function<T, Long> id) {
+        return entities.stream().collect(Collectors.toMap(id, Function.identity()));
     }
 }
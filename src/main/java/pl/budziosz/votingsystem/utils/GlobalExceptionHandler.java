@@ -6,6 +6,8 @@ import jakarta.validation.ConstraintViolationException;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.http.ProblemDetail;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -61,6 +63,12 @@ public class GlobalExceptionHandler {
         return problem(HttpStatus.CONFLICT, "Conflict", "Data integrity violation", req.getRequestURI(), "DATA_INTEGRITY");
     }
 
+    // No connection within the bulkhead's or the pool's wait: the database is saturated (or down), retrying later may work.
+    @ExceptionHandler({CannotGetJdbcConnectionException.class, CannotCreateTransactionException.class})
+    public ProblemDetail handleNoConnection(Exception ex, HttpServletRequest req) {
+        return problem(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", "Database busy, try again later", req.getRequestURI(), "DATABASE_BUSY");
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ProblemDetail handleIllegalArg(IllegalArgumentException ex, HttpServletRequest req) {
         return problem(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage(), req.getRequestURI(), null);
@@ -0,0 +1,59 @@
+package pl.budziosz.votingsystem.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.model.dto.CursorPageDtos.CursorPage;
+
+/**
+ * Opaque cursor of keyset listings: the id of the last row returned, which the next page starts after.
+ */
+public final class KeysetCursor {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String PREFIX = "id:";
+
+    private KeysetCursor() {
+    }
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((PREFIX + lastId).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Returns the id to continue after; 0 (before every id) for a missing cursor.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            String text = new String(Base64.getUrlDecoder().decode(cursor.strip()), StandardCharsets.US_ASCII);
+            if (text.startsWith(PREFIX)) {
+                return Long.parseLong(text.substring(PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException included; reported below
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+    }
+
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Builds the page from up to {@code size + 1} rows in id order; the extra row only tells that there is a next page.
+     */
+    public static <T> CursorPage<T> page(List<T> rows, int size, ToLongFunction<T> id, Long totalEstimate) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null, totalEstimate);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(List.copyOf(items), encode(id.applyAsLong(items.get(size - 1))), totalEstimate);
+    }
+}
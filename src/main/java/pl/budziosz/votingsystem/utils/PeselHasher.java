@@ -1,32 +1,138 @@
 package pl.budziosz.votingsystem.utils;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Function;
 
+/**
+ * Hashes PESELs as {@code HMAC-SHA256(pepper, SHA-256(pesel))}, hex encoded. The keyed outer hash keeps the small
+ * PESEL space from being brute-forced without the pepper; the inner SHA-256 is what voters.pesel_hash held before,
+ * so existing hashes can be rehashed without knowing the PESELs ({@link #rehashLegacy(String)}).
+ * Digest, MAC and buffers are pooled, so a hash allocates only the returned string. Not per thread: a virtual thread
+ * lives for one request, so thread-local state would be built and the MAC keyed again for every hash.
+ */
 @Component
 public class PeselHasher {
 
+    private static final String HMAC = "HmacSHA256";
+    private static final int DIGEST_LENGTH = 32;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // Hashing never blocks, so more instances than cores are seldom in use at once; extras are dropped.
+    private final BlockingQueue<Hashing> idle = new ArrayBlockingQueue<>(Runtime.getRuntime().availableProcessors());
+    private final SecretKeySpec key;
+
+    public PeselHasher(@Value("${app.voters.pesel-pepper:}") String pepper) {
+        if (pepper == null || pepper.isBlank()) {
+            throw new IllegalStateException("app.voters.pesel-pepper must be set (PESEL_PEPPER)");
+        }
+        this.key = new SecretKeySpec(pepper.getBytes(StandardCharsets.UTF_8), HMAC);
+        idle.offer(new Hashing(key));
+    }
+
     public String hash(String pesel) {
         if (pesel == null) {
             throw new IllegalArgumentException("PESEL is required");
         }
-        try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            byte[] digest = md.digest(pesel.getBytes(StandardCharsets.UTF_8));
-            return toHex(digest);
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("SHA-256 not available", e);
+        return withHashing(h -> h.hash(pesel));
+    }
+
+    /**
+     * Hashes the PESELs in parallel; the result is in input order.
+     */
+    public List<String> hashAll(List<String> pesels) {
+        return pesels.parallelStream().map(this::hash).toList();
+    }
+
+    /**
+     * Turns a hash of the previous scheme (hex SHA-256 of the PESEL) into the current one.
+     */
+    public String rehashLegacy(String sha256Hex) {
+        byte[] digest = HexFormat.of().parseHex(sha256Hex);
+        return withHashing(h -> h.keyed(digest));
+    }
+
+    private String withHashing(Function<Hashing, String> work) {
+        Hashing h = idle.poll();
+        if (h == null) {
+            h = new Hashing(key);
         }
+        String result = work.apply(h);
+        // Only returned after a complete hash, so a failure cannot leave half-updated state in the pool.
+        idle.offer(h);
+        return result;
     }
 
-    private String toHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder(bytes.length * 2);
-        for (byte b : bytes) {
-            sb.append(String.format("%02x", b));
+    private static final class Hashing {
+
+        private final MessageDigest sha256;
+        private final Mac hmac;
+        private final byte[] input = new byte[16];
+        private final byte[] digest = new byte[DIGEST_LENGTH];
+        private final byte[] mac = new byte[DIGEST_LENGTH];
+        private final char[] hex = new char[DIGEST_LENGTH * 2];
+
+        Hashing(SecretKeySpec key) {
+            try {
+                sha256 = MessageDigest.getInstance("SHA-256");
+                hmac = Mac.getInstance(HMAC);
+                hmac.init(key);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 not available", e);
+            }
+        }
+
+        String hash(String pesel) {
+            int length = pesel.length();
+            if (length <= input.length && isAscii(pesel)) {
+                // PESELs are 11 ASCII digits: copied into the reused buffer instead of getBytes().
+                for (int i = 0; i < length; i++) {
+                    input[i] = (byte) pesel.charAt(i);
+                }
+                sha256.update(input, 0, length);
+            } else {
+                sha256.update(pesel.getBytes(StandardCharsets.UTF_8));
+            }
+            try {
+                sha256.digest(digest, 0, DIGEST_LENGTH);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+            return keyed(digest);
+        }
+
+        String keyed(byte[] sha256) {
+            hmac.update(sha256, 0, DIGEST_LENGTH);
+            try {
+                hmac.doFinal(mac, 0);
+            } catch (ShortBufferException e) {
+                throw new IllegalStateException(e);
+            }
+            for (int i = 0; i < DIGEST_LENGTH; i++) {
+                hex[2 * i] = HEX[(mac[i] >> 4) & 0x0f];
+                hex[2 * i + 1] = HEX[mac[i] & 0x0f];
+            }
+            return new String(hex);
+        }
+
+        private static boolean isAscii(String s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
         }
-        return sb.toString();
     }
 }
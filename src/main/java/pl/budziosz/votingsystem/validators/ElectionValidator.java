@@ -4,9 +4,9 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.cache.ReferenceDataCache;
 import pl.budziosz.votingsystem.model.domain.ElectionOption;
 import pl.budziosz.votingsystem.repository.ElectionOptionRepository;
-import pl.budziosz.votingsystem.repository.ElectionRepository;
 
 import java.time.Instant;
 
@@ -14,8 +14,8 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class ElectionValidator {
 
-    private final ElectionRepository electionRepository;
     private final ElectionOptionRepository optionRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     public void validateDates(Instant startsAt, Instant endsAt) {
         if (startsAt != null && endsAt != null && !startsAt.isBefore(endsAt)) {
@@ -24,7 +24,7 @@ public class ElectionValidator {
     }
 
     public void ensureElectionExists(Long id) {
-        if (!electionRepository.existsById(id)) {
+        if (referenceDataCache.findElectionMetadata(id).isEmpty()) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Election not found");
         }
     }
@@ -2,9 +2,11 @@ package pl.budziosz.votingsystem.validators;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import pl.budziosz.votingsystem.model.domain.Election;
-import pl.budziosz.votingsystem.model.domain.ElectionOption;
-import pl.budziosz.votingsystem.model.domain.Voter;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.VoterStatusCache.VoterStatus;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
 
 import java.time.Instant;
 
@@ -12,22 +14,22 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class VotingValidator {
 
-    public void ensureWithinWindow(Election election, Instant at) {
-        if (at.isBefore(election.getStartsAt()) || at.isAfter(election.getEndsAt())) {
-            throw new IllegalArgumentException("Vote outside election window");
+    public void ensureWithinWindow(ElectionMetadata election, Instant at) {
+        if (!election.isOpenAt(at)) {
+            throw new VoteRejectedException(RejectionReason.OUTSIDE_WINDOW);
         }
     }
 
-    public void requireActiveVoter(Voter voter) {
-        if (voter.isBlocked()) {
-            throw new IllegalArgumentException("Voter blocked");
+    public void requireActiveVoter(VoterStatus status) {
+        if (status == VoterStatus.BLOCKED) {
+            throw new VoteRejectedException(RejectionReason.VOTER_BLOCKED);
         }
     }
 
 
-    public void ensureOptionBelongsToElection(ElectionOption option, Long electionId) {
-        if (!option.getElection().getId().equals(electionId)) {
-            throw new IllegalArgumentException("Option does not belong to the election");
+    public void ensureOptionBelongsToElection(OptionMetadata option, Long electionId) {
+        if (!option.electionId().equals(electionId)) {
+            throw new VoteRejectedException(RejectionReason.OPTION_MISMATCH);
         }
     }
 }
@@ -0,0 +1,9 @@
+-- Voter status changes waiting for the compacted voter-status topic. A row is written in the admin transaction that
+-- changes the voter and deleted once the topic has acknowledged it, so a failed send or a restart cannot leave other
+-- nodes with the previous status. One row per voter, as the topic only keeps the latest status anyway; a null
+-- blocked flag is published as a tombstone (the voter was deleted).
+CREATE TABLE IF NOT EXISTS voter_status_outbox (
+  voter_id     BIGINT    PRIMARY KEY,
+  blocked      BOOLEAN,
+  changed_at   TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,38 @@
+-- Partitions processed_events by day on occurred_at so that expired dedup entries are removed by dropping
+-- a whole partition instead of a mass DELETE.
+-- occurred_at now holds the event's requestedAt rather than the insert time: being part of the primary key,
+-- it has to be the same for every redelivery of an event so that the duplicate hits the same partition.
+-- Daily partitions ahead of time and retention are maintained by ProcessedEventRetentionService.
+
+ALTER TABLE processed_events RENAME TO processed_events_legacy;
+ALTER TABLE processed_events_legacy RENAME CONSTRAINT processed_events_pkey TO processed_events_legacy_pkey;
+
+CREATE TABLE processed_events (
+    event_id    VARCHAR(64) NOT NULL,
+    occurred_at TIMESTAMP   NOT NULL DEFAULT NOW(),
+    PRIMARY KEY (event_id, occurred_at)
+) PARTITION BY RANGE (occurred_at);
+
+-- Catches stragglers outside the maintained range; kept small by the retention job.
+CREATE TABLE processed_events_default PARTITION OF processed_events DEFAULT;
+
+DO $$
+DECLARE
+    day DATE;
+BEGIN
+    FOR day IN
+        SELECT d::date
+        FROM generate_series(
+                LEAST(COALESCE((SELECT MIN(occurred_at) FROM processed_events_legacy)::date, CURRENT_DATE), CURRENT_DATE),
+                CURRENT_DATE + 3,
+                INTERVAL '1 day') AS d
+    LOOP
+        EXECUTE format('CREATE TABLE processed_events_%s PARTITION OF processed_events FOR VALUES FROM (%L) TO (%L)',
+                       to_char(day, 'YYYYMMDD'), day, day + 1);
+    END LOOP;
+END $$;
+
+INSERT INTO processed_events (event_id, occurred_at)
+SELECT event_id, occurred_at FROM processed_events_legacy;
+
+DROP TABLE processed_events_legacy;
@@ -0,0 +1,16 @@
+-- Running vote count per election option, split into one row per shard (the Kafka partition the vote was consumed
+-- from) so that concurrent consumers never update the same row. Results are the sum over shards.
+CREATE TABLE IF NOT EXISTS election_option_tallies (
+  election_id   BIGINT   NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+  option_id     BIGINT   NOT NULL REFERENCES election_options(id) ON DELETE CASCADE,
+  shard         SMALLINT NOT NULL,
+  votes         BIGINT   NOT NULL DEFAULT 0,
+  PRIMARY KEY (election_id, option_id, shard)
+);
+
+CREATE INDEX IF NOT EXISTS idx_election_option_tallies_option ON election_option_tallies(option_id);
+
+INSERT INTO election_option_tallies (election_id, option_id, shard, votes)
+SELECT election_id, option_id, 0, count(*)
+FROM votes
+GROUP BY election_id, option_id;
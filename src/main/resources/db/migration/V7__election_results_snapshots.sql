@@ -0,0 +1,8 @@
+-- Final results of a closed election, written once after every vote requested before ends_at was consumed.
+-- results holds the JSON body served by the results endpoint and etag its SHA-256.
+CREATE TABLE IF NOT EXISTS election_results_snapshots (
+  election_id   BIGINT      PRIMARY KEY REFERENCES elections(id) ON DELETE CASCADE,
+  results       TEXT        NOT NULL,
+  etag          VARCHAR(64) NOT NULL,
+  finalized_at  TIMESTAMP   NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,52 @@
+-- Partitions votes by election (one list partition per election, named votes_election_<id>), so that per-election
+-- reads are pruned to a single partition and deleting an election drops its partition instead of cascading a
+-- row-by-row delete. Partition key columns must be part of every unique constraint, hence the (election_id, id)
+-- primary key; (election_id, voter_id) is unique already.
+-- A trigger creates the partition when an election is inserted; AdminElectionService drops it before the election.
+
+ALTER TABLE votes RENAME TO votes_legacy;
+ALTER TABLE votes_legacy RENAME CONSTRAINT votes_pkey TO votes_legacy_pkey;
+ALTER TABLE votes_legacy RENAME CONSTRAINT votes_election_id_voter_id_key TO votes_legacy_election_id_voter_id_key;
+ALTER INDEX idx_votes_election RENAME TO idx_votes_legacy_election;
+ALTER INDEX idx_votes_option RENAME TO idx_votes_legacy_option;
+ALTER SEQUENCE votes_id_seq RENAME TO votes_legacy_id_seq;
+
+CREATE TABLE votes (
+  id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+  election_id     BIGINT NOT NULL REFERENCES elections(id) ON DELETE CASCADE,
+  voter_id        BIGINT NOT NULL REFERENCES voters(id)    ON DELETE CASCADE,
+  option_id       BIGINT NOT NULL REFERENCES election_options(id) ON DELETE CASCADE,
+  created_at      TIMESTAMP NOT NULL DEFAULT NOW(),
+  PRIMARY KEY (election_id, id),
+  CONSTRAINT votes_unique_election_voter UNIQUE (election_id, voter_id)
+) PARTITION BY LIST (election_id);
+
+-- Serves the cascade from election_options; per-election lookups use the unique index.
+CREATE INDEX idx_votes_option ON votes(option_id);
+
+CREATE OR REPLACE FUNCTION create_votes_partition() RETURNS trigger AS $$
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS votes_election_%s PARTITION OF votes FOR VALUES IN (%s)', NEW.id, NEW.id);
+    RETURN NEW;
+END $$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_elections_votes_partition
+    AFTER INSERT ON elections
+    FOR EACH ROW EXECUTE FUNCTION create_votes_partition();
+
+DO $$
+DECLARE
+    election BIGINT;
+BEGIN
+    FOR election IN SELECT id FROM elections ORDER BY id
+    LOOP
+        EXECUTE format('CREATE TABLE votes_election_%s PARTITION OF votes FOR VALUES IN (%s)', election, election);
+    END LOOP;
+END $$;
+
+INSERT INTO votes (id, election_id, voter_id, option_id, created_at)
+SELECT id, election_id, voter_id, option_id, created_at FROM votes_legacy;
+
+SELECT setval(pg_get_serial_sequence('votes', 'id'), COALESCE((SELECT MAX(id) FROM votes), 0) + 1, false);
+
+DROP TABLE votes_legacy;
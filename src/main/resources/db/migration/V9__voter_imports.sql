@@ -0,0 +1,32 @@
+-- Bulk voter imports. Parsed rows are COPY'd into the unlogged staging table voter_import_rows and merged into
+-- voters by one statement at the end; rows that fail parsing, validation or uniqueness land in voter_import_errors,
+-- which is served back as the import's error file. Staging rows are deleted once the import finishes.
+CREATE TABLE IF NOT EXISTS voter_imports (
+  id             BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+  format         VARCHAR(16) NOT NULL,
+  status         VARCHAR(16) NOT NULL,
+  rows_read      BIGINT      NOT NULL DEFAULT 0,
+  rows_imported  BIGINT      NOT NULL DEFAULT 0,
+  rows_rejected  BIGINT      NOT NULL DEFAULT 0,
+  failure        TEXT,
+  started_at     TIMESTAMP   NOT NULL DEFAULT NOW(),
+  finished_at    TIMESTAMP
+);
+
+CREATE UNLOGGED TABLE IF NOT EXISTS voter_import_rows (
+  import_id   BIGINT       NOT NULL,
+  line_no     BIGINT       NOT NULL,
+  email       VARCHAR(255) NOT NULL,
+  full_name   VARCHAR(255) NOT NULL,
+  pesel_hash  VARCHAR(64)  NOT NULL,
+  blocked     BOOLEAN      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_voter_import_rows_import ON voter_import_rows(import_id);
+
+CREATE TABLE IF NOT EXISTS voter_import_errors (
+  import_id   BIGINT NOT NULL REFERENCES voter_imports(id) ON DELETE CASCADE,
+  line_no     BIGINT NOT NULL,
+  error       TEXT   NOT NULL,
+  PRIMARY KEY (import_id, line_no)
+);
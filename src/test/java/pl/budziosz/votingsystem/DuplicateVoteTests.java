@@ -0,0 +1,58 @@
+package pl.budziosz.votingsystem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
+import pl.budziosz.votingsystem.service.VotingService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A second vote of the same voter, e.g. one consumed on a node whose voted index has not seen the first, is a
+ * duplicate: its transaction must still commit instead of failing into the retry and dead-letter topics.
+ */
+@SpringBootTest(properties = "app.voting.voted-index.enabled=false")
+class DuplicateVoteTests extends BaseIntegrationTest {
+
+    @Autowired
+    private VotingService votingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void secondVoteOfVoter_isIgnoredAndItsEventRecorded() {
+        Instant now = Instant.now();
+        long electionId = jdbcTemplate.queryForObject(
+                "insert into elections (name, starts_at, ends_at) values (?, ?, ?) returning id", Long.class,
+                "duplicate-" + UUID.randomUUID(), Timestamp.from(now.minus(Duration.ofDays(1))),
+                Timestamp.from(now.plus(Duration.ofDays(1))));
+        long first = jdbcTemplate.queryForObject(
+                "insert into election_options (election_id, label) values (?, 'A') returning id", Long.class, electionId);
+        long second = jdbcTemplate.queryForObject(
+                "insert into election_options (election_id, label) values (?, 'B') returning id", Long.class, electionId);
+        String id = UUID.randomUUID().toString();
+        long voterId = jdbcTemplate.queryForObject(
+                "insert into voters (email, full_name, pesel_hash) values (?, 'Duplicate Voter', ?) returning id", Long.class,
+                "duplicate-" + id + "@example.com", id.replace("-", "") + id.replace("-", ""));
+        VoteRequestedEvent vote = new VoteRequestedEvent(UUID.randomUUID().toString(), electionId, voterId, first, now);
+        VoteRequestedEvent again = new VoteRequestedEvent(UUID.randomUUID().toString(), electionId, voterId, second, now);
+
+        votingService.processEvent(vote, 0);
+        assertDoesNotThrow(() -> votingService.processEvent(again, 1));
+
+        assertEquals(first, jdbcTemplate.queryForObject(
+                "select option_id from votes where election_id = ? and voter_id = ?", Long.class, electionId, voterId));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select sum(votes) from election_option_tallies where election_id = ?", Long.class, electionId));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from processed_events where event_id = ?", Long.class, again.eventId()));
+    }
+}
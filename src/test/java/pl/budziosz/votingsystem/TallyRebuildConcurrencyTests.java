@@ -0,0 +1,164 @@
+package pl.budziosz.votingsystem;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository.OptionVotes;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A tally rebuild and vote ingest of the same election must not interleave: the rebuild's recount would include a
+ * vote whose increment lands in a shard row the rebuild already deleted, counting it twice.
+ */
+@SpringBootTest
+class TallyRebuildConcurrencyTests extends BaseIntegrationTest {
+
+    private static final long BLOCKED_MILLIS = 500;
+
+    @Autowired
+    private ElectionOptionTallyRepository tallyRepository;
+
+    @Autowired
+    private VoteJdbcRepository voteJdbcRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private long electionId;
+    private long optionId;
+
+    @BeforeEach
+    void createElection() {
+        Instant now = Instant.now();
+        electionId = jdbcTemplate.queryForObject(
+                "insert into elections (name, starts_at, ends_at) values (?, ?, ?) returning id", Long.class,
+                "rebuild-" + UUID.randomUUID(), Timestamp.from(now.minus(Duration.ofDays(1))),
+                Timestamp.from(now.plus(Duration.ofDays(1))));
+        optionId = jdbcTemplate.queryForObject(
+                "insert into election_options (election_id, label) values (?, 'A') returning id", Long.class, electionId);
+    }
+
+    @AfterEach
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void rebuild_waitsForOpenIngestTransaction() throws Exception {
+        long voterId = createVoter();
+        CountDownLatch counted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> ingest = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            voteJdbcRepository.insertVotes(List.of(event(voterId)));
+            tallyRepository.addVotes(List.of(new OptionVotes(electionId, optionId, 1)), 3);
+            counted.countDown();
+            await(release);
+        }));
+        assertTrue(counted.await(10, TimeUnit.SECONDS));
+
+        Future<?> rebuild = executor.submit(() -> transactionTemplate.executeWithoutResult(
+                status -> tallyRepository.rebuild(electionId)));
+        assertThrows(TimeoutException.class, () -> rebuild.get(BLOCKED_MILLIS, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        ingest.get(10, TimeUnit.SECONDS);
+        rebuild.get(10, TimeUnit.SECONDS);
+        assertEquals(1, talliedVotes());
+    }
+
+    @Test
+    void ingest_waitsForOpenRebuild() throws Exception {
+        long voterId = createVoter();
+        CountDownLatch rebuilt = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> rebuild = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            tallyRepository.rebuild(electionId);
+            rebuilt.countDown();
+            await(release);
+        }));
+        assertTrue(rebuilt.await(10, TimeUnit.SECONDS));
+
+        Future<VoteOutcome> ingest = executor.submit(() -> transactionTemplate.execute(
+                status -> voteJdbcRepository.insertVoteChecked(event(voterId), 3)));
+        assertThrows(TimeoutException.class, () -> ingest.get(BLOCKED_MILLIS, TimeUnit.MILLISECONDS));
+
+        release.countDown();
+        rebuild.get(10, TimeUnit.SECONDS);
+        assertEquals(VoteOutcome.stored(), ingest.get(10, TimeUnit.SECONDS));
+        assertEquals(1, talliedVotes());
+    }
+
+    @Test
+    void ingestTransactions_doNotWaitForEachOther() throws Exception {
+        long first = createVoter();
+        long second = createVoter();
+        CountDownLatch counted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<?> open = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            voteJdbcRepository.insertVotes(List.of(event(first)));
+            tallyRepository.addVotes(List.of(new OptionVotes(electionId, optionId, 1)), 1);
+            counted.countDown();
+            await(release);
+        }));
+        assertTrue(counted.await(10, TimeUnit.SECONDS));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            voteJdbcRepository.insertVotes(List.of(event(second)));
+            tallyRepository.addVotes(List.of(new OptionVotes(electionId, optionId, 1)), 2);
+        });
+
+        release.countDown();
+        open.get(10, TimeUnit.SECONDS);
+        assertEquals(2, talliedVotes());
+    }
+
+    private VoteRequestedEvent event(long voterId) {
+        return new VoteRequestedEvent(UUID.randomUUID().toString(), electionId, voterId, optionId, Instant.now());
+    }
+
+    private long createVoter() {
+        String id = UUID.randomUUID().toString();
+        return jdbcTemplate.queryForObject(
+                "insert into voters (email, full_name, pesel_hash) values (?, 'Rebuild Voter', ?) returning id", Long.class,
+                "rebuild-" + id + "@example.com", id.replace("-", "") + id.replace("-", ""));
+    }
+
+    private long talliedVotes() {
+        return jdbcTemplate.queryForObject(
+                "select coalesce(sum(votes), 0) from election_option_tallies where election_id = ?", Long.class, electionId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
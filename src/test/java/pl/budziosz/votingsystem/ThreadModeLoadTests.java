@@ -0,0 +1,121 @@
+package pl.budziosz.votingsystem;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives concurrent DB-bound admin reads over HTTP and reports throughput, latency percentiles and 503s for the
+ * thread mode the application runs in. Run it once per mode and compare:
+ * {@code ./mvnw test -Dtest=ThreadModeLoadTests -Dperf=true -Dspring.threads.virtual.enabled=false}, then with
+ * {@code true}. Opt-in.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+@Slf4j
+class ThreadModeLoadTests extends BaseIntegrationTest {
+
+    private static final int VOTERS = 2_000;
+    private static final int CLIENTS = 1_000;
+    private static final int REQUESTS = 50_000;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Test
+    void reportsThroughputAndLatencyOfTheCurrentThreadMode() throws Exception {
+        List<Long> voterIds = createVoters();
+        HttpClient http = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger unavailable = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        warmUp(http, voterIds);
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        long started = System.nanoTime();
+        for (int c = 0; c < CLIENTS; c++) {
+            clients.execute(() -> {
+                int i;
+                while ((i = next.getAndIncrement()) < REQUESTS) {
+                    long sent = System.nanoTime();
+                    int status = get(http, voterIds.get(i % voterIds.size()));
+                    latencies[i] = System.nanoTime() - sent;
+                    if (status == 503) {
+                        unavailable.incrementAndGet();
+                    } else if (status != 200) {
+                        failed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        assertTrue(clients.awaitTermination(10, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Arrays.sort(latencies);
+        log.info("virtualThreads={} clients={} requests/s={} p50={}ms p99={}ms max={}ms 503s={} errors={}",
+                virtualThreads, CLIENTS, Math.round(REQUESTS / seconds), millis(latencies, 0.50), millis(latencies, 0.99),
+                millis(latencies, 1.0), unavailable.get(), failed.get());
+        assertEquals(0, failed.get());
+    }
+
+    private void warmUp(HttpClient http, List<Long> voterIds) {
+        for (int i = 0; i < 500; i++) {
+            get(http, voterIds.get(i % voterIds.size()));
+        }
+    }
+
+    private int get(HttpClient http, long voterId) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/admin/voters/" + voterId))
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static String millis(long[] sorted, double quantile) {
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1);
+        return String.format("%.1f", sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private List<Long> createVoters() {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        List<Object[]> rows = new ArrayList<>(VOTERS);
+        for (int i = 0; i < VOTERS; i++) {
+            rows.add(new Object[]{"load-" + runId + "-" + i + "@example.com", "Load Voter " + i, runId + String.format("%056d", i)});
+        }
+        jdbcTemplate.batchUpdate("insert into voters (email, full_name, pesel_hash) values (?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("select id from voters where email like ? order by id", Long.class, "load-" + runId + "-%");
+    }
+}
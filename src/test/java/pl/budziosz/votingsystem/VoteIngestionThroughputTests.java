@@ -0,0 +1,134 @@
+package pl.budziosz.votingsystem;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.MessageListener;
+import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
+import pl.budziosz.votingsystem.service.VotingService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures consumer throughput of the vote pipeline for 1, 2, 4 and 8 partitions with a matching
+ * listener concurrency. Opt-in: {@code ./mvnw test -Dtest=VoteIngestionThroughputTests -Dperf=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+@Slf4j
+class VoteIngestionThroughputTests extends BaseIntegrationTest {
+
+    private static final int VOTES_PER_RUN = 20_000;
+    private static final int[] PARTITIONS = {1, 2, 4, 8};
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Autowired
+    private ConcurrentKafkaListenerContainerFactory<Object, Object> kafkaListenerContainerFactory;
+
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+
+    @Autowired
+    private VotingService votingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void throughputScalesWithPartitionCount() throws Exception {
+        List<Long> voterIds = createVoters(VOTES_PER_RUN);
+        Map<Integer, Double> votesPerSecond = new LinkedHashMap<>();
+
+        for (int partitions : PARTITIONS) {
+            long electionId = createElection("throughput-" + partitions);
+            long optionId = createOption(electionId);
+            String topic = "votes-throughput-" + partitions;
+            kafkaAdmin.createOrModifyTopics(TopicBuilder.name(topic).partitions(partitions).replicas(1).build());
+
+            Instant now = Instant.now();
+            for (Long voterId : voterIds) {
+                kafkaTemplate.send(topic, String.valueOf(voterId),
+                        new VoteRequestedEvent(UUID.randomUUID().toString(), electionId, voterId, optionId, now));
+            }
+            kafkaTemplate.flush();
+
+            // The clock starts with the first consumed record so that group rebalancing is not measured.
+            AtomicLong started = new AtomicLong();
+            ConcurrentMessageListenerContainer<Object, Object> container = kafkaListenerContainerFactory.createContainer(topic);
+            container.getContainerProperties().setGroupId("throughput-" + partitions);
+            container.getContainerProperties().setMessageListener((MessageListener<Object, Object>) (ConsumerRecord<Object, Object> r) -> {
+                started.compareAndSet(0, System.nanoTime());
+                votingService.processEvent((VoteRequestedEvent) r.value(), r.partition());
+            });
+            container.setConcurrency(partitions);
+
+            container.start();
+            awaitVotes(electionId, VOTES_PER_RUN, Duration.ofMinutes(5));
+            double seconds = (System.nanoTime() - started.get()) / 1e9;
+            container.stop();
+
+            votesPerSecond.put(partitions, VOTES_PER_RUN / seconds);
+        }
+
+        double baseline = votesPerSecond.get(1);
+        votesPerSecond.forEach((partitions, rate) -> log.info("partitions={} votes/s={} speedup={} efficiency={}",
+                partitions, Math.round(rate), String.format("%.2f", rate / baseline), String.format("%.0f%%", 100 * rate / baseline / partitions)));
+        assertTrue(votesPerSecond.get(8) >= 4 * baseline,
+                "Expected at least 4x throughput with 8 partitions, got " + votesPerSecond);
+    }
+
+    private List<Long> createVoters(int count) {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"load-" + runId + "-" + i + "@example.com", "Load Voter " + i, runId + String.format("%056d", i)});
+        }
+        jdbcTemplate.batchUpdate("insert into voters (email, full_name, pesel_hash) values (?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("select id from voters where email like ? order by id", Long.class, "load-" + runId + "-%");
+    }
+
+    private long createElection(String name) {
+        Instant now = Instant.now();
+        return jdbcTemplate.queryForObject(
+                "insert into elections (name, starts_at, ends_at) values (?, ?, ?) returning id", Long.class,
+                name, Timestamp.from(now.minus(Duration.ofDays(1))), Timestamp.from(now.plus(Duration.ofDays(1))));
+    }
+
+    private long createOption(long electionId) {
+        return jdbcTemplate.queryForObject(
+                "insert into election_options (election_id, label) values (?, 'A') returning id", Long.class, electionId);
+    }
+
+    private void awaitVotes(long electionId, int expected, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            Integer stored = jdbcTemplate.queryForObject("select count(*) from votes where election_id = ?", Integer.class, electionId);
+            if (stored != null && stored >= expected) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        fail("Timed out waiting for " + expected + " votes in election " + electionId);
+    }
+}
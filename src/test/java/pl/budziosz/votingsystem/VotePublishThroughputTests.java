@@ -0,0 +1,78 @@
+package pl.budziosz.votingsystem;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.kafka.VoteDeliveryMode;
+import pl.budziosz.votingsystem.kafka.VotePublisher;
+import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reports publish latency and throughput of {@link VotePublisher} for every delivery mode, with the tuned producer
+ * settings. Opt-in: {@code ./mvnw test -Dtest=VotePublishThroughputTests -Dperf=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+@Slf4j
+class VotePublishThroughputTests extends BaseIntegrationTest {
+
+    private static final int VOTES_PER_MODE = 20_000;
+    private static final int CLIENTS = 32;
+
+    @Autowired
+    private ProducerFactory<String, Object> producerFactory;
+
+    @Test
+    void reportsLatencyAndThroughputPerDeliveryMode() throws Exception {
+        for (VoteDeliveryMode mode : VoteDeliveryMode.values()) {
+            Map<String, Object> configs = new HashMap<>(producerFactory.getConfigurationProperties());
+            configs.put(ProducerConfig.ACKS_CONFIG, mode.acks());
+            configs.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, mode == VoteDeliveryMode.ALL);
+            DefaultKafkaProducerFactory<String, Object> modeFactory = new DefaultKafkaProducerFactory<>(configs);
+            modeFactory.setValueSerializerSupplier(() -> ((DefaultKafkaProducerFactory<String, Object>) producerFactory).getValueSerializerSupplier().get());
+
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            VotePublisher publisher = new VotePublisher(new KafkaTemplate<>(modeFactory), registry);
+            ReflectionTestUtils.setField(publisher, "votesTopic", "votes-publish-" + mode.name().toLowerCase());
+            ReflectionTestUtils.setField(publisher, "deliveryMode", mode);
+            ReflectionTestUtils.setField(publisher, "ackTimeout", Duration.ofSeconds(5));
+
+            ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+            long started = System.nanoTime();
+            for (int i = 0; i < VOTES_PER_MODE; i++) {
+                long voterId = i;
+                clients.execute(() -> publisher.publish(
+                        new VoteRequestedEvent(UUID.randomUUID().toString(), 1L, voterId, 1L, Instant.now())));
+            }
+            clients.shutdown();
+            assertTrue(clients.awaitTermination(5, TimeUnit.MINUTES));
+            double seconds = (System.nanoTime() - started) / 1e9;
+            modeFactory.destroy();
+
+            Timer timer = registry.get("votes.publish").tag("outcome", "ok").timer();
+            log.info("mode={} votes/s={} mean={}ms max={}ms", mode, Math.round(VOTES_PER_MODE / seconds),
+                    String.format("%.3f", timer.mean(TimeUnit.MILLISECONDS)), String.format("%.3f", timer.max(TimeUnit.MILLISECONDS)));
+            assertEquals(VOTES_PER_MODE, timer.count());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package pl.budziosz.votingsystem;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository;
+import pl.budziosz.votingsystem.repository.VotePartitionRepository;
+import pl.budziosz.votingsystem.repository.VoteRepository;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures batch insert throughput into {@code votes} and the latency of per-election reads, of the results query
+ * and of deleting an election while other elections hold most of the votes. Run it before and after a schema change to compare.
+ * Opt-in: {@code ./mvnw test -Dtest=VoteTableLatencyTests -Dperf=true}.
+ */
+@SpringBootTest
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+@Slf4j
+class VoteTableLatencyTests extends BaseIntegrationTest {
+
+    private static final int ELECTIONS = 20;
+    private static final int VOTES_PER_ELECTION = 20_000;
+    private static final int BATCH_SIZE = 500;
+    private static final int READS = 50;
+
+    @Autowired
+    private VoteJdbcRepository voteJdbcRepository;
+
+    @Autowired
+    private ElectionOptionTallyRepository tallyRepository;
+
+    @Autowired
+    private VotePartitionRepository votePartitionRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void measuresInsertThroughputAndPerElectionLatency() {
+        List<Long> voterIds = createVoters(VOTES_PER_ELECTION);
+        List<Long> electionIds = new ArrayList<>();
+
+        long inserted = 0;
+        long insertNanos = 0;
+        for (int i = 0; i < ELECTIONS; i++) {
+            long electionId = createElection("latency-" + i);
+            long optionId = createOption(electionId);
+            electionIds.add(electionId);
+
+            Instant now = Instant.now();
+            for (int from = 0; from < voterIds.size(); from += BATCH_SIZE) {
+                List<VoteRequestedEvent> batch = voterIds.subList(from, Math.min(from + BATCH_SIZE, voterIds.size())).stream()
+                        .map(voterId -> new VoteRequestedEvent(UUID.randomUUID().toString(), electionId, voterId, optionId, now))
+                        .toList();
+                long started = System.nanoTime();
+                inserted += Arrays.stream(voteJdbcRepository.insertVotes(batch)).sum();
+                insertNanos += System.nanoTime() - started;
+            }
+        }
+        assertEquals((long) ELECTIONS * VOTES_PER_ELECTION, inserted);
+        jdbcTemplate.execute("analyze votes");
+
+        long target = electionIds.get(ELECTIONS / 2);
+        double countMs = averageMillis(() -> jdbcTemplate.queryForObject(
+                "select count(*) from votes where election_id = ?", Long.class, target));
+        double rebuildMs = averageMillis(() -> tallyRepository.rebuild(target));
+        double resultsMs = averageMillis(() -> voteRepository.countResultsByElection(target));
+
+        long started = System.nanoTime();
+        votePartitionRepository.dropElectionPartition(electionIds.get(0));
+        jdbcTemplate.update("delete from elections where id = ?", electionIds.get(0));
+        double deleteMs = (System.nanoTime() - started) / 1e6;
+
+        log.info("votes={} insert votes/s={} count ms={} rebuild ms={} results ms={} delete election ms={}",
+                inserted, Math.round(inserted / (insertNanos / 1e9)), String.format("%.2f", countMs),
+                String.format("%.2f", rebuildMs), String.format("%.2f", resultsMs), String.format("%.1f", deleteMs));
+    }
+
+    private double averageMillis(Runnable read) {
+        read.run();
+        long started = System.nanoTime();
+        for (int i = 0; i < READS; i++) {
+            read.run();
+        }
+        return (System.nanoTime() - started) / 1e6 / READS;
+    }
+
+    private List<Long> createVoters(int count) {
+        String runId = UUID.randomUUID().toString().substring(0, 8);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"latency-" + runId + "-" + i + "@example.com", "Latency Voter " + i, runId + String.format("%056d", i)});
+        }
+        jdbcTemplate.batchUpdate("insert into voters (email, full_name, pesel_hash) values (?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("select id from voters where email like ? order by id", Long.class, "latency-" + runId + "-%");
+    }
+
+    private long createElection(String name) {
+        Instant now = Instant.now();
+        return jdbcTemplate.queryForObject(
+                "insert into elections (name, starts_at, ends_at) values (?, ?, ?) returning id", Long.class,
+                name, Timestamp.from(now.minus(Duration.ofDays(1))), Timestamp.from(now.plus(Duration.ofDays(1))));
+    }
+
+    private long createOption(long electionId) {
+        return jdbcTemplate.queryForObject(
+                "insert into election_options (election_id, label) values (?, 'A') returning id", Long.class, electionId);
+    }
+}
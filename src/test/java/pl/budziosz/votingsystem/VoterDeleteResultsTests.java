@@ -0,0 +1,114 @@
+package pl.budziosz.votingsystem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository.OptionVotes;
+import pl.budziosz.votingsystem.repository.VoteExportRepository;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository;
+import pl.budziosz.votingsystem.repository.VoteRepository;
+import pl.budziosz.votingsystem.repository.VoteRepository.OptionCount;
+import pl.budziosz.votingsystem.service.AdminVoterService;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Deleting a voter cascades to their votes; the results read from the tallies must follow, and keep agreeing with
+ * the export, which counts the votes table.
+ */
+@SpringBootTest
+class VoterDeleteResultsTests extends BaseIntegrationTest {
+
+    @Autowired
+    private AdminVoterService adminVoterService;
+
+    @Autowired
+    private VoteJdbcRepository voteJdbcRepository;
+
+    @Autowired
+    private ElectionOptionTallyRepository tallyRepository;
+
+    @Autowired
+    private VoteRepository voteRepository;
+
+    @Autowired
+    private VoteExportRepository voteExportRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void deletingVoter_takesTheirVotesOutOfResults() {
+        long first = createElection();
+        long second = createElection();
+        long firstA = createOption(first, "A");
+        long firstB = createOption(first, "B");
+        long secondA = createOption(second, "A");
+        long leaving = createVoter();
+        long staying = createVoter();
+        vote(first, leaving, firstA, 0);
+        vote(second, leaving, secondA, 1);
+        vote(first, staying, firstA, 1);
+        vote(first, createVoter(), firstB, 0);
+
+        adminVoterService.delete(leaving);
+
+        assertEquals(List.of(1L, 1L), results(first));
+        assertEquals(List.of(0L), results(second));
+        assertEquals(results(first), exported(first));
+        assertEquals(results(second), exported(second));
+    }
+
+    private void vote(long electionId, long voterId, long optionId, int shard) {
+        transactionTemplate.executeWithoutResult(status -> {
+            voteJdbcRepository.insertVotes(List.of(
+                    new VoteRequestedEvent(UUID.randomUUID().toString(), electionId, voterId, optionId, Instant.now())));
+            tallyRepository.addVotes(List.of(new OptionVotes(electionId, optionId, 1)), shard);
+        });
+    }
+
+    private List<Long> results(long electionId) {
+        return voteRepository.countResultsByElection(electionId).stream().map(OptionCount::getVotes).toList();
+    }
+
+    private List<Long> exported(long electionId) {
+        List<Long> votes = new ArrayList<>();
+        voteExportRepository.forEachOptionCount(electionId, rs -> votes.add(rs.getLong("votes")));
+        return votes;
+    }
+
+    private long createElection() {
+        Instant now = Instant.now();
+        return jdbcTemplate.queryForObject(
+                "insert into elections (name, starts_at, ends_at) values (?, ?, ?) returning id", Long.class,
+                "voter-delete-" + UUID.randomUUID(), Timestamp.from(now.minus(Duration.ofDays(1))),
+                Timestamp.from(now.plus(Duration.ofDays(1))));
+    }
+
+    private long createOption(long electionId, String label) {
+        return jdbcTemplate.queryForObject(
+                "insert into election_options (election_id, label) values (?, ?) returning id", Long.class,
+                electionId, label);
+    }
+
+    private long createVoter() {
+        String id = UUID.randomUUID().toString();
+        return jdbcTemplate.queryForObject(
+                "insert into voters (email, full_name, pesel_hash) values (?, 'Leaving Voter', ?) returning id", Long.class,
+                "voter-delete-" + id + "@example.com", id.replace("-", "") + id.replace("-", ""));
+    }
+}
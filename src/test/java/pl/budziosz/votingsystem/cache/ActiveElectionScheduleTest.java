@@ -0,0 +1,108 @@
+package pl.budziosz.votingsystem.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.cache.ActiveElectionSchedule.Schedule;
+import pl.budziosz.votingsystem.model.domain.Election;
+import pl.budziosz.votingsystem.model.dto.ElectionDtos.ElectionResponse;
+import pl.budziosz.votingsystem.repository.ElectionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ActiveElectionScheduleTest {
+
+    private static final Instant T = Instant.parse("2025-06-01T12:00:00Z");
+
+    private ElectionRepository electionRepository;
+    private TaskScheduler taskScheduler;
+    private ActiveElectionSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        electionRepository = Mockito.mock(ElectionRepository.class);
+        taskScheduler = Mockito.mock(TaskScheduler.class);
+        ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+        schedule = new ActiveElectionSchedule(electionRepository, objectMapper, taskScheduler);
+        ReflectionTestUtils.setField(schedule, "enabled", true);
+    }
+
+    private static ElectionResponse response(long id, Instant startsAt, Instant endsAt) {
+        return new ElectionResponse(id, "E" + id, null, startsAt, endsAt);
+    }
+
+    private static Election election(long id, Instant startsAt, Instant endsAt) {
+        Election e = new Election();
+        e.setId(id);
+        e.setName("E" + id);
+        e.setStartsAt(startsAt);
+        e.setEndsAt(endsAt);
+        return e;
+    }
+
+    @Test
+    void schedule_activeAtIncludesBothBoundaries() {
+        ElectionResponse a = response(1L, T, T.plus(Duration.ofHours(1)));
+        ElectionResponse b = response(2L, T, T.plus(Duration.ofHours(2)));
+        ElectionResponse c = response(3L, T.plus(Duration.ofHours(3)), T.plus(Duration.ofHours(4)));
+        Schedule s = new Schedule(List.of(a, b, c));
+
+        assertEquals(List.of(), s.activeAt(T.minusNanos(1)));
+        assertEquals(List.of(a, b), s.activeAt(T));
+        assertEquals(List.of(a, b), s.activeAt(T.plus(Duration.ofHours(1))));
+        assertEquals(List.of(b), s.activeAt(T.plus(Duration.ofHours(1)).plusNanos(1)));
+        assertEquals(List.of(c), s.activeAt(T.plus(Duration.ofHours(3))));
+    }
+
+    @Test
+    void schedule_nextBoundaryIsNearestStartOrEnd() {
+        Schedule s = new Schedule(List.of(
+                response(1L, T, T.plus(Duration.ofHours(1))),
+                response(2L, T.plus(Duration.ofMinutes(90)), T.plus(Duration.ofHours(2)))));
+
+        assertEquals(T, s.nextBoundaryAfter(T.minusSeconds(1)));
+        assertEquals(T.plus(Duration.ofHours(1)).plusNanos(1), s.nextBoundaryAfter(T));
+        assertEquals(T.plus(Duration.ofMinutes(90)), s.nextBoundaryAfter(T.plus(Duration.ofHours(1)).plusNanos(1)));
+        assertNull(s.nextBoundaryAfter(T.plus(Duration.ofHours(3))));
+    }
+
+    @Test
+    void reload_schedulesRefreshAtNextBoundaryAndKeepsBodyWhileSetUnchanged() {
+        Instant now = Instant.now();
+        Election running = election(1L, now.minus(Duration.ofHours(1)), now.plus(Duration.ofHours(1)));
+        when(electionRepository.findEndingAtOrAfter(any())).thenReturn(List.of(running));
+
+        schedule.reload();
+
+        assertTrue(schedule.isReady());
+        assertEquals(List.of(1L), schedule.active(now.plusSeconds(1)).stream().map(ElectionResponse::id).toList());
+        verify(taskScheduler).schedule(any(Runnable.class), eq(running.getEndsAt().plusNanos(1)));
+        byte[] body = schedule.activeBody(now.plusSeconds(1));
+        assertTrue(new String(body).contains("\"name\":\"E1\""));
+
+        schedule.reload();
+
+        assertSame(body, schedule.activeBody(now.plusSeconds(2)));
+    }
+
+    @Test
+    void isReady_falseWhenDisabled() {
+        ReflectionTestUtils.setField(schedule, "enabled", false);
+
+        schedule.load();
+
+        assertFalse(schedule.isReady());
+        verifyNoInteractions(electionRepository);
+    }
+}
@@ -0,0 +1,102 @@
+package pl.budziosz.votingsystem.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository.OptionVotes;
+import pl.budziosz.votingsystem.service.VoteStoredEvent;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VoteTallyTest {
+
+    private ElectionOptionTallyRepository tallyRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private VoteTally tally;
+
+    @BeforeEach
+    void setUp() {
+        tallyRepository = Mockito.mock(ElectionOptionTallyRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        tally = new VoteTally(tallyRepository, meterRegistry);
+        ReflectionTestUtils.setField(tally, "enabled", true);
+    }
+
+    @Test
+    void load_seedsCountersFromTallyTable() {
+        when(tallyRepository.sumByOption()).thenReturn(List.of(new OptionVotes(1L, 3L, 5), new OptionVotes(1L, 4L, 2)));
+        tally.onVoteStored(new VoteStoredEvent(1L, 9L, 3L));
+
+        tally.load();
+
+        assertTrue(tally.isReady());
+        assertEquals(5, tally.count(1L, 3L));
+        assertEquals(2, tally.count(1L, 4L));
+        assertEquals(0, tally.count(2L, 3L));
+    }
+
+    @Test
+    void onVoteStored_incrementsOption() {
+        when(tallyRepository.sumByOption()).thenReturn(List.of());
+        tally.load();
+
+        tally.onVoteStored(new VoteStoredEvent(1L, 9L, 3L));
+        tally.onVoteStored(new VoteStoredEvent(1L, 10L, 3L));
+
+        assertEquals(2, tally.count(1L, 3L));
+    }
+
+    @Test
+    void reconcile_reportsAndCorrectsDrift() {
+        when(tallyRepository.sumByOption()).thenReturn(List.of(new OptionVotes(1L, 3L, 5)));
+        tally.load();
+        tally.onVoteStored(new VoteStoredEvent(1L, 9L, 3L));
+        when(tallyRepository.sumByOption()).thenReturn(List.of(new OptionVotes(1L, 3L, 8), new OptionVotes(2L, 6L, 1)));
+
+        tally.reconcile();
+
+        assertEquals(8, tally.count(1L, 3L));
+        assertEquals(1, tally.count(2L, 6L));
+        assertEquals(3, meterRegistry.get("votes.tally.drift").gauge().value());
+    }
+
+    @Test
+    void reconcile_whileWritersCount_correctsDriftAndKeepsTheirVotes() {
+        when(tallyRepository.sumByOption()).thenReturn(List.of(new OptionVotes(1L, 3L, 5)));
+        tally.load();
+        // Another node stored 100 votes; while SQL counts them, four consumers here store 50 votes each.
+        when(tallyRepository.sumByOption()).thenAnswer(invocation -> {
+            List<Thread> writers = IntStream.range(0, 4).mapToObj(w -> Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 50; i++) {
+                    tally.onVoteStored(new VoteStoredEvent(1L, (long) w * 50 + i, 3L));
+                }
+            })).toList();
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            return List.of(new OptionVotes(1L, 3L, 105));
+        });
+
+        tally.reconcile();
+
+        assertEquals(305, tally.count(1L, 3L));
+        assertEquals(100, meterRegistry.get("votes.tally.drift").gauge().value());
+    }
+
+    @Test
+    void evictOption_dropsItsCounter() {
+        when(tallyRepository.sumByOption()).thenReturn(List.of(new OptionVotes(1L, 3L, 5)));
+        tally.load();
+
+        tally.evictOption(1L, 3L);
+
+        assertEquals(0, tally.count(1L, 3L));
+    }
+}
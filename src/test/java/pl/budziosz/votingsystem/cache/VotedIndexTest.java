@@ -0,0 +1,63 @@
+package pl.budziosz.votingsystem.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository;
+import pl.budziosz.votingsystem.service.VoteStoredEvent;
+
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class VotedIndexTest {
+
+    private VoteJdbcRepository voteJdbcRepository;
+    private VotedIndex index;
+
+    @BeforeEach
+    void setUp() {
+        voteJdbcRepository = Mockito.mock(VoteJdbcRepository.class);
+        index = new VotedIndex(voteJdbcRepository);
+        ReflectionTestUtils.setField(index, "enabled", true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void load_indexesEveryStoredVote() {
+        doAnswer(inv -> {
+            BiConsumer<Long, Long> consumer = inv.getArgument(1);
+            consumer.accept(1L, 10L);
+            consumer.accept(1L, 11L);
+            consumer.accept(2L, 10L);
+            return null;
+        }).when(voteJdbcRepository).forEachVote(isNull(), any(BiConsumer.class));
+
+        index.load();
+
+        assertTrue(index.hasVoted(1L, 10L));
+        assertTrue(index.hasVoted(1L, 11L));
+        assertTrue(index.hasVoted(2L, 10L));
+        assertFalse(index.hasVoted(2L, 11L));
+        assertFalse(index.hasVoted(3L, 10L));
+    }
+
+    @Test
+    void onVoteStored_marksVoter_andEvictRemovesElection() {
+        index.onVoteStored(new VoteStoredEvent(5L, 3_000_000_000L, 1L));
+        assertTrue(index.hasVoted(5L, 3_000_000_000L));
+
+        index.evictElection(5L);
+        assertFalse(index.hasVoted(5L, 3_000_000_000L));
+    }
+
+    @Test
+    void disabled_neverReportsVoted() {
+        ReflectionTestUtils.setField(index, "enabled", false);
+        index.markVoted(1L, 1L);
+        assertFalse(index.hasVoted(1L, 1L));
+    }
+}
@@ -0,0 +1,64 @@
+package pl.budziosz.votingsystem.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.cache.VoterStatusCache.VoterStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoterStatusCacheTest {
+
+    private VoterStatusCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VoterStatusCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+    }
+
+    @Test
+    void status_isUnknownUntilReplayCaughtUp() {
+        cache.apply(1L, true);
+
+        assertEquals(VoterStatus.UNKNOWN, cache.status(1L));
+        cache.markReady();
+        assertEquals(VoterStatus.BLOCKED, cache.status(1L));
+        assertEquals(VoterStatus.UNKNOWN, cache.status(2L));
+    }
+
+    @Test
+    void apply_overwritesAndRemoveForgets() {
+        cache.markReady();
+        cache.apply(1L, true);
+        cache.apply(1L, false);
+        assertEquals(VoterStatus.ACTIVE, cache.status(1L));
+
+        cache.remove(1L);
+        assertEquals(VoterStatus.UNKNOWN, cache.status(1L));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void learn_neverOverridesStatusFromTopic() {
+        cache.markReady();
+        cache.apply(1L, true);
+
+        cache.learn(1L, false);
+        cache.learn(2L, true);
+
+        assertEquals(VoterStatus.BLOCKED, cache.status(1L));
+        assertEquals(VoterStatus.BLOCKED, cache.status(2L));
+        cache.apply(2L, false);
+        assertEquals(VoterStatus.ACTIVE, cache.status(2L));
+    }
+
+    @Test
+    void disabled_alwaysUnknown() {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        cache.apply(1L, false);
+        cache.markReady();
+
+        assertEquals(VoterStatus.UNKNOWN, cache.status(1L));
+    }
+}
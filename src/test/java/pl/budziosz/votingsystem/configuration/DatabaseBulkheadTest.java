@@ -0,0 +1,61 @@
+package pl.budziosz.votingsystem.configuration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import pl.budziosz.votingsystem.configuration.DatabaseBulkhead.BulkheadDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DatabaseBulkheadTest {
+
+    private DataSource target;
+    private BulkheadDataSource bulkhead;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        target = Mockito.mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(inv -> Mockito.mock(Connection.class));
+        bulkhead = (BulkheadDataSource) new DatabaseBulkhead(2, Duration.ofMillis(50))
+                .postProcessAfterInitialization(target, "dataSource");
+    }
+
+    @Test
+    void failsFastWhenAllPermitsAreHeldAndRecoversOnClose() throws SQLException {
+        Connection first = bulkhead.getConnection();
+        Connection second = bulkhead.getConnection();
+
+        assertThrows(SQLTransientConnectionException.class, bulkhead::getConnection);
+
+        first.close();
+        first.close();
+        assertEquals(1, bulkhead.availablePermits());
+        bulkhead.getConnection();
+        second.close();
+        assertEquals(1, bulkhead.availablePermits());
+    }
+
+    @Test
+    void delegatesCallsAndReleasesPermitWhenTheTargetFails() throws SQLException {
+        Connection connection = bulkhead.getConnection();
+        connection.setAutoCommit(false);
+        connection.close();
+
+        when(target.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        assertThrows(SQLException.class, bulkhead::getConnection);
+        assertEquals(2, bulkhead.availablePermits());
+    }
+
+    @Test
+    void leavesOtherBeansAlone() {
+        Object bean = new Object();
+        assertSame(bean, new DatabaseBulkhead(2, Duration.ofMillis(50)).postProcessAfterInitialization(bean, "other"));
+    }
+}
@@ -0,0 +1,44 @@
+package pl.budziosz.votingsystem.configuration;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KafkaProducerConfigTest {
+
+    // The conversion service SpringApplication registers, which binds lower-case enum values.
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withConfiguration(AutoConfigurations.of(KafkaAutoConfiguration.class))
+            .withUserConfiguration(KafkaProducerConfig.class)
+            .withPropertyValues("app.kafka.producer.delivery-mode=fire_and_forget");
+
+    @Test
+    void voteProducerSettings_stayOffTheSharedProducer() {
+        runner.run(context -> {
+            Map<String, Object> shared = context.getBean("kafkaProducerFactory", ProducerFactory.class)
+                    .getConfigurationProperties();
+            assertFalse(shared.containsKey(ProducerConfig.ACKS_CONFIG));
+            assertFalse(shared.containsKey(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+            assertFalse(shared.containsKey(ProducerConfig.MAX_BLOCK_MS_CONFIG));
+            assertSame(context.getBean("kafkaProducerFactory"), context.getBean(KafkaTemplate.class).getProducerFactory());
+
+            Map<String, Object> votes = context.getBean("voteKafkaTemplate", KafkaTemplate.class).getProducerFactory()
+                    .getConfigurationProperties();
+            assertEquals("0", votes.get(ProducerConfig.ACKS_CONFIG));
+            assertEquals(false, votes.get(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG));
+            assertEquals(500L, votes.get(ProducerConfig.MAX_BLOCK_MS_CONFIG));
+            assertEquals("lz4", votes.get(ProducerConfig.COMPRESSION_TYPE_CONFIG));
+        });
+    }
+}
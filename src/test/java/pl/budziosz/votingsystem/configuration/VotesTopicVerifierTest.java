@@ -0,0 +1,95 @@
+package pl.budziosz.votingsystem.configuration;
+
+import org.apache.kafka.clients.admin.Admin;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationContextException;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VotesTopicVerifierTest {
+
+    private static EmbeddedKafkaKraftBroker broker;
+
+    @BeforeAll
+    static void startBroker() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.destroy();
+    }
+
+    @Test
+    void existingTopicWithFewerPartitions_failsStartupWithoutGrowingIt() throws Exception {
+        broker.addTopics(new NewTopic("votes-fewer", 1, (short) 1));
+
+        ApplicationContextException ex = assertThrows(ApplicationContextException.class,
+                () -> start("votes-fewer", 3, true));
+
+        assertEquals("Topic 'votes-fewer' has 1 partitions but app.kafka.topics.votes.partitions=3",
+                ex.getCause().getMessage());
+        assertEquals(1, partitions("votes-fewer"));
+    }
+
+    @Test
+    void toleratedMismatch_leavesExistingTopicAsItIs() throws Exception {
+        broker.addTopics(new NewTopic("votes-tolerated", 1, (short) 1));
+
+        start("votes-tolerated", 3, false).close();
+
+        assertEquals(1, partitions("votes-tolerated"));
+        assertEquals(3, partitions("votes-tolerated-dlt"));
+    }
+
+    @Test
+    void missingTopics_areCreatedWithConfiguredPartitions() throws Exception {
+        start("votes-missing", 2, true).close();
+
+        assertEquals(2, partitions("votes-missing"));
+        assertEquals(2, partitions("votes-missing-dlt"));
+    }
+
+    // Like the application: KafkaAdmin initializes after all singletons, with the votes topic declared at the
+    // configured partition count as the @RetryableTopic listener does, then the verifier starts.
+    private static AnnotationConfigApplicationContext start(String topic, int partitions, boolean failOnMismatch) {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("test", Map.of(
+                "app.kafka.topics.votes", topic,
+                "app.kafka.topics.votes.partitions", partitions,
+                "app.kafka.topics.votes.fail-on-partition-mismatch", failOnMismatch)));
+        context.registerBean(KafkaAdmin.class, () -> new KafkaAdmin(adminConfig()));
+        context.registerBean("declaredVotesTopic", NewTopic.class,
+                () -> TopicBuilder.name(topic).partitions(partitions).replicas(1).build());
+        context.registerBean(VotesTopicVerifier.class);
+        context.refresh();
+        return context;
+    }
+
+    private static int partitions(String topic) throws Exception {
+        try (Admin admin = Admin.create(adminConfig())) {
+            assertTrue(admin.listTopics().names().get(10, TimeUnit.SECONDS).containsAll(Set.of(topic)));
+            return admin.describeTopics(List.of(topic)).allTopicNames().get(10, TimeUnit.SECONDS)
+                    .get(topic).partitions().size();
+        }
+    }
+
+    private static Map<String, Object> adminConfig() {
+        return Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+    }
+}
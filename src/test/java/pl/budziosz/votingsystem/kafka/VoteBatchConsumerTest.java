@@ -0,0 +1,141 @@
+package pl.budziosz.votingsystem.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
+import pl.budziosz.votingsystem.service.VoteIngestMode;
+import pl.budziosz.votingsystem.service.VotePipelineMetrics;
+import pl.budziosz.votingsystem.service.VotingService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class VoteBatchConsumerTest {
+
+    private VotingService votingService;
+    private VoteDeadLetters deadLetters;
+    private VoteBatchConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        votingService = Mockito.mock(VotingService.class);
+        deadLetters = Mockito.mock(VoteDeadLetters.class);
+        consumer = new VoteBatchConsumer(votingService, deadLetters, new VotePipelineMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(consumer, "ingestMode", VoteIngestMode.JPA);
+    }
+
+    private static ConsumerRecord<String, VoteRequestedEvent> record(long offset, String eventId) {
+        return new ConsumerRecord<>("votes", 0, offset, "2",
+                new VoteRequestedEvent(eventId, 1L, 2L, 3L, Instant.parse("2025-12-15T12:00:00Z")));
+    }
+
+    @Test
+    void handle_deadLettersOnlyRejectedEvents() {
+        ConsumerRecord<String, VoteRequestedEvent> stored = record(0, "a");
+        ConsumerRecord<String, VoteRequestedEvent> rejected = record(1, "b");
+        when(votingService.processBatch(List.of(stored.value(), rejected.value()), 0))
+                .thenReturn(Map.of(rejected.value(), RejectionReason.OUTSIDE_WINDOW));
+
+        consumer.handle(List.of(stored, rejected));
+
+        verify(deadLetters).publish(rejected, RejectionReason.OUTSIDE_WINDOW);
+        verifyNoMoreInteractions(deadLetters);
+    }
+
+    @Test
+    void handle_deadLetterNotTaken_failsBatchAtThatRecord() {
+        ConsumerRecord<String, VoteRequestedEvent> stored = record(0, "a");
+        ConsumerRecord<String, VoteRequestedEvent> rejected = record(1, "b");
+        when(votingService.processBatch(any(), anyInt())).thenReturn(Map.of(rejected.value(), RejectionReason.VOTER_BLOCKED));
+        KafkaException sendFailure = new KafkaException("Cannot dead-letter vote event b (VOTER_BLOCKED)");
+        doThrow(sendFailure).when(deadLetters).publish(rejected, RejectionReason.VOTER_BLOCKED);
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.handle(List.of(stored, rejected)));
+
+        assertEquals(1, ex.getIndex());
+        assertSame(sendFailure, ex.getCause());
+    }
+
+    @Test
+    void handle_batchFails_fallsBackToOneEventAtATimeAndDeadLettersRejections() {
+        ConsumerRecord<String, VoteRequestedEvent> valid = record(0, "a");
+        ConsumerRecord<String, VoteRequestedEvent> rejected = record(1, "b");
+        when(votingService.processBatch(any(), anyInt())).thenThrow(new IllegalStateException("deadlock"));
+        doThrow(new VoteRejectedException(RejectionReason.OPTION_NOT_FOUND)).when(votingService).processEvent(rejected.value(), 0);
+
+        consumer.handle(List.of(valid, rejected));
+
+        verify(votingService).processEvent(valid.value(), 0);
+        verify(deadLetters).publish(rejected, RejectionReason.OPTION_NOT_FOUND);
+        verifyNoMoreInteractions(deadLetters);
+    }
+
+    @Test
+    void handle_nativeFallback_deadLettersRejectedOutcome() {
+        ReflectionTestUtils.setField(consumer, "ingestMode", VoteIngestMode.NATIVE);
+        ConsumerRecord<String, VoteRequestedEvent> rejected = record(0, "a");
+        when(votingService.processBatch(any(), anyInt())).thenThrow(new IllegalStateException("deadlock"));
+        when(votingService.processEventNative(rejected.value(), 0)).thenReturn(VoteOutcome.rejected(RejectionReason.EXPIRED));
+
+        consumer.handle(List.of(rejected));
+
+        verify(deadLetters).publish(rejected, RejectionReason.EXPIRED);
+    }
+
+    @Test
+    void handle_fallbackFailure_failsBatchAtThatRecordWithoutDeadLettering() {
+        ConsumerRecord<String, VoteRequestedEvent> failing = record(0, "a");
+        IllegalStateException failure = new IllegalStateException("db down");
+        when(votingService.processBatch(any(), anyInt())).thenThrow(failure);
+        doThrow(failure).when(votingService).processEvent(failing.value(), 0);
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.handle(List.of(failing)));
+
+        assertEquals(0, ex.getIndex());
+        assertSame(failure, ex.getCause());
+        verifyNoInteractions(deadLetters);
+    }
+
+    @Test
+    void handle_undeserializableRecord_processesThoseBeforeItAndFailsWithTheDeserializationError() {
+        ConsumerRecord<String, VoteRequestedEvent> readable = record(0, "a");
+        RecordHeaders headers = new RecordHeaders();
+        byte[] payload = "{not json".getBytes(StandardCharsets.UTF_8);
+        SerializationUtils.deserializationException(headers, payload,
+                new DeserializationException("failed to deserialize", payload, false, new IllegalArgumentException("bad")), false);
+        ConsumerRecord<String, VoteRequestedEvent> unreadable = new ConsumerRecord<>("votes", 0, 1L, 0L,
+                TimestampType.CREATE_TIME, 0, payload.length, "2", null, headers, Optional.empty());
+        when(votingService.processBatch(any(), anyInt())).thenReturn(Map.of());
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class,
+                () -> consumer.handle(List.of(readable, unreadable, record(2, "c"))));
+
+        verify(votingService).processBatch(List.of(readable.value()), 0);
+        assertEquals(1, ex.getIndex());
+        DeserializationException cause = assertInstanceOf(DeserializationException.class, ex.getCause());
+        assertArrayEquals(payload, cause.getData());
+        verifyNoInteractions(deadLetters);
+    }
+}
@@ -0,0 +1,101 @@
+package pl.budziosz.votingsystem.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.apache.kafka.common.header.Headers;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class VoteDeadLettersTest {
+
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private VoteDeadLetters deadLetters;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+        deadLetters = new VoteDeadLetters(kafkaTemplate);
+        ReflectionTestUtils.setField(deadLetters, "sendTimeout", Duration.ofMillis(50));
+    }
+
+    private ConsumerRecord<String, VoteRequestedEvent> sampleRecord() {
+        return new ConsumerRecord<>("votes", 2, 40L, "7",
+                new VoteRequestedEvent("123", 1L, 7L, 3L, Instant.parse("2025-12-15T12:00:00Z")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_sendsToDeadLetterTopicWithReason() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        ConsumerRecord<String, VoteRequestedEvent> record = sampleRecord();
+
+        deadLetters.publish(record, RejectionReason.OUTSIDE_WINDOW);
+
+        ArgumentCaptor<ProducerRecord<String, Object>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(sent.capture());
+        assertEquals("votes-dlt", sent.getValue().topic());
+        assertNull(sent.getValue().partition());
+        assertEquals("7", sent.getValue().key());
+        assertSame(record.value(), sent.getValue().value());
+        assertEquals("OUTSIDE_WINDOW", reason(sent.getValue().headers()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_sendFails_throws() {
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("buffer full")));
+
+        KafkaException ex = assertThrows(KafkaException.class,
+                () -> deadLetters.publish(sampleRecord(), RejectionReason.VOTER_BLOCKED));
+
+        assertEquals("Cannot dead-letter vote event 123 (VOTER_BLOCKED)", ex.getMessage());
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publish_noAckWithinTimeout_throws() {
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(new CompletableFuture<>());
+
+        KafkaException ex = assertThrows(KafkaException.class,
+                () -> deadLetters.publish(sampleRecord(), RejectionReason.VOTER_BLOCKED));
+
+        assertInstanceOf(java.util.concurrent.TimeoutException.class, ex.getCause());
+    }
+
+    @Test
+    void rejectionHeaders_findsRejectionAnywhereInCauseChain() {
+        Exception failure = new RuntimeException("listener failed", new VoteRejectedException(RejectionReason.OPTION_NOT_FOUND));
+
+        assertEquals("OPTION_NOT_FOUND", reason(VoteDeadLetters.rejectionHeaders(sampleRecord(), failure)));
+    }
+
+    @Test
+    void rejectionHeaders_otherFailure_addsNothing() {
+        assertNull(VoteDeadLetters.rejectionHeaders(sampleRecord(), new IllegalStateException("db down")));
+    }
+
+    private static String reason(Headers headers) {
+        return new String(headers.lastHeader(VoteDeadLetters.REJECTION_REASON_HEADER).value(), StandardCharsets.UTF_8);
+    }
+}
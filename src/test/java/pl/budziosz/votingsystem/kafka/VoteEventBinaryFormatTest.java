@@ -0,0 +1,83 @@
+package pl.budziosz.votingsystem.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoteEventBinaryFormatTest {
+
+    private final VoteRequestedEvent event = new VoteRequestedEvent(
+            "9b2f6a8e-3c1d-4e5f-8a7b-0c9d8e7f6a5b", 1_024L, 123_456L, 4_096L, Instant.parse("2025-12-15T12:00:00.123456Z"));
+
+    @Test
+    void encodeDecode_roundTrips() {
+        byte[] data = VoteEventBinaryFormat.encode(event);
+
+        assertEquals(VoteEventBinaryFormat.VERSION_1_SIZE, data.length);
+        assertEquals(event, VoteEventBinaryFormat.decode(data));
+    }
+
+    @Test
+    void encode_truncatesRequestedAtToMicros() {
+        VoteRequestedEvent nanos = new VoteRequestedEvent(event.eventId(), 1L, 2L, 3L, Instant.parse("2025-12-15T12:00:00.123456789Z"));
+
+        assertEquals(Instant.parse("2025-12-15T12:00:00.123456Z"), VoteEventBinaryFormat.decode(VoteEventBinaryFormat.encode(nanos)).requestedAt());
+    }
+
+    @Test
+    void decode_rejectsUnknownVersion() {
+        byte[] data = VoteEventBinaryFormat.encode(event);
+        data[1] = 2;
+
+        assertThrows(IllegalArgumentException.class, () -> VoteEventBinaryFormat.decode(data));
+    }
+
+    @Test
+    void binaryRecord_isMuchSmallerThanJsonWithTypeHeader() {
+        RecordHeaders headers = new RecordHeaders();
+        try (JsonSerializer<Object> json = new JsonSerializer<>()) {
+            byte[] value = json.serialize("votes", headers, event);
+            int jsonSize = value.length;
+            for (Header h : headers) {
+                jsonSize += h.key().length() + h.value().length;
+            }
+
+            int binarySize = new VoteEventBinarySerializer().serialize("votes", event).length;
+
+            assertTrue(jsonSize >= 3.5 * binarySize, "json=" + jsonSize + " binary=" + binarySize);
+        }
+    }
+
+    @Test
+    void deserializer_readsBothFormats() {
+        VoteEventDeserializer deserializer = new VoteEventDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.VALUE_DEFAULT_TYPE, VoteRequestedEvent.class.getName()), false);
+
+        byte[] json;
+        try (JsonSerializer<Object> serializer = new JsonSerializer<>()) {
+            json = serializer.serialize("votes", event);
+        }
+
+        assertEquals(event, deserializer.deserialize("votes", new RecordHeaders(), json));
+        assertEquals(event, deserializer.deserialize("votes", new RecordHeaders(), VoteEventBinaryFormat.encode(event)));
+        assertThrows(SerializationException.class,
+                () -> deserializer.deserialize("votes", new RecordHeaders(), new byte[]{VoteEventBinaryFormat.MAGIC, 9}));
+    }
+
+    @Test
+    void serializer_passesRawBytesThrough() {
+        byte[] raw = "not json{".getBytes();
+
+        assertSame(raw, new VoteEventBinarySerializer().serialize("votes-dlt", raw));
+    }
+}
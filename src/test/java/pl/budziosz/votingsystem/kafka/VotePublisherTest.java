@@ -0,0 +1,80 @@
+package pl.budziosz.votingsystem.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VotePublisherTest {
+
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private VotePublisher publisher;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        publisher = new VotePublisher(kafkaTemplate, meterRegistry);
+        ReflectionTestUtils.setField(publisher, "votesTopic", "votes");
+        ReflectionTestUtils.setField(publisher, "deliveryMode", VoteDeliveryMode.ALL);
+        ReflectionTestUtils.setField(publisher, "ackTimeout", Duration.ofMillis(50));
+    }
+
+    private VoteRequestedEvent sampleEvent() {
+        return new VoteRequestedEvent("123", 1L, 2L, 3L, Instant.parse("2025-12-15T12:00:00Z"));
+    }
+
+    @Test
+    void publish_acknowledged_recordsLatencyForMode() {
+        when(kafkaTemplate.send(eq("votes"), eq("2"), any())).thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        publisher.publish(sampleEvent());
+
+        assertEquals(1, meterRegistry.get("votes.publish").tag("mode", "ALL").tag("outcome", "ok").timer().count());
+    }
+
+    @Test
+    void publish_bufferFull_answers503() {
+        when(kafkaTemplate.send(eq("votes"), eq("2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("buffer full")));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> publisher.publish(sampleEvent()));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+    }
+
+    @Test
+    void publish_noAckWithinTimeout_answers503() {
+        when(kafkaTemplate.send(eq("votes"), eq("2"), any())).thenReturn(new CompletableFuture<>());
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> publisher.publish(sampleEvent()));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        assertEquals(1, meterRegistry.get("votes.publish").tag("outcome", "timeout").timer().count());
+    }
+
+    @Test
+    void publish_fireAndForget_doesNotWaitForAck() {
+        ReflectionTestUtils.setField(publisher, "deliveryMode", VoteDeliveryMode.FIRE_AND_FORGET);
+        when(kafkaTemplate.send(eq("votes"), eq("2"), any())).thenReturn(new CompletableFuture<>());
+
+        assertDoesNotThrow(() -> publisher.publish(sampleEvent()));
+    }
+}
@@ -0,0 +1,113 @@
+package pl.budziosz.votingsystem.kafka;
+
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.model.domain.Voter;
+import pl.budziosz.votingsystem.repository.VoterStatusOutboxRepository;
+import pl.budziosz.votingsystem.repository.VoterStatusOutboxRepository.VoterStatusChange;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class VoterStatusRelayTest {
+
+    private VoterStatusOutboxRepository outboxRepository;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private VoterStatusRelay relay;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outboxRepository = Mockito.mock(VoterStatusOutboxRepository.class);
+        kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+        relay = new VoterStatusRelay(outboxRepository, kafkaTemplate);
+        ReflectionTestUtils.setField(relay, "voterStatusTopic", "voter-status");
+        ReflectionTestUtils.setField(relay, "batchSize", 500);
+        ReflectionTestUtils.setField(relay, "sendTimeout", Duration.ofMillis(50));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_sendsPendingChangesAndDeletesThem() {
+        List<VoterStatusChange> pending = List.of(new VoterStatusChange(4L, true), new VoterStatusChange(5L, null));
+        when(outboxRepository.lockPending(500)).thenReturn(pending);
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        assertEquals(2, relay.relay());
+
+        verify(kafkaTemplate).send("voter-status", "4", new VoterStatusEvent(4L, true));
+        verify(kafkaTemplate).send("voter-status", "5", null);
+        verify(outboxRepository).delete(pending);
+    }
+
+    @Test
+    void relay_nothingPending_sendsNothing() {
+        when(outboxRepository.lockPending(500)).thenReturn(List.of());
+
+        assertEquals(0, relay.relay());
+
+        verifyNoInteractions(kafkaTemplate);
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relay_sendFails_keepsChangesPending() {
+        when(outboxRepository.lockPending(500)).thenReturn(List.of(new VoterStatusChange(4L, true)));
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("metadata")));
+
+        KafkaException ex = assertThrows(KafkaException.class, () -> relay.relay());
+
+        assertInstanceOf(TimeoutException.class, ex.getCause());
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void relay_noAckWithinTimeout_keepsChangesPending() {
+        when(outboxRepository.lockPending(500)).thenReturn(List.of(new VoterStatusChange(4L, false)));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(new CompletableFuture<>());
+
+        assertThrows(KafkaException.class, () -> relay.relay());
+
+        verify(outboxRepository, never()).delete(any());
+    }
+
+    @Test
+    void publisher_writesOutboxRowAndRelaysOutsideTransaction() {
+        VoterStatusPublisher publisher = new VoterStatusPublisher(outboxRepository, relay);
+        Voter voter = new Voter();
+        voter.setId(4L);
+        voter.setBlocked(true);
+        when(outboxRepository.lockPending(500)).thenReturn(List.of());
+
+        publisher.publish(voter);
+        publisher.publishDeleted(5L);
+
+        verify(outboxRepository).save(4L, true);
+        verify(outboxRepository).save(5L, null);
+        verify(outboxRepository, times(2)).lockPending(500);
+    }
+
+    @Test
+    void publisher_relayFailure_leavesChangeForTheNextRun() {
+        VoterStatusRelay failing = Mockito.mock(VoterStatusRelay.class);
+        when(failing.relay()).thenThrow(new KafkaException("broker down"));
+        VoterStatusPublisher publisher = new VoterStatusPublisher(outboxRepository, failing);
+
+        assertDoesNotThrow(() -> publisher.publishDeleted(5L));
+
+        verify(outboxRepository).save(5L, null);
+    }
+}
@@ -0,0 +1,60 @@
+package pl.budziosz.votingsystem.loadgen;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadRunTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void report_latencyRunsFromFirstSendToCommit() {
+        LoadRun run = new LoadRun(7L, List.of(100L, 101L, 102L));
+        run.start(1_000 * MS);
+        run.sent(0, 1_000 * MS);
+        run.sent(1, 1_010 * MS);
+        run.sent(0, 1_500 * MS); // duplicate, keeps the first send time
+        run.answered(202, true, 1_001 * MS);
+        run.answered(202, true, 1_011 * MS);
+        run.answered(409, false, 1_501 * MS);
+        run.committed(7L, 100L, 1_020 * MS);
+        run.committed(7L, 101L, 1_050 * MS);
+        run.committed(7L, 100L, 1_900 * MS); // duplicate commit event, ignored
+
+        LoadReport report = run.report();
+
+        assertEquals(Map.of(202, 2L, 409, 1L), report.statuses());
+        assertEquals(2, report.accepted());
+        assertEquals(2, report.committed());
+        assertEquals(0, report.lost());
+        assertEquals(20.0, report.p50Millis());
+        assertEquals(40.0, report.p99Millis());
+        assertEquals(40.0, report.maxMillis());
+        assertEquals(40.0, report.committedPerSecond(), 1e-9);
+    }
+
+    @Test
+    void committed_ignoresOtherElectionsAndUnknownVoters() {
+        LoadRun run = new LoadRun(7L, List.of(100L));
+        run.start(0);
+        run.sent(0, MS);
+        run.answered(202, true, 2 * MS);
+
+        run.committed(8L, 100L, 3 * MS);
+        run.committed(7L, 999L, 3 * MS);
+
+        assertEquals(0, run.committedCount());
+        assertEquals(1, run.expectedCommits());
+        assertEquals(1, run.report().lost());
+    }
+
+    @Test
+    void quantileMillis_emptyIsZero() {
+        assertEquals(0.0, LoadRun.quantileMillis(new long[0], 0.99));
+        assertEquals(3.0, LoadRun.quantileMillis(new long[]{MS, 2 * MS, 3 * MS}, 0.999));
+    }
+}
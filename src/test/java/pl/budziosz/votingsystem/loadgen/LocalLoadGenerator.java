@@ -0,0 +1,35 @@
+package pl.budziosz.votingsystem.loadgen;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import pl.budziosz.votingsystem.VotingSystemApplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the {@code loadgen} profile, with the {@code dev} one for its PESEL pepper, against an in-process KRaft broker
+ * and the local Postgres from {@code application.properties}, so a load run needs no Kafka installation:
+ * {@code ./mvnw test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=pl.budziosz.votingsystem.loadgen.LocalLoadGenerator -Dexec.args="--app.loadgen.rate=2000"}.
+ * Arguments are passed on to the application.
+ */
+public class LocalLoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        // Topics are created by the application with their configured partition counts.
+        EmbeddedKafkaKraftBroker broker = new EmbeddedKafkaKraftBroker(1, 1);
+        broker.afterPropertiesSet();
+        Runtime.getRuntime().addShutdownHook(new Thread(broker::destroy));
+
+        List<String> appArgs = new ArrayList<>(List.of(
+                "--spring.profiles.active=loadgen,dev",
+                "--spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                // The test classpath's application.properties hides the main one; read the main configuration directly.
+                "--spring.config.additional-location=optional:file:src/main/resources/"
+        ));
+        appArgs.addAll(Arrays.asList(args));
+        SpringApplication.run(VotingSystemApplication.class, appArgs.toArray(String[]::new));
+    }
+}
@@ -0,0 +1,28 @@
+package pl.budziosz.votingsystem.model.domain;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VoteOutcomeTest {
+
+    @Test
+    void of_alreadyProcessedEventWinsOverEverythingElse() {
+        assertEquals(VoteOutcome.Status.ALREADY_PROCESSED, VoteOutcome.of(false, "VOTER_BLOCKED", false).status());
+        assertEquals(VoteOutcome.Status.ALREADY_PROCESSED, VoteOutcome.of(false, null, false).status());
+    }
+
+    @Test
+    void of_mapsRejectionToReason() {
+        VoteOutcome outcome = VoteOutcome.of(true, "OUTSIDE_WINDOW", false);
+        assertTrue(outcome.isRejected());
+        assertEquals(VoteOutcome.RejectionReason.OUTSIDE_WINDOW, outcome.reason());
+        assertTrue(outcome.reason().message().contains("window"));
+    }
+
+    @Test
+    void of_distinguishesStoredFromDuplicate() {
+        assertEquals(VoteOutcome.Status.STORED, VoteOutcome.of(true, null, true).status());
+        assertEquals(VoteOutcome.Status.DUPLICATE_VOTE, VoteOutcome.of(true, null, false).status());
+    }
+}
@@ -3,24 +3,44 @@ package pl.budziosz.votingsystem.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.cache.ActiveElectionSchedule;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.ReferenceDataCache;
+import pl.budziosz.votingsystem.cache.RowCountEstimates;
+import pl.budziosz.votingsystem.cache.VoteTally;
+import pl.budziosz.votingsystem.cache.VotedIndex;
 import pl.budziosz.votingsystem.model.domain.Election;
 import pl.budziosz.votingsystem.model.domain.ElectionOption;
+import pl.budziosz.votingsystem.model.dto.CursorPageDtos.CursorPage;
 import pl.budziosz.votingsystem.model.dto.ElectionDtos;
 import pl.budziosz.votingsystem.model.dto.ElectionOptionDtos;
+import pl.budziosz.votingsystem.model.dto.ElectionResultsDtos.OptionResult;
 import pl.budziosz.votingsystem.repository.ElectionOptionRepository;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
 import pl.budziosz.votingsystem.repository.ElectionRepository;
+import pl.budziosz.votingsystem.repository.ElectionResultsSnapshotRepository.ResultsSnapshot;
+import pl.budziosz.votingsystem.repository.VotePartitionRepository;
 import pl.budziosz.votingsystem.repository.VoteRepository;
+import pl.budziosz.votingsystem.utils.KeysetCursor;
 import pl.budziosz.votingsystem.validators.ElectionValidator;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,7 +50,16 @@ class AdminElectionServiceTest {
     private ElectionRepository electionRepository;
     private ElectionOptionRepository optionRepository;
     private VoteRepository voteRepository;
+    private VotePartitionRepository votePartitionRepository;
+    private ElectionOptionTallyRepository tallyRepository;
     private ElectionValidator electionValidator;
+    private VotedIndex votedIndex;
+    private ReferenceDataCache referenceDataCache;
+    private VoteTally voteTally;
+    private ResultsSnapshotService resultsSnapshotService;
+    private ActiveElectionSchedule activeElectionSchedule;
+    private RowCountEstimates rowCountEstimates;
+    private TransactionTemplate transactionTemplate;
     private AdminElectionService service;
 
     @BeforeEach
@@ -38,8 +67,23 @@ class AdminElectionServiceTest {
         electionRepository = Mockito.mock(ElectionRepository.class);
         optionRepository = Mockito.mock(ElectionOptionRepository.class);
         voteRepository = Mockito.mock(VoteRepository.class);
+        votePartitionRepository = Mockito.mock(VotePartitionRepository.class);
+        tallyRepository = Mockito.mock(ElectionOptionTallyRepository.class);
         electionValidator = Mockito.mock(ElectionValidator.class);
-        service = new AdminElectionService(electionRepository, optionRepository, voteRepository, electionValidator);
+        votedIndex = Mockito.mock(VotedIndex.class);
+        referenceDataCache = Mockito.mock(ReferenceDataCache.class);
+        voteTally = Mockito.mock(VoteTally.class);
+        resultsSnapshotService = Mockito.mock(ResultsSnapshotService.class);
+        activeElectionSchedule = Mockito.mock(ActiveElectionSchedule.class);
+        rowCountEstimates = Mockito.mock(RowCountEstimates.class);
+        transactionTemplate = Mockito.mock(TransactionTemplate.class);
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        service = new AdminElectionService(electionRepository, optionRepository, voteRepository, votePartitionRepository,
+                tallyRepository, electionValidator, votedIndex, referenceDataCache, voteTally, resultsSnapshotService,
+                activeElectionSchedule, rowCountEstimates, transactionTemplate);
     }
 
     @Test
@@ -51,6 +95,37 @@ class AdminElectionServiceTest {
         verify(electionRepository).findAll(pr);
     }
 
+    @Test
+    void scroll_startsAfterCursorAndReturnsNextCursorWhenMoreRowsExist() {
+        when(electionRepository.findByIdGreaterThanOrderByIdAsc(eq(4L), argThat((Limit l) -> l.max() == 3)))
+                .thenReturn(List.of(election(5L), election(8L), election(9L)));
+        when(rowCountEstimates.estimate(RowCountEstimates.ELECTIONS)).thenReturn(1200L);
+
+        CursorPage<Election> page = service.scroll(KeysetCursor.encode(4L), 2, true);
+
+        assertEquals(List.of(5L, 8L), page.items().stream().map(Election::getId).toList());
+        assertEquals(8L, KeysetCursor.decode(page.nextCursor()));
+        assertEquals(1200L, page.totalEstimate());
+    }
+
+    @Test
+    void scroll_lastPageHasNoCursorAndSkipsEstimateUnlessAsked() {
+        when(electionRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), argThat((Limit l) -> l.max() == 21))).thenReturn(List.of(election(1L)));
+
+        CursorPage<Election> page = service.scroll(null, 20, false);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+        assertNull(page.totalEstimate());
+        verifyNoInteractions(rowCountEstimates);
+    }
+
+    private static Election election(long id) {
+        Election e = new Election();
+        e.setId(id);
+        return e;
+    }
+
     @Test
     void create_validatesDates_andSaves() {
         ElectionDtos.ElectionUpsertDto dto = new ElectionDtos.ElectionUpsertDto(
@@ -68,6 +143,7 @@ class AdminElectionServiceTest {
         Election toSave = captor.getValue();
         assertEquals("Wybory", toSave.getName());
         assertEquals("Opis", toSave.getDescription());
+        verify(activeElectionSchedule).reload();
     }
 
     @Test
@@ -109,5 +185,90 @@ class AdminElectionServiceTest {
         when(electionRepository.existsById(100L)).thenReturn(false);
         ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> service.delete(100L));
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+        verifyNoInteractions(votePartitionRepository);
+    }
+
+    @Test
+    void delete_detachesVotesPartitionBeforeTransactionThatDropsItAndElection() {
+        when(electionRepository.existsById(5L)).thenReturn(true);
+
+        service.delete(5L);
+
+        InOrder inOrder = inOrder(votePartitionRepository, transactionTemplate, electionRepository);
+        inOrder.verify(votePartitionRepository).detachElectionPartition(5L);
+        inOrder.verify(transactionTemplate).executeWithoutResult(any());
+        inOrder.verify(votePartitionRepository).dropElectionPartition(5L);
+        inOrder.verify(electionRepository).deleteById(5L);
+    }
+
+    @Test
+    void deleteOption_reloadsVotedIndexOfElection() {
+        Election e = new Election(); e.setId(4L);
+        ElectionOption opt = new ElectionOption(); opt.setId(7L); opt.setElection(e);
+        when(optionRepository.findById(7L)).thenReturn(Optional.of(opt));
+
+        service.deleteOption(4L, 7L);
+
+        verify(optionRepository).deleteById(7L);
+        verify(votedIndex).reloadElection(4L);
+        verify(referenceDataCache).evictElection(4L);
+    }
+
+    @Test
+    void getResults_readsTallyForEveryOption() {
+        when(voteTally.isReady()).thenReturn(true);
+        when(referenceDataCache.findOptions(1L)).thenReturn(List.of(
+                new OptionMetadata(4L, 1L, "B"), new OptionMetadata(3L, 1L, "A")));
+        when(voteTally.count(1L, 3L)).thenReturn(7L);
+
+        List<OptionResult> results = service.getResults(1L);
+
+        assertEquals(List.of(new OptionResult(3L, "A", 7), new OptionResult(4L, "B", 0)), results);
+        verify(electionValidator).ensureElectionExists(1L);
+        verifyNoInteractions(voteRepository);
+    }
+
+    @Test
+    void getResults_countsInSqlUntilTallyIsSeeded() {
+        when(voteTally.isReady()).thenReturn(false);
+
+        service.getResults(1L);
+
+        verify(voteRepository).countResultsByElection(1L);
+        verifyNoInteractions(referenceDataCache);
+    }
+
+    @Test
+    void rebuildResults_recomputesTalliesAndReconcilesCounters() {
+        service.rebuildResults(1L);
+
+        InOrder inOrder = inOrder(electionValidator, tallyRepository, voteTally, voteRepository);
+        inOrder.verify(electionValidator).ensureElectionExists(1L);
+        inOrder.verify(tallyRepository).rebuild(1L);
+        inOrder.verify(voteTally).reconcile();
+        inOrder.verify(voteRepository).countResultsByElection(1L);
+    }
+
+    @Test
+    void rebuildResults_discardsSnapshot() {
+        service.rebuildResults(1L);
+
+        verify(resultsSnapshotService).discard(1L);
+        verify(resultsSnapshotService).evict(1L);
+    }
+
+    @Test
+    void findFinalResults_readsSnapshotOnlyAfterElectionEnded() {
+        Instant now = Instant.now();
+        ResultsSnapshot snapshot = new ResultsSnapshot(1L, "[]", "abc");
+        when(referenceDataCache.findElectionMetadata(1L)).thenReturn(Optional.of(
+                new ElectionMetadata(1L, now.minus(Duration.ofDays(2)), now.minus(Duration.ofDays(1)), Set.of())));
+        when(referenceDataCache.findElectionMetadata(2L)).thenReturn(Optional.of(
+                new ElectionMetadata(2L, now.minus(Duration.ofDays(1)), now.plus(Duration.ofDays(1)), Set.of())));
+        when(resultsSnapshotService.find(1L)).thenReturn(Optional.of(snapshot));
+
+        assertEquals(Optional.of(snapshot), service.findFinalResults(1L));
+        assertEquals(Optional.empty(), service.findFinalResults(2L));
+        verify(resultsSnapshotService, never()).find(2L);
     }
 }
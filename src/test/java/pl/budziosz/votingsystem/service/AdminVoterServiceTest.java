@@ -3,15 +3,22 @@ package pl.budziosz.votingsystem.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.cache.RowCountEstimates;
+import pl.budziosz.votingsystem.kafka.VoterStatusPublisher;
 import pl.budziosz.votingsystem.model.domain.Voter;
+import pl.budziosz.votingsystem.model.dto.CursorPageDtos.CursorPage;
 import pl.budziosz.votingsystem.model.dto.VoterDtos;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository;
 import pl.budziosz.votingsystem.repository.VoterRepository;
+import pl.budziosz.votingsystem.utils.KeysetCursor;
 import pl.budziosz.votingsystem.utils.PeselHasher;
 import pl.budziosz.votingsystem.validators.VoterValidator;
 
@@ -26,6 +33,9 @@ class AdminVoterServiceTest {
     private PeselHasher peselHasher;
     private VoterRepository voterRepository;
     private VoterValidator voterValidator;
+    private VoterStatusPublisher voterStatusPublisher;
+    private RowCountEstimates rowCountEstimates;
+    private ElectionOptionTallyRepository tallyRepository;
     private AdminVoterService service;
 
     @BeforeEach
@@ -33,7 +43,11 @@ class AdminVoterServiceTest {
         peselHasher = Mockito.mock(PeselHasher.class);
         voterRepository = Mockito.mock(VoterRepository.class);
         voterValidator = Mockito.mock(VoterValidator.class);
-        service = new AdminVoterService(peselHasher, voterRepository, voterValidator);
+        voterStatusPublisher = Mockito.mock(VoterStatusPublisher.class);
+        rowCountEstimates = Mockito.mock(RowCountEstimates.class);
+        tallyRepository = Mockito.mock(ElectionOptionTallyRepository.class);
+        service = new AdminVoterService(peselHasher, voterRepository, voterValidator, voterStatusPublisher,
+                rowCountEstimates, tallyRepository);
     }
 
     @Test
@@ -45,6 +59,28 @@ class AdminVoterServiceTest {
         verify(voterRepository).findAll(pr);
     }
 
+    @Test
+    void scroll_returnsPageAfterCursorWithEstimatedTotal() {
+        Voter first = new Voter(); first.setId(11L);
+        Voter second = new Voter(); second.setId(12L);
+        when(voterRepository.findByIdGreaterThanOrderByIdAsc(eq(10L), argThat((Limit l) -> l.max() == 2)))
+                .thenReturn(List.of(first, second));
+        when(rowCountEstimates.estimate(RowCountEstimates.VOTERS)).thenReturn(30_000_000L);
+
+        CursorPage<Voter> page = service.scroll(KeysetCursor.encode(10L), 1, true);
+
+        assertEquals(List.of(first), page.items());
+        assertEquals(11L, KeysetCursor.decode(page.nextCursor()));
+        assertEquals(30_000_000L, page.totalEstimate());
+    }
+
+    @Test
+    void scroll_rejectsForgedCursor() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> service.scroll("not-a-cursor", 20, false));
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verifyNoInteractions(voterRepository);
+    }
+
     @Test
     void get_notFound_throws404() {
         when(voterRepository.findById(1L)).thenReturn(Optional.empty());
@@ -76,6 +112,7 @@ class AdminVoterServiceTest {
         assertEquals("jan@gmail.com", saved.getEmail());
         assertEquals("Jan Kowalski", saved.getFullName());
         assertFalse(saved.isBlocked());
+        verify(voterStatusPublisher).publish(saved);
     }
 
     @Test
@@ -90,5 +127,27 @@ class AdminVoterServiceTest {
         v.setBlocked(true);
         Voter unblocked = service.unblock(5L);
         assertFalse(unblocked.isBlocked());
+        verify(voterStatusPublisher, times(2)).publish(v);
+    }
+
+    @Test
+    void delete_publishesTombstone() {
+        when(voterRepository.existsById(5L)).thenReturn(true);
+
+        service.delete(5L);
+
+        verify(voterRepository).deleteById(5L);
+        verify(voterStatusPublisher).publishDeleted(5L);
+    }
+
+    @Test
+    void delete_takesVotesOutOfTalliesBeforeCascade() {
+        when(voterRepository.existsById(5L)).thenReturn(true);
+
+        service.delete(5L);
+
+        InOrder order = inOrder(tallyRepository, voterRepository);
+        order.verify(tallyRepository).removeVoterVotes(5L);
+        order.verify(voterRepository).deleteById(5L);
     }
 }
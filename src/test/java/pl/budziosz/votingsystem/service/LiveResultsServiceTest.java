@@ -0,0 +1,149 @@
+package pl.budziosz.votingsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import pl.budziosz.votingsystem.model.dto.ElectionResultsDtos.OptionResult;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class LiveResultsServiceTest {
+
+    private AdminElectionService electionService;
+    private SimpleMeterRegistry meterRegistry;
+    private LiveResultsService service;
+
+    @BeforeEach
+    void setUp() {
+        electionService = Mockito.mock(AdminElectionService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new LiveResultsService(electionService, new ObjectMapper(), meterRegistry);
+        ReflectionTestUtils.setField(service, "maxPending", 2);
+        service.registerMeters();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void tick_sendsOnlyChangedResults_serializedOnce() throws Exception {
+        RecordingEmitter first = new RecordingEmitter();
+        RecordingEmitter second = new RecordingEmitter();
+        service.register(1L, first, results(3));
+        service.register(1L, second, results(3));
+        when(electionService.getResults(1L)).thenReturn(results(3), results(4));
+
+        service.tick();
+        service.tick();
+
+        assertTrue(text(first.next()).contains("\"votes\":3"));
+        Set<DataWithMediaType> update = first.next();
+        assertTrue(text(update).contains("id:2"));
+        assertTrue(text(update).contains("\"votes\":4"));
+        second.next();
+        assertSame(update, second.next());
+        assertNull(first.sent.poll(100, TimeUnit.MILLISECONDS));
+        verify(electionService, times(2)).getResults(1L);
+    }
+
+    @Test
+    void tick_dropsSubscriberThatFallsBehind() throws Exception {
+        BlockedEmitter slow = new BlockedEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        service.register(1L, slow, results(0));
+        service.register(1L, fast, results(0));
+        assertTrue(slow.sending.await(1, TimeUnit.SECONDS));
+        assertTrue(text(fast.next()).contains("\"votes\":0"));
+        when(electionService.getResults(1L)).thenReturn(results(1), results(2), results(3));
+
+        // The slow subscriber is stuck on its first frame; the fast one is drained after every tick, so only the slow
+        // one overflows its two pending slots.
+        for (int votes = 1; votes <= 3; votes++) {
+            service.tick();
+            assertTrue(text(fast.next()).contains("\"votes\":" + votes));
+        }
+
+        assertTrue(slow.completed);
+        assertEquals(1, meterRegistry.get("results.stream.dropped").counter().count());
+        assertEquals(1, meterRegistry.get("results.stream.subscribers").gauge().value());
+        slow.release.countDown();
+    }
+
+    @Test
+    void tick_closesStreamsOfDeletedElection() {
+        RecordingEmitter emitter = new RecordingEmitter();
+        service.register(1L, emitter, results(3));
+        when(electionService.getResults(1L)).thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND));
+
+        service.tick();
+        service.tick();
+
+        assertTrue(emitter.completed);
+        assertEquals(0, meterRegistry.get("results.stream.subscribers").gauge().value());
+        verify(electionService, times(1)).getResults(1L);
+    }
+
+    private static List<OptionResult> results(long votes) {
+        return List.of(new OptionResult(7L, "A", votes));
+    }
+
+    private static String text(Set<DataWithMediaType> items) {
+        StringBuilder text = new StringBuilder();
+        items.forEach(item -> text.append(item.getData()));
+        return text.toString();
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        final BlockingQueue<Set<DataWithMediaType>> sent = new LinkedBlockingQueue<>();
+        volatile boolean completed;
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            sent.add(items);
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        Set<DataWithMediaType> next() throws InterruptedException {
+            Set<DataWithMediaType> items = sent.poll(1, TimeUnit.SECONDS);
+            assertNotNull(items);
+            return items;
+        }
+    }
+
+    private static class BlockedEmitter extends RecordingEmitter {
+        final CountDownLatch sending = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void send(Set<DataWithMediaType> items) {
+            sending.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package pl.budziosz.votingsystem.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.repository.ProcessedEventPartitionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ProcessedEventRetentionServiceTest {
+
+    private ProcessedEventPartitionRepository partitionRepository;
+    private ProcessedEventRetentionService service;
+
+    @BeforeEach
+    void setUp() {
+        partitionRepository = Mockito.mock(ProcessedEventPartitionRepository.class);
+        service = new ProcessedEventRetentionService(partitionRepository);
+        ReflectionTestUtils.setField(service, "dedupHorizon", Duration.ofDays(7));
+        ReflectionTestUtils.setField(service, "partitionsAhead", 2);
+    }
+
+    private static String partition(LocalDate day) {
+        return "processed_events_" + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    @Test
+    void isExpired_onlyBeyondHorizon() {
+        assertTrue(service.isExpired(Instant.now().minus(Duration.ofDays(8))));
+        assertFalse(service.isExpired(Instant.now().minus(Duration.ofDays(6))));
+        assertFalse(service.isExpired(Instant.now().plus(Duration.ofMinutes(1))));
+    }
+
+    @Test
+    void maintainPartitions_createsAheadAndDropsExpired() {
+        LocalDate today = LocalDate.now();
+        when(partitionRepository.tryLockMaintenance()).thenReturn(true);
+        when(partitionRepository.listPartitions()).thenReturn(List.of(
+                "processed_events_default",
+                partition(today.minusDays(9)),
+                partition(today.minusDays(6)),
+                partition(today)));
+
+        service.maintainPartitions();
+
+        verify(partitionRepository).createDailyPartition(today);
+        verify(partitionRepository).createDailyPartition(today.plusDays(1));
+        verify(partitionRepository).createDailyPartition(today.plusDays(2));
+        verify(partitionRepository).dropPartition(partition(today.minusDays(9)));
+        verify(partitionRepository, times(1)).dropPartition(any());
+        verify(partitionRepository).deleteFromDefaultPartitionBefore(any());
+    }
+
+    @Test
+    void maintainPartitions_skipsWhenAnotherNodeHoldsTheLock() {
+        when(partitionRepository.tryLockMaintenance()).thenReturn(false);
+
+        service.maintainPartitions();
+
+        verify(partitionRepository, never()).createDailyPartition(any());
+        verify(partitionRepository, never()).listPartitions();
+    }
+}
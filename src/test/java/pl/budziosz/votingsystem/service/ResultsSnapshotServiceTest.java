@@ -0,0 +1,89 @@
+package pl.budziosz.votingsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import pl.budziosz.votingsystem.kafka.VoteConsumerProgress;
+import pl.budziosz.votingsystem.repository.ElectionResultsSnapshotRepository;
+import pl.budziosz.votingsystem.repository.ElectionResultsSnapshotRepository.ClosedElection;
+import pl.budziosz.votingsystem.repository.ElectionResultsSnapshotRepository.ResultsSnapshot;
+import pl.budziosz.votingsystem.repository.VoteRepository;
+import pl.budziosz.votingsystem.repository.VoteRepository.OptionCount;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ResultsSnapshotServiceTest {
+
+    private static final Instant ENDED = Instant.parse("2025-01-01T00:00:00Z");
+
+    private ElectionResultsSnapshotRepository snapshotRepository;
+    private VoteRepository voteRepository;
+    private VoteConsumerProgress consumerProgress;
+    private ResultsSnapshotService service;
+
+    @BeforeEach
+    void setUp() {
+        snapshotRepository = Mockito.mock(ElectionResultsSnapshotRepository.class);
+        voteRepository = Mockito.mock(VoteRepository.class);
+        consumerProgress = Mockito.mock(VoteConsumerProgress.class);
+        service = new ResultsSnapshotService(snapshotRepository, voteRepository, consumerProgress, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "grace", Duration.ofMinutes(1));
+        when(snapshotRepository.tryLockFinalization()).thenReturn(true);
+    }
+
+    private static OptionCount count(long optionId, String label, long votes) {
+        OptionCount c = Mockito.mock(OptionCount.class);
+        when(c.getOptionId()).thenReturn(optionId);
+        when(c.getLabel()).thenReturn(label);
+        when(c.getVotes()).thenReturn(votes);
+        return c;
+    }
+
+    @Test
+    void finalizeClosedElections_writesSnapshotOnceDrained() {
+        when(snapshotRepository.findClosedWithoutSnapshot(any())).thenReturn(List.of(new ClosedElection(1L, ENDED)));
+        when(consumerProgress.processedAllSentBefore(ENDED.plus(Duration.ofMinutes(1)))).thenReturn(true);
+        List<OptionCount> counts = List.of(count(3L, "A", 7));
+        when(voteRepository.countResultsByElection(1L)).thenReturn(counts);
+
+        service.finalizeClosedElections();
+
+        ArgumentCaptor<ResultsSnapshot> captor = ArgumentCaptor.forClass(ResultsSnapshot.class);
+        verify(snapshotRepository).insert(captor.capture());
+        assertEquals(1L, captor.getValue().electionId());
+        assertEquals("[{\"optionId\":3,\"label\":\"A\",\"votes\":7}]", captor.getValue().results());
+        assertEquals(64, captor.getValue().etag().length());
+    }
+
+    @Test
+    void finalizeClosedElections_waitsWhileEventsBeforeEndArePending() {
+        when(snapshotRepository.findClosedWithoutSnapshot(any())).thenReturn(List.of(
+                new ClosedElection(1L, ENDED), new ClosedElection(2L, ENDED.plus(Duration.ofHours(1)))));
+        when(consumerProgress.processedAllSentBefore(any())).thenReturn(false);
+
+        service.finalizeClosedElections();
+
+        verify(consumerProgress, times(1)).processedAllSentBefore(any());
+        verify(snapshotRepository, never()).insert(any());
+        verifyNoInteractions(voteRepository);
+    }
+
+    @Test
+    void finalizeClosedElections_skipsWhenAnotherNodeHoldsTheLock() {
+        when(snapshotRepository.tryLockFinalization()).thenReturn(false);
+
+        service.finalizeClosedElections();
+
+        verify(snapshotRepository, never()).findClosedWithoutSnapshot(any());
+        verifyNoInteractions(consumerProgress);
+    }
+}
@@ -1,19 +1,22 @@
 package pl.budziosz.votingsystem.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.ReferenceDataCache;
 import pl.budziosz.votingsystem.model.domain.Election;
-import pl.budziosz.votingsystem.model.domain.ElectionOption;
-import pl.budziosz.votingsystem.repository.ElectionOptionRepository;
 import pl.budziosz.votingsystem.repository.ElectionRepository;
 import pl.budziosz.votingsystem.validators.ElectionValidator;
 
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -21,16 +24,19 @@ import static org.mockito.Mockito.*;
 class UserVotingServiceTest {
 
     private ElectionRepository electionRepository;
-    private ElectionOptionRepository optionRepository;
     private ElectionValidator electionValidator;
+    private ReferenceDataCache referenceDataCache;
+    private SimpleMeterRegistry meterRegistry;
     private UserVotingService service;
 
     @BeforeEach
     void setUp() {
         electionRepository = Mockito.mock(ElectionRepository.class);
-        optionRepository = Mockito.mock(ElectionOptionRepository.class);
         electionValidator = Mockito.mock(ElectionValidator.class);
-        service = new UserVotingService(electionRepository, optionRepository, electionValidator);
+        referenceDataCache = Mockito.mock(ReferenceDataCache.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new UserVotingService(electionRepository, electionValidator, referenceDataCache,
+                new VotePipelineMetrics(meterRegistry));
     }
 
     @Test
@@ -43,22 +49,33 @@ class UserVotingServiceTest {
     }
 
     @Test
-    void listOptions_validatesElectionExists_thenFetchesOptions() {
-        when(optionRepository.findByElectionId(5L)).thenReturn(List.of(new ElectionOption()));
-        List<ElectionOption> opts = service.listOptions(5L);
+    void listOptions_validatesElectionExists_thenFetchesCachedOptions() {
+        when(referenceDataCache.findOptions(5L)).thenReturn(List.of(new OptionMetadata(1L, 5L, "A")));
+        List<OptionMetadata> opts = service.listOptions(5L);
         assertEquals(1, opts.size());
         verify(electionValidator).ensureElectionExists(5L);
-        verify(optionRepository).findByElectionId(5L);
+        verify(referenceDataCache).findOptions(5L);
+        verifyNoInteractions(electionRepository);
     }
 
     @Test
-    void getElection_returnsOr404() {
-        Election e = new Election(); e.setId(7L);
-        when(electionRepository.findById(7L)).thenReturn(Optional.of(e));
-        assertEquals(7L, service.getElection(7L).getId());
+    void requireVotable_checksWindowAndOptionAgainstCachedMetadata() {
+        ElectionMetadata metadata = new ElectionMetadata(1L, Instant.parse("2025-12-01T00:00:00Z"),
+                Instant.parse("2025-12-31T23:59:59Z"), Set.of(3L));
+        when(referenceDataCache.findElectionMetadata(1L)).thenReturn(Optional.of(metadata));
+        when(referenceDataCache.findElectionMetadata(2L)).thenReturn(Optional.empty());
+        Instant inside = Instant.parse("2025-12-15T12:00:00Z");
 
-        when(electionRepository.findById(8L)).thenReturn(Optional.empty());
-        ResponseStatusException ex = assertThrows(ResponseStatusException.class, () -> service.getElection(8L));
-        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+        assertEquals(metadata, service.requireVotable(1L, 3L, inside));
+        assertEquals(HttpStatus.NOT_FOUND, assertThrows(ResponseStatusException.class,
+                () -> service.requireVotable(2L, 3L, inside)).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> service.requireVotable(1L, 3L, Instant.parse("2026-01-01T00:00:00Z"))).getStatusCode());
+        assertEquals(HttpStatus.BAD_REQUEST, assertThrows(ResponseStatusException.class,
+                () -> service.requireVotable(1L, 4L, inside)).getStatusCode());
+        verifyNoInteractions(electionRepository);
+        for (String reason : List.of("election_not_found", "window", "option_mismatch")) {
+            assertEquals(1, meterRegistry.get("votes.rejected").tag("source", "http").tag("reason", reason).counter().count());
+        }
     }
 }
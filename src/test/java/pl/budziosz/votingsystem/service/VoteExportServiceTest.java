@@ -0,0 +1,132 @@
+package pl.budziosz.votingsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.repository.VoteExportRepository;
+import pl.budziosz.votingsystem.validators.ElectionValidator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class VoteExportServiceTest {
+
+    private static final Instant CREATED_AT = Instant.parse("2025-05-18T10:15:30.123Z");
+
+    private VoteExportRepository exportRepository;
+    private VoteExportService service;
+
+    @BeforeEach
+    void setUp() {
+        exportRepository = Mockito.mock(VoteExportRepository.class);
+        service = new VoteExportService(exportRepository, Mockito.mock(ElectionValidator.class), new ObjectMapper());
+    }
+
+    private void givenVotes(long... voterAndOption) throws Exception {
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (int i = 0; i < voterAndOption.length; i += 2) {
+                ResultSet rs = Mockito.mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn(voterAndOption[i]);
+                when(rs.getLong(2)).thenReturn(voterAndOption[i + 1]);
+                when(rs.getTimestamp(3)).thenReturn(Timestamp.from(CREATED_AT));
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(exportRepository).forEachVote(eq(5L), any());
+    }
+
+    @Test
+    void writeVotes_csvHasHeaderAndOneLinePerVote() throws Exception {
+        givenVotes(11, 1, 12, 2);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeVotes(5L, VoteExportFormat.CSV, false, out);
+
+        assertEquals("""
+                voter_id,option_id,created_at
+                11,1,2025-05-18T10:15:30.123Z
+                12,2,2025-05-18T10:15:30.123Z
+                """, out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeVotes_ndjsonGzipped() throws Exception {
+        givenVotes(11, 1);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        service.writeVotes(5L, VoteExportFormat.NDJSON, true, out);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("{\"voterId\":11,\"optionId\":1,\"createdAt\":\"2025-05-18T10:15:30.123Z\"}\n",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void writeResults_escapesLabels() throws Exception {
+        doAnswer(inv -> {
+            ResultSet rs = Mockito.mock(ResultSet.class);
+            when(rs.getLong(1)).thenReturn(3L);
+            when(rs.getString(2)).thenReturn("Yes, \"definitely\"");
+            when(rs.getLong(3)).thenReturn(42L);
+            inv.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(exportRepository).forEachOptionCount(eq(5L), any());
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+
+        service.writeResults(5L, VoteExportFormat.CSV, false, csv);
+        service.writeResults(5L, VoteExportFormat.NDJSON, false, ndjson);
+
+        assertEquals("option_id,label,votes\n3,\"Yes, \"\"definitely\"\"\",42\n", csv.toString(StandardCharsets.UTF_8));
+        assertEquals("{\"optionId\":3,\"label\":\"Yes, \\\"definitely\\\"\",\"votes\":42}\n", ndjson.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void writeVotes_clientGoneSurfacesIoException() throws Exception {
+        doAnswer(inv -> {
+            ResultSet rs = Mockito.mock(ResultSet.class);
+            when(rs.getTimestamp(3)).thenReturn(Timestamp.from(CREATED_AT));
+            for (int i = 0; i < 10_000; i++) {
+                inv.<RowCallbackHandler>getArgument(1).processRow(rs);
+            }
+            return null;
+        }).when(exportRepository).forEachVote(eq(5L), any());
+        OutputStream closed = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        IOException e = assertThrows(IOException.class, () -> service.writeVotes(5L, VoteExportFormat.CSV, false, closed));
+        assertEquals("Broken pipe", e.getMessage());
+    }
+
+    @Test
+    void exportFormat_unknownNameIsBadRequest() {
+        assertEquals(VoteExportFormat.NDJSON, VoteExportFormat.of("ndjson"));
+        assertThrows(ResponseStatusException.class, () -> VoteExportFormat.of("xml"));
+    }
+}
@@ -0,0 +1,122 @@
+package pl.budziosz.votingsystem.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.repository.VoterImportRepository;
+import pl.budziosz.votingsystem.repository.VoterImportRepository.MergeResult;
+import pl.budziosz.votingsystem.repository.VoterImportRepository.RowError;
+import pl.budziosz.votingsystem.repository.VoterImportRepository.VoterImport;
+import pl.budziosz.votingsystem.utils.PeselHasher;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class VoterImportServiceTest {
+
+    private VoterImportRepository importRepository;
+    private PeselHasher peselHasher;
+    private VoterImportService service;
+
+    @BeforeEach
+    void setUp() {
+        importRepository = Mockito.mock(VoterImportRepository.class);
+        peselHasher = new PeselHasher("test-pepper");
+        service = new VoterImportService(importRepository, peselHasher,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper());
+        ReflectionTestUtils.setField(service, "chunkSize", 2);
+        when(importRepository.create(any())).thenReturn(7L);
+        when(importRepository.merge(7L)).thenReturn(new MergeResult(1, 1));
+        when(importRepository.find(7L)).thenReturn(Optional.of(
+                new VoterImport(7L, "CSV", "COMPLETED", 3, 1, 3, null, null, null)));
+    }
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void importVoters_copiesValidCsvRowsAndRecordsRejectedLines() {
+        String csv = """
+                full_name,email,pesel,blocked
+                "Kowalski, Jan",jan@example.com,90010112345,true
+                Anna Nowak,anna@example.com,123,false
+
+                Piotr "Zły",piotr@example.com
+                """;
+
+        service.importVoters(VoterImportFormat.CSV, body(csv));
+
+        ArgumentCaptor<String> copy = ArgumentCaptor.forClass(String.class);
+        verify(importRepository).copyRows(copy.capture());
+        assertEquals("7,2,\"jan@example.com\",\"Kowalski, Jan\"," + peselHasher.hash("90010112345") + ",true\n", copy.getValue());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RowError>> errors = ArgumentCaptor.forClass(List.class);
+        verify(importRepository, times(2)).insertErrors(eq(7L), errors.capture());
+        List<RowError> rejected = errors.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(List.of(3L, 5L), rejected.stream().map(RowError::lineNo).toList());
+        assertTrue(rejected.get(0).error().startsWith("pesel "));
+        assertEquals("Cannot parse line: expected 4 fields, got 2", rejected.get(1).error());
+
+        verify(importRepository).updateProgress(7L, 2, 1);
+        verify(importRepository).updateProgress(7L, 3, 2);
+        verify(importRepository).complete(7L, 1, 3);
+        verify(importRepository).deleteRows(7L);
+    }
+
+    @Test
+    void importVoters_parsesNdjsonWithoutQuotingInputInErrors() {
+        String ndjson = """
+                {"email":"jan@example.com","fullName":"Jan","pesel":"90010112345"}
+                {"email":"anna@example.com","fullName":"Anna","pesel":"9001011234
+                """;
+
+        service.importVoters(VoterImportFormat.NDJSON, body(ndjson));
+
+        verify(importRepository).copyRows(contains("\"jan@example.com\",\"Jan\""));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RowError>> errors = ArgumentCaptor.forClass(List.class);
+        verify(importRepository).insertErrors(eq(7L), errors.capture());
+        assertEquals(2L, errors.getValue().get(0).lineNo());
+        assertFalse(errors.getValue().get(0).error().contains("9001011234"));
+    }
+
+    @Test
+    void importVoters_failsJobWithoutRequiredCsvColumn() {
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> service.importVoters(VoterImportFormat.CSV, body("email,name\n")));
+
+        assertEquals(HttpStatus.BAD_REQUEST, ex.getStatusCode());
+        verify(importRepository).fail(eq(7L), any());
+        verify(importRepository, never()).merge(anyLong());
+        verify(importRepository).deleteRows(7L);
+    }
+
+    @Test
+    void splitCsv_handlesQuotedFields() {
+        assertEquals(List.of("a", "b, c", "say \"hi\"", ""), VoterImportService.splitCsv("a,\"b, c\",\"say \"\"hi\"\"\","));
+        assertThrows(IllegalArgumentException.class, () -> VoterImportService.splitCsv("\"open"));
+    }
+
+    @Test
+    void format_resolvedFromContentType() {
+        assertEquals(VoterImportFormat.CSV, VoterImportFormat.of(MediaType.parseMediaType("text/csv;charset=UTF-8")));
+        assertEquals(VoterImportFormat.NDJSON, VoterImportFormat.of(MediaType.parseMediaType("application/x-ndjson")));
+        assertThrows(ResponseStatusException.class, () -> VoterImportFormat.of(MediaType.APPLICATION_JSON));
+    }
+}
@@ -1,21 +1,34 @@
 package pl.budziosz.votingsystem.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
+import pl.budziosz.votingsystem.cache.VotedIndex;
 import pl.budziosz.votingsystem.kafka.VoteRequestedEvent;
-import pl.budziosz.votingsystem.model.domain.Election;
-import pl.budziosz.votingsystem.model.domain.ElectionOption;
-import pl.budziosz.votingsystem.model.domain.ProcessedEvent;
-import pl.budziosz.votingsystem.model.domain.Vote;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.VoterStatusCache;
+import pl.budziosz.votingsystem.cache.VoterStatusCache.VoterStatus;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
 import pl.budziosz.votingsystem.model.domain.Voter;
 import pl.budziosz.votingsystem.repository.*;
+import pl.budziosz.votingsystem.repository.ElectionOptionTallyRepository.OptionVotes;
+import pl.budziosz.votingsystem.repository.VoteJdbcRepository.VoteTargets;
 import pl.budziosz.votingsystem.validators.VotingValidator;
 
+import java.sql.SQLException;
 import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -23,25 +36,36 @@ import static org.mockito.Mockito.*;
 
 class VotingServiceTest {
 
-    private VoteRepository voteRepository;
     private VoterRepository voterRepository;
-    private ElectionRepository electionRepository;
-    private ElectionOptionRepository electionOptionRepository;
     private ProcessedEventRepository processedEventRepository;
+    private VoteJdbcRepository voteJdbcRepository;
+    private ElectionOptionTallyRepository tallyRepository;
     private VotingValidator votingValidator;
+    private VotedIndex votedIndex;
+    private VoterStatusCache voterStatusCache;
+    private ProcessedEventRetentionService processedEventRetention;
+    private ApplicationEventPublisher eventPublisher;
+    private SimpleMeterRegistry meterRegistry;
 
     private VotingService service;
 
     @BeforeEach
     void setUp() {
-        voteRepository = Mockito.mock(VoteRepository.class);
         voterRepository = Mockito.mock(VoterRepository.class);
-        electionRepository = Mockito.mock(ElectionRepository.class);
-        electionOptionRepository = Mockito.mock(ElectionOptionRepository.class);
         processedEventRepository = Mockito.mock(ProcessedEventRepository.class);
+        voteJdbcRepository = Mockito.mock(VoteJdbcRepository.class);
+        tallyRepository = Mockito.mock(ElectionOptionTallyRepository.class);
         votingValidator = Mockito.mock(VotingValidator.class);
-        service = new VotingService(voteRepository, voterRepository, electionRepository,
-                electionOptionRepository, processedEventRepository, votingValidator);
+        votedIndex = Mockito.mock(VotedIndex.class);
+        voterStatusCache = Mockito.mock(VoterStatusCache.class);
+        when(voterStatusCache.status(any())).thenReturn(VoterStatus.UNKNOWN);
+        processedEventRetention = Mockito.mock(ProcessedEventRetentionService.class);
+        eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new VotingService(voterRepository, processedEventRepository, voteJdbcRepository, tallyRepository,
+                votingValidator,
+                votedIndex, voterStatusCache, processedEventRetention, eventPublisher,
+                new VotePipelineMetrics(meterRegistry));
     }
 
     private VoteRequestedEvent sampleEvent() {
@@ -54,16 +78,23 @@ class VotingServiceTest {
         );
     }
 
+    private void stubReferenceData(OptionMetadata... options) {
+        ElectionMetadata election = new ElectionMetadata(1L,
+                Instant.parse("2025-12-01T00:00:00Z"), Instant.parse("2025-12-31T23:59:59Z"), Set.of(3L, 4L));
+        Map<Long, OptionMetadata> byId = new HashMap<>(Map.of(3L, new OptionMetadata(3L, 1L, "A")));
+        for (OptionMetadata option : options) {
+            byId.put(option.id(), option);
+        }
+        when(voteJdbcRepository.findVoteTargets(any())).thenReturn(new VoteTargets(Map.of(1L, election), byId));
+    }
+
     private void stubHappyPath() {
-        Election election = new Election(); election.setId(1L); election.setStartsAt(Instant.parse("2025-12-01T00:00:00Z")); election.setEndsAt(Instant.parse("2025-12-31T23:59:59Z"));
         Voter voter = new Voter(); voter.setId(2L); voter.setBlocked(false);
-        ElectionOption option = new ElectionOption(); option.setId(3L); option.setElection(election);
 
-        when(electionRepository.findById(1L)).thenReturn(Optional.of(election));
+        stubReferenceData();
         when(voterRepository.findById(2L)).thenReturn(Optional.of(voter));
-        when(electionOptionRepository.findById(3L)).thenReturn(Optional.of(option));
-        when(processedEventRepository.save(any())).thenReturn(ProcessedEvent.of("123"));
-        when(voteRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(processedEventRepository.insertIfAbsent(eq("123"), any())).thenReturn(1);
+        when(voteJdbcRepository.insertVote(any())).thenReturn(true);
     }
 
     @Test
@@ -71,44 +102,277 @@ class VotingServiceTest {
         stubHappyPath();
         VoteRequestedEvent e = sampleEvent();
 
-        service.processEvent(e);
+        service.processEvent(e, 0);
 
-        InOrder inOrder = inOrder(processedEventRepository, electionRepository, votingValidator, voterRepository, electionOptionRepository, voteRepository);
-        inOrder.verify(processedEventRepository).save(any(ProcessedEvent.class));
-        inOrder.verify(electionRepository).findById(1L);
-        inOrder.verify(votingValidator).ensureWithinWindow(any(Election.class), eq(e.requestedAt()));
+        InOrder inOrder = inOrder(processedEventRepository, voteJdbcRepository, votingValidator, voterRepository);
+        inOrder.verify(processedEventRepository).insertIfAbsent("123", e.requestedAt());
+        inOrder.verify(voteJdbcRepository).findVoteTargets(List.of(e));
+        inOrder.verify(votingValidator).ensureWithinWindow(any(ElectionMetadata.class), eq(e.requestedAt()));
         inOrder.verify(voterRepository).findById(2L);
-        inOrder.verify(votingValidator).requireActiveVoter(any(Voter.class));
-        inOrder.verify(electionOptionRepository).findById(3L);
-        inOrder.verify(votingValidator).ensureOptionBelongsToElection(any(ElectionOption.class), eq(1L));
-        inOrder.verify(voteRepository).save(any(Vote.class));
+        inOrder.verify(votingValidator).requireActiveVoter(VoterStatus.ACTIVE);
+        inOrder.verify(votingValidator).ensureOptionBelongsToElection(any(OptionMetadata.class), eq(1L));
+        inOrder.verify(voteJdbcRepository).insertVote(e);
+        verify(eventPublisher).publishEvent(new VoteStoredEvent(1L, 2L, 3L));
+        verify(voterStatusCache).learn(2L, false);
+        verify(tallyRepository).addVotes(List.of(new OptionVotes(1L, 3L, 1)), 0);
+        for (String stage : List.of("dedup_insert", "reference_lookup", "voter_lookup", "validation",
+                "vote_insert", "tally_update")) {
+            assertEquals(1, meterRegistry.get("votes.ingest.stage").tag("stage", stage).timer().count(), stage);
+        }
+    }
+
+    @Test
+    void processEvent_cachedVoterStatus_skipsVoterLookup() {
+        stubHappyPath();
+        when(voterStatusCache.status(2L)).thenReturn(VoterStatus.ACTIVE);
+
+        service.processEvent(sampleEvent(), 0);
+
+        verify(votingValidator).requireActiveVoter(VoterStatus.ACTIVE);
+        verify(voterRepository, never()).findById(any());
+        verify(voteJdbcRepository).insertVote(any());
+    }
+
+    @Test
+    void processEvent_cachedBlockedVoter_isRejectedWithoutLookup() {
+        stubHappyPath();
+        when(voterStatusCache.status(2L)).thenReturn(VoterStatus.BLOCKED);
+        doThrow(new VoteRejectedException(RejectionReason.VOTER_BLOCKED)).when(votingValidator).requireActiveVoter(VoterStatus.BLOCKED);
+
+        VoteRejectedException ex = assertThrows(VoteRejectedException.class, () -> service.processEvent(sampleEvent(), 0));
+
+        assertEquals(RejectionReason.VOTER_BLOCKED, ex.getReason());
+        verify(voterRepository, never()).findById(any());
+        verify(voteJdbcRepository, never()).insertVote(any());
+    }
+
+    @Test
+    void processEvent_unknownVoter_isRejected() {
+        stubHappyPath();
+        when(voterRepository.findById(2L)).thenReturn(Optional.empty());
+
+        VoteRejectedException ex = assertThrows(VoteRejectedException.class, () -> service.processEvent(sampleEvent(), 0));
+
+        assertEquals(RejectionReason.VOTER_NOT_FOUND, ex.getReason());
+        verify(voterStatusCache, never()).learn(any(), anyBoolean());
+    }
+
+    @Test
+    void processEvent_voterAlreadyInVotedIndex_skipsDatabaseWork() {
+        when(votedIndex.hasVoted(1L, 2L)).thenReturn(true);
+
+        service.processEvent(sampleEvent(), 0);
+
+        verifyNoInteractions(processedEventRepository, voterRepository, votingValidator, eventPublisher);
+        assertEquals(1, meterRegistry.get("votes.rejected").tag("source", "consumer").tag("reason", "duplicate").counter().count());
     }
 
     @Test
     void processEvent_duplicateEvent_isIgnoredEarly() {
 
-        doThrow(new DataIntegrityViolationException("duplicate")).when(processedEventRepository).save(any());
-        service.processEvent(sampleEvent());
-        verifyNoInteractions(electionRepository, voterRepository, electionOptionRepository, voteRepository, votingValidator);
+        when(processedEventRepository.insertIfAbsent(eq("123"), any())).thenReturn(0);
+        service.processEvent(sampleEvent(), 0);
+        verifyNoInteractions(voterRepository, votingValidator);
+        assertEquals(1, meterRegistry.get("votes.ingest.dedup.hits").counter().count());
     }
 
     @Test
-    void processEvent_duplicateVote_isCaughtButNotThrown() {
+    void processEvent_unknownElection_isRejectedWithReason() {
+        when(processedEventRepository.insertIfAbsent(eq("123"), any())).thenReturn(1);
+        when(voteJdbcRepository.findVoteTargets(any())).thenReturn(new VoteTargets(Map.of(), Map.of()));
+
+        VoteRejectedException ex = assertThrows(VoteRejectedException.class, () -> service.processEvent(sampleEvent(), 0));
+
+        assertEquals(RejectionReason.ELECTION_NOT_FOUND, ex.getReason());
+    }
+
+    @Test
+    void processEvent_duplicateVote_isIgnoredWithoutError() {
+        stubHappyPath();
+        when(voteJdbcRepository.insertVote(any())).thenReturn(false);
+
+        assertDoesNotThrow(() -> service.processEvent(sampleEvent(), 0));
+        verify(voteJdbcRepository).insertVote(any());
+        assertEquals(1, meterRegistry.get("votes.rejected").tag("source", "consumer").tag("reason", "duplicate").counter().count());
+        assertEquals(0, meterRegistry.get("votes.ingest.stage").tag("stage", "tally_update").timer().count());
+        verify(tallyRepository, never()).addVotes(any(), anyInt());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void processEvent_foreignKeyViolation_isNotTakenForDuplicate() {
         stubHappyPath();
-        when(voteRepository.save(any())).thenThrow(new DataIntegrityViolationException("violation"));
+        DataIntegrityViolationException fk = new DataIntegrityViolationException("could not execute statement",
+                new SQLException("insert or update on table \"votes\" violates foreign key constraint", "23503"));
+        when(voteJdbcRepository.insertVote(any())).thenThrow(fk);
 
-        assertDoesNotThrow(() -> service.processEvent(sampleEvent()));
-        verify(voteRepository).save(any(Vote.class));
+        assertSame(fk, assertThrows(DataIntegrityViolationException.class, () -> service.processEvent(sampleEvent(), 0)));
+        assertEquals(0, meterRegistry.get("votes.rejected").tag("source", "consumer").tag("reason", "duplicate").counter().count());
+        verify(votedIndex, never()).markVoted(any(), any());
+        verify(tallyRepository, never()).addVotes(any(), anyInt());
     }
 
     @Test
     void processEvent_outsideWindow_throwsAndDoesNotSaveVote() {
         stubHappyPath();
         doThrow(new IllegalArgumentException("Vote outside election window"))
-                .when(votingValidator).ensureWithinWindow(any(Election.class), any());
+                .when(votingValidator).ensureWithinWindow(any(ElectionMetadata.class), any());
+
+        assertThrows(IllegalArgumentException.class, () -> service.processEvent(sampleEvent(), 0));
+        verify(voteJdbcRepository, never()).insertVote(any());
+        verify(processedEventRepository).insertIfAbsent(eq("123"), any());
+    }
+
+    @Test
+    void processEvent_beyondDedupHorizon_isRejectedWithoutRecordingIt() {
+        when(processedEventRetention.isExpired(any())).thenReturn(true);
+
+        VoteRejectedException ex = assertThrows(VoteRejectedException.class, () -> service.processEvent(sampleEvent(), 0));
+
+        assertEquals(RejectionReason.EXPIRED, ex.getReason());
+
+        verifyNoInteractions(processedEventRepository, voterRepository);
+    }
+
+    @Test
+    void processEventNative_beyondDedupHorizon_isRejected() {
+        when(processedEventRetention.isExpired(any())).thenReturn(true);
+
+        VoteOutcome outcome = service.processEventNative(sampleEvent(), 0);
+
+        assertEquals(VoteOutcome.RejectionReason.EXPIRED, outcome.reason());
+        verifyNoInteractions(voteJdbcRepository);
+    }
+
+    @Test
+    void processEventNative_usesSingleStatement_withoutLoadingEntities() {
+        VoteRequestedEvent e = sampleEvent();
+        when(voteJdbcRepository.insertVoteChecked(e, 0)).thenReturn(VoteOutcome.rejected(VoteOutcome.RejectionReason.VOTER_BLOCKED));
+
+        VoteOutcome outcome = service.processEventNative(e, 0);
+
+        assertEquals(VoteOutcome.RejectionReason.VOTER_BLOCKED, outcome.reason());
+        verifyNoInteractions(voterRepository, processedEventRepository, votingValidator);
+    }
+
+    @Test
+    void processEventNative_rejected_forgetsTheEventSoARedeliveryIsCheckedAgain() {
+        VoteRequestedEvent e = sampleEvent();
+        when(voteJdbcRepository.insertVoteChecked(e, 0)).thenReturn(VoteOutcome.rejected(VoteOutcome.RejectionReason.OUTSIDE_WINDOW));
+
+        service.processEventNative(e, 0);
+
+        verify(voteJdbcRepository).deleteProcessedEvents(List.of(e));
+    }
+
+    private void stubBatchLookups() {
+        Voter voter = new Voter(); voter.setId(2L); voter.setBlocked(false);
+        Voter blocked = new Voter(); blocked.setId(4L); blocked.setBlocked(true);
+
+        stubReferenceData();
+        when(voterRepository.findAllById(any())).thenReturn(List.of(voter, blocked));
+        doThrow(new VoteRejectedException(RejectionReason.VOTER_BLOCKED)).when(votingValidator).requireActiveVoter(VoterStatus.BLOCKED);
+    }
+
+    @Test
+    void processBatch_resolvesEntitiesOnce_andInsertsAcceptedVotesInOneBatch() {
+        stubBatchLookups();
+        VoteRequestedEvent first = sampleEvent();
+        VoteRequestedEvent second = new VoteRequestedEvent("456", 1L, 2L, 3L, Instant.parse("2025-12-15T12:00:01Z"));
+        when(voteJdbcRepository.insertProcessedEvents(List.of(first, second))).thenReturn(new int[]{1, 1});
+        when(voteJdbcRepository.insertVotes(any())).thenReturn(new int[]{1, 0});
+
+        service.processBatch(List.of(first, second), 0);
+
+        verify(voterRepository).findAllById(any());
+        verify(voteJdbcRepository).findVoteTargets(List.of(first, second));
+        verify(voteJdbcRepository).insertVotes(List.of(first, second));
+        verify(tallyRepository).addVotes(List.of(new OptionVotes(1L, 3L, 1)), 0);
+        verify(voteJdbcRepository, never()).insertVote(any());
+    }
+
+    @Test
+    void processBatch_loadsOnlyVotersWithoutCachedStatus() {
+        stubBatchLookups();
+        when(voterStatusCache.status(2L)).thenReturn(VoterStatus.ACTIVE);
+        VoteRequestedEvent cached = sampleEvent();
+        VoteRequestedEvent uncached = new VoteRequestedEvent("789", 1L, 4L, 3L, Instant.parse("2025-12-15T12:00:00Z"));
+        when(voteJdbcRepository.insertProcessedEvents(List.of(cached, uncached))).thenReturn(new int[]{1, 1});
+        when(voteJdbcRepository.insertVotes(any())).thenReturn(new int[]{1});
+
+        Map<VoteRequestedEvent, RejectionReason> rejected = service.processBatch(List.of(cached, uncached), 0);
+
+        assertEquals(Map.of(uncached, RejectionReason.VOTER_BLOCKED), rejected);
+        verify(voterRepository).findAllById(Set.of(4L));
+        verify(voterStatusCache).learn(4L, true);
+        verify(voteJdbcRepository).insertVotes(List.of(cached));
+    }
+
+    @Test
+    void processBatch_countsStoredVotesPerOptionInShard() {
+        stubBatchLookups();
+        stubReferenceData(new OptionMetadata(4L, 1L, "B"));
+        VoteRequestedEvent first = new VoteRequestedEvent("1", 1L, 2L, 4L, Instant.parse("2025-12-15T12:00:00Z"));
+        VoteRequestedEvent second = new VoteRequestedEvent("2", 1L, 5L, 3L, Instant.parse("2025-12-15T12:00:00Z"));
+        VoteRequestedEvent third = new VoteRequestedEvent("3", 1L, 6L, 4L, Instant.parse("2025-12-15T12:00:00Z"));
+        when(voterStatusCache.status(any())).thenReturn(VoterStatus.ACTIVE);
+        when(voteJdbcRepository.insertProcessedEvents(any())).thenReturn(new int[]{1, 1, 1});
+        when(voteJdbcRepository.insertVotes(any())).thenReturn(new int[]{1, 1, 1});
+
+        service.processBatch(List.of(first, second, third), 5);
+
+        verify(tallyRepository).addVotes(List.of(new OptionVotes(1L, 3L, 1), new OptionVotes(1L, 4L, 2)), 5);
+    }
+
+    @Test
+    void processBatch_skipsAlreadyProcessedEvents() {
+        stubBatchLookups();
+        VoteRequestedEvent processed = sampleEvent();
+        VoteRequestedEvent fresh = new VoteRequestedEvent("456", 1L, 2L, 3L, Instant.parse("2025-12-15T12:00:01Z"));
+        when(voteJdbcRepository.insertProcessedEvents(List.of(processed, fresh))).thenReturn(new int[]{0, 1});
+        when(voteJdbcRepository.insertVotes(any())).thenReturn(new int[]{1});
+
+        service.processBatch(List.of(processed, fresh), 0);
+
+        verify(voteJdbcRepository).insertVotes(List.of(fresh));
+    }
+
+    @Test
+    void processBatch_rejectedEventDoesNotAbortTheRest() {
+        stubBatchLookups();
+        VoteRequestedEvent blockedVoter = new VoteRequestedEvent("789", 1L, 4L, 3L, Instant.parse("2025-12-15T12:00:00Z"));
+        VoteRequestedEvent valid = sampleEvent();
+        when(voteJdbcRepository.insertProcessedEvents(List.of(blockedVoter, valid))).thenReturn(new int[]{1, 1});
+        when(voteJdbcRepository.insertVotes(any())).thenReturn(new int[]{1});
+
+        Map<VoteRequestedEvent, RejectionReason> rejected = service.processBatch(List.of(blockedVoter, valid), 0);
+
+        assertEquals(Map.of(blockedVoter, RejectionReason.VOTER_BLOCKED), rejected);
+        verify(voteJdbcRepository).insertVotes(List.of(valid));
+        verify(voteJdbcRepository).deleteProcessedEvents(List.of(blockedVoter));
+    }
+
+    @Test
+    void processBatch_dropsEventsOfVotersAlreadyInVotedIndex() {
+        stubBatchLookups();
+        VoteRequestedEvent indexed = sampleEvent();
+        VoteRequestedEvent fresh = new VoteRequestedEvent("456", 1L, 4L, 3L, Instant.parse("2025-12-15T12:00:01Z"));
+        when(votedIndex.hasVoted(1L, 2L)).thenReturn(true);
+        when(voteJdbcRepository.insertProcessedEvents(List.of(fresh))).thenReturn(new int[]{1});
+
+        service.processBatch(List.of(indexed, fresh), 0);
+
+        verify(voteJdbcRepository).insertProcessedEvents(List.of(fresh));
+    }
+
+    @Test
+    void processBatch_allDuplicates_touchesNothingElse() {
+        when(voteJdbcRepository.insertProcessedEvents(List.of(sampleEvent()))).thenReturn(new int[]{0});
+
+        service.processBatch(List.of(sampleEvent()), 0);
 
-        assertThrows(IllegalArgumentException.class, () -> service.processEvent(sampleEvent()));
-        verify(voteRepository, never()).save(any());
-        verify(processedEventRepository).save(any());
+        verifyNoInteractions(voterRepository, votingValidator);
+        verify(voteJdbcRepository, never()).insertVotes(any());
+        verify(voteJdbcRepository, never()).deleteProcessedEvents(any());
     }
 }
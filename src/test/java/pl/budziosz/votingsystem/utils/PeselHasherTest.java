@@ -0,0 +1,79 @@
+package pl.budziosz.votingsystem.utils;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PeselHasherTest {
+
+    private final PeselHasher hasher = new PeselHasher("pepper");
+
+    private static String sha256Hex(String value) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void hash_isHmacOfSha256() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec("pepper".getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String expected = HexFormat.of().formatHex(mac.doFinal(
+                MessageDigest.getInstance("SHA-256").digest("90010112345".getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals(expected, hasher.hash("90010112345"));
+        assertEquals(expected, hasher.hash("90010112345"));
+        assertNotEquals(expected, new PeselHasher("other").hash("90010112345"));
+    }
+
+    @Test
+    void hash_handlesInputsOutsideTheReusedBuffer() throws Exception {
+        String longInput = "1234567890123456789";
+        String nonAscii = "9001011234ż";
+
+        assertEquals(hasher.rehashLegacy(sha256Hex(longInput)), hasher.hash(longInput));
+        assertEquals(hasher.rehashLegacy(sha256Hex(nonAscii)), hasher.hash(nonAscii));
+    }
+
+    @Test
+    void rehashLegacy_matchesHashOfSamePesel() throws Exception {
+        assertEquals(hasher.hash("02270803628"), hasher.rehashLegacy(sha256Hex("02270803628")));
+    }
+
+    @Test
+    void hashAll_keepsInputOrder() {
+        List<String> pesels = IntStream.range(0, 1_000).mapToObj(i -> String.format("%011d", i)).toList();
+
+        assertEquals(pesels.stream().map(hasher::hash).toList(), hasher.hashAll(pesels));
+    }
+
+    @Test
+    void hash_concurrentVirtualThreads_shareThePoolSafely() throws Exception {
+        List<String> pesels = IntStream.range(0, 2_000).mapToObj(i -> String.format("%011d", i)).toList();
+        List<String> expected = pesels.stream().map(hasher::hash).toList();
+
+        List<Future<String>> hashes;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            hashes = pesels.stream().map(p -> executor.submit(() -> hasher.hash(p))).toList();
+        }
+
+        for (int i = 0; i < pesels.size(); i++) {
+            assertEquals(expected.get(i), hashes.get(i).get());
+        }
+    }
+
+    @Test
+    void constructor_requiresPepper() {
+        assertThrows(IllegalStateException.class, () -> new PeselHasher(" "));
+        assertThrows(IllegalArgumentException.class, () -> hasher.hash(null));
+    }
+}
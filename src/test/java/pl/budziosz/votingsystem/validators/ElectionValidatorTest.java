@@ -5,27 +5,30 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.ReferenceDataCache;
 import pl.budziosz.votingsystem.model.domain.Election;
 import pl.budziosz.votingsystem.model.domain.ElectionOption;
 import pl.budziosz.votingsystem.repository.ElectionOptionRepository;
-import pl.budziosz.votingsystem.repository.ElectionRepository;
 
 import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 class ElectionValidatorTest {
 
-    private ElectionRepository electionRepository;
     private ElectionOptionRepository optionRepository;
+    private ReferenceDataCache referenceDataCache;
     private ElectionValidator validator;
 
     @BeforeEach
     void setUp() {
-        electionRepository = Mockito.mock(ElectionRepository.class);
         optionRepository = Mockito.mock(ElectionOptionRepository.class);
-        validator = new ElectionValidator(electionRepository, optionRepository);
+        referenceDataCache = Mockito.mock(ReferenceDataCache.class);
+        validator = new ElectionValidator(optionRepository, referenceDataCache);
     }
 
     @Test
@@ -47,11 +50,12 @@ class ElectionValidatorTest {
     }
 
     @Test
-    void ensureElectionExists_checksRepository() {
-        when(electionRepository.existsById(1L)).thenReturn(true);
+    void ensureElectionExists_checksReferenceDataCache() {
+        when(referenceDataCache.findElectionMetadata(1L)).thenReturn(Optional.of(
+                new ElectionMetadata(1L, Instant.parse("2025-01-01T00:00:00Z"), Instant.parse("2025-01-02T00:00:00Z"), Set.of())));
         assertDoesNotThrow(() -> validator.ensureElectionExists(1L));
 
-        when(electionRepository.existsById(2L)).thenReturn(false);
+        when(referenceDataCache.findElectionMetadata(2L)).thenReturn(Optional.empty());
         ResponseStatusException ex = assertThrows(ResponseStatusException.class,
                 () -> validator.ensureElectionExists(2L));
         assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
@@ -1,11 +1,14 @@
 package pl.budziosz.votingsystem.validators;
 
 import org.junit.jupiter.api.Test;
-import pl.budziosz.votingsystem.model.domain.Election;
-import pl.budziosz.votingsystem.model.domain.ElectionOption;
-import pl.budziosz.votingsystem.model.domain.Voter;
+import pl.budziosz.votingsystem.cache.ElectionMetadata;
+import pl.budziosz.votingsystem.cache.OptionMetadata;
+import pl.budziosz.votingsystem.cache.VoterStatusCache.VoterStatus;
+import pl.budziosz.votingsystem.model.domain.VoteOutcome.RejectionReason;
+import pl.budziosz.votingsystem.model.domain.VoteRejectedException;
 
 import java.time.Instant;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,18 +18,16 @@ class VotingValidatorTest {
 
     @Test
     void ensureWithinWindow_allowsInsideWindow() {
-        Election e = new Election();
-        e.setStartsAt(Instant.parse("2025-12-01T00:00:00Z"));
-        e.setEndsAt(Instant.parse("2025-12-31T23:59:59Z"));
+        ElectionMetadata e = new ElectionMetadata(1L, Instant.parse("2025-12-01T00:00:00Z"),
+                Instant.parse("2025-12-31T23:59:59Z"), Set.of());
 
         assertDoesNotThrow(() -> validator.ensureWithinWindow(e, Instant.parse("2025-12-15T12:00:00Z")));
     }
 
     @Test
     void ensureWithinWindow_throwsOutsideWindow() {
-        Election e = new Election();
-        e.setStartsAt(Instant.parse("2025-12-01T00:00:00Z"));
-        e.setEndsAt(Instant.parse("2025-12-31T23:59:59Z"));
+        ElectionMetadata e = new ElectionMetadata(1L, Instant.parse("2025-12-01T00:00:00Z"),
+                Instant.parse("2025-12-31T23:59:59Z"), Set.of());
 
         IllegalArgumentException ex1 = assertThrows(IllegalArgumentException.class,
                 () -> validator.ensureWithinWindow(e, Instant.parse("2025-11-30T23:59:59Z")));
@@ -39,28 +40,20 @@ class VotingValidatorTest {
 
     @Test
     void requireActiveVoter_throwsWhenBlocked() {
-        Voter v = new Voter();
-        v.setBlocked(true);
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> validator.requireActiveVoter(v));
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> validator.requireActiveVoter(VoterStatus.BLOCKED));
         assertTrue(ex.getMessage().toLowerCase().contains("blocked"));
+        assertEquals(RejectionReason.VOTER_BLOCKED, ((VoteRejectedException) ex).getReason());
     }
 
     @Test
     void requireActiveVoter_okWhenNotBlocked() {
-        Voter v = new Voter();
-        v.setBlocked(false);
-        assertDoesNotThrow(() -> validator.requireActiveVoter(v));
+        assertDoesNotThrow(() -> validator.requireActiveVoter(VoterStatus.ACTIVE));
     }
 
     @Test
     void ensureOptionBelongsToElection_checksRelation() {
-        Election election = new Election();
-        election.setId(10L);
-        Election otherElection = new Election();
-        otherElection.setId(11L);
-
-        ElectionOption opt = new ElectionOption();
-        opt.setElection(election);
+        OptionMetadata opt = new OptionMetadata(3L, 10L, "A");
 
         assertDoesNotThrow(() -> validator.ensureOptionBelongsToElection(opt, 10L));
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,